@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads delimited text one record at a time. Fields wrapped in double quotes
+ * may contain delimiters, line breaks and doubled quotes ("") standing for a
+ * single quote. Records end at \n, \r\n or \r outside of quotes. The
+ * delimiter is matched literally, and may be more than one character.
+ *
+ * @author draque
+ */
+final class CsvRecordReader implements Closeable {
+
+    private static final char QUOTE = '"';
+    private static final char BOM = '\uFEFF';
+
+    private final Reader in;
+    private final String delimiter;
+    private final char[] buffer = new char[8192];
+    private int bufferPos = 0;
+    private int bufferLen = 0;
+    private boolean started = false;
+
+    /**
+     * @param _in source of text (closed along with this reader)
+     * @param _delimiter field separator
+     */
+    CsvRecordReader(Reader _in, String _delimiter) {
+        if (_delimiter == null || _delimiter.isEmpty()) {
+            throw new IllegalArgumentException("Delimiter may not be blank.");
+        }
+
+        in = _in;
+        delimiter = _delimiter;
+    }
+
+    /**
+     * Reads next record
+     *
+     * @return fields of record in order, or null if at end of input
+     * @throws IOException on read error
+     */
+    List<String> readRecord() throws IOException {
+        List<String> ret = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        // length of field at close of its quoted section; delimiters may only follow this
+        int quotedEnd = 0;
+        int c = read();
+
+        if (!started) {
+            started = true;
+            if (c == BOM) {
+                c = read();
+            }
+        }
+
+        if (c == -1) {
+            return null;
+        }
+
+        while (c != -1) {
+            if (inQuotes) {
+                if (c == QUOTE) {
+                    c = read();
+
+                    if (c == QUOTE) {
+                        field.append(QUOTE);
+                    } else {
+                        inQuotes = false;
+                        quotedEnd = field.length();
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == QUOTE && field.length() == 0) {
+                inQuotes = true;
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                c = read();
+
+                if (c != '\n' && c != -1) {
+                    bufferPos--;
+                }
+                break;
+            } else {
+                field.append((char) c);
+
+                if (field.length() - quotedEnd >= delimiter.length()
+                        && endsWithDelimiter(field)) {
+                    field.setLength(field.length() - delimiter.length());
+                    ret.add(field.toString());
+                    field.setLength(0);
+                    quotedEnd = 0;
+                }
+            }
+
+            c = read();
+        }
+
+        ret.add(field.toString());
+
+        return ret;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean endsWithDelimiter(StringBuilder field) {
+        int offset = field.length() - delimiter.length();
+
+        for (int i = 0; i < delimiter.length(); i++) {
+            if (field.charAt(offset + i) != delimiter.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (bufferPos == bufferLen) {
+            bufferLen = in.read(buffer, 0, buffer.length);
+            bufferPos = 0;
+
+            if (bufferLen <= 0) {
+                bufferLen = 0;
+                return -1;
+            }
+        }
+
+        return buffer[bufferPos++];
+    }
+}
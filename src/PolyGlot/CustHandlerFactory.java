@@ -39,10 +39,10 @@ import PolyGlot.Nodes.WordPropValueNode;
 import PolyGlot.Nodes.WordProperty;
 import java.awt.Font;
 import java.io.InputStream;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
@@ -66,20 +66,48 @@ public class CustHandlerFactory {
      * from newer version of PolyGlot
      */
     public static CustHandler getCustHandler(InputStream fileStream, DictCore core) throws Exception {
-        //File XMLFile = new File(fileName);
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        Document doc;
+        return getCustHandler(readVersion(fileStream), core);
+    }
 
-        doc = dBuilder.parse(fileStream);
-        doc.getDocumentElement().normalize();
-        Node versionNode;
-        String versionNumber;
-        CustHandler ret = null;
+    /**
+     * Reads version number from stream of dictionary XML, reading only as far
+     * as the version element
+     *
+     * @param fileStream stream of file to be loaded
+     * @return version number, "0" if none found (pre 0.6)
+     * @throws XMLStreamException on read error
+     */
+    public static String readVersion(InputStream fileStream) throws XMLStreamException {
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(fileStream);
+        String ret = "0";
+
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && reader.getLocalName().equals(PGTUtil.pgVersionXID)) {
+                    ret = reader.getElementText();
+                    break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
 
-        // test for version number in pgd file, set to 0 if none found (pre 0.6)
-        versionNode = doc.getDocumentElement().getElementsByTagName(PGTUtil.pgVersionXID).item(0);
-        versionNumber = versionNode == null ? "0" : versionNode.getTextContent();
+        return ret;
+    }
+
+    /**
+     * Creates appropriate handler to read file saved with given version of
+     * PolyGlot
+     *
+     * @param versionNumber version of PolyGlot file was saved with
+     * @param core dictionary core
+     * @return an appropriate handler for the xml file
+     * @throws java.lang.Exception if version no longer supported or if file
+     * is from newer version of PolyGlot
+     */
+    public static CustHandler getCustHandler(String versionNumber, DictCore core) throws Exception {
+        CustHandler ret = null;
 
         switch (versionNumber) {
             case "0":
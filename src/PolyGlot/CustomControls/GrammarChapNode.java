@@ -20,8 +20,6 @@
 package PolyGlot.CustomControls;
 
 import PolyGlot.ManagersCollections.GrammarManager;
-import java.util.Enumeration;
-import java.util.Vector;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.MutableTreeNode;
 
@@ -56,10 +54,6 @@ public class GrammarChapNode extends DefaultMutableTreeNode {
         return name;
     }
 
-    public Enumeration children(String _filter) {
-        return internalChildren(_filter);
-    }
-    
     @Override
     /**
      * Overriden to prevent unwanted removals
@@ -73,43 +67,18 @@ public class GrammarChapNode extends DefaultMutableTreeNode {
      * @param node node to remove
      */
     public void doRemove(MutableTreeNode node) {
-        super.remove(node);
-    }
-    
-    private Enumeration internalChildren(String filter) {
-        Enumeration ret;
-        if (filter.equals("") || children == null) {
-            ret = super.children();
-        } else if (children.elementAt(0) instanceof GrammarSectionNode) {
-            Vector<GrammarSectionNode> v = new Vector<>();
-
-            for (Object curObject : children.toArray()) {
-                GrammarSectionNode curNode = (GrammarSectionNode)curObject;
-                if (curNode.getName().toLowerCase().contains(filter.toLowerCase())
-                        || curNode.getSectionText().toLowerCase().contains(filter.toLowerCase())) {
-                    v.add(curNode);
-                }
-            }
+        if (isNodeChild(node)) {
+            super.remove(node);
+        } else if (children != null) {
+            // shown under a search result chapter, but still held here
+            children.remove(node);
+        }
 
-            ret = v.elements();
-        } else if (children.elementAt(0) instanceof GrammarChapNode) {
-            Vector<GrammarChapNode> v = new Vector<>();
-            
-            for (GrammarChapNode curNode : (GrammarChapNode[]) children.toArray()) {
-                if (curNode.getName().toLowerCase().contains(filter.toLowerCase())) {
-                    v.add(curNode);
-                }
-            }
-            
-            ret = v.elements();
-        } else {
-            // return null if unknown child. Error will bubble above this.
-            ret = null;
+        if (node instanceof GrammarSectionNode && parentManager != null) {
+            parentManager.sectionRemoved((GrammarSectionNode) node);
         }
-        
-        return ret;
     }
-
+    
     /**
      * fetches section buffer
      *
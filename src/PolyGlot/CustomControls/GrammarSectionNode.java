@@ -48,6 +48,7 @@ public class GrammarSectionNode extends DefaultMutableTreeNode {
     
     public void setName(String _name) {
         name = _name;
+        sectionChanged();
     }
     public String getName() {
         return name;
@@ -63,6 +64,7 @@ public class GrammarSectionNode extends DefaultMutableTreeNode {
     
     public void setSectionText(String _sectionText) {
         sectionText = _sectionText;
+        sectionChanged();
     }
     public String getSectionText() {
         return sectionText;
@@ -75,6 +77,15 @@ public class GrammarSectionNode extends DefaultMutableTreeNode {
         return manager.getRecording(recordingId);
     }
     
+    /**
+     * Keeps manager's search index current
+     */
+    private void sectionChanged() {
+        if (manager != null) {
+            manager.sectionChanged(this);
+        }
+    }
+    
     @Override
     public String toString() {
         return name;
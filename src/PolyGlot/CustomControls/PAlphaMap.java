@@ -32,6 +32,9 @@ import java.util.HashMap;
 public class PAlphaMap<String,Integer> extends HashMap {
     int longestEntry = 0;
     
+    // incremented on every change so cached sort keys can detect staleness
+    private volatile int revision = 0;
+    
     /**
      *
      * @param key String value of alpha set
@@ -46,9 +49,31 @@ public class PAlphaMap<String,Integer> extends HashMap {
             longestEntry = keyLen;
         }
         
+        revision++;
         return super.put(key, orderVal);
     }
     
+    @Override
+    public Object remove(Object key) {
+        revision++;
+        return super.remove(key);
+    }
+    
+    @Override
+    public void clear() {
+        revision++;
+        super.clear();
+    }
+    
+    /**
+     * Gets revision of map. Any change to the alphabet produces a new revision.
+     * 
+     * @return current revision
+     */
+    public int getRevision() {
+        return revision;
+    }
+    
     public int getLongestEntry() {
         return longestEntry;
     }
@@ -38,15 +38,11 @@ import PolyGlot.ManagersCollections.WordPropertyCollection;
 import PolyGlot.Screens.ScrMainMenu;
 import java.awt.Color;
 import java.awt.FontFormatException;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URISyntaxException;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerException;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import org.xml.sax.SAXException;
 
 public class DictCore {
@@ -296,19 +292,21 @@ public class DictCore {
     }
 
     /**
-     * Builds a report on the conlang. Potentially very computationally
-     * expensive.
+     * Builds a report on the conlang. Word statistics are kept current as
+     * words change, so only the first report after loading, or after
+     * pronunciation rules change, must work through the whole lexicon (and
+     * does so across all cores).
      *
      * @return String formatted report
      */
     public String buildLanguageReport() {
-        String ret = ConWordCollection.formatPlain("<center>---LANGUAGE STAT REPORT---</center><br><br>");
+        StringBuilder ret = new StringBuilder(ConWordCollection.formatPlain(
+                "<center>---LANGUAGE STAT REPORT---</center><br><br>"));
 
-        ret += propertiesManager.buildPropertiesReport();
+        ret.append(propertiesManager.buildPropertiesReport());
+        ret.append(wordCollection.buildWordReport());
 
-        ret += wordCollection.buildWordReport();
-
-        return ret;
+        return ret.toString();
     }
 
     /**
@@ -328,45 +326,49 @@ public class DictCore {
             throw new IOException("File " + _fileName + " is not a valid PolyGlot archive.");
         }
 
-        // load image assets first to allow referencing as dictionary loads
-        try {
-            IOHandler.loadImageAssets(imageCollection, _fileName);
-        } catch (Exception e) {
-            throw new IOException("Image loading error: " + e.getLocalizedMessage());
-        }
+        // archive is opened once; its binary assets decode in the background
+        // while the dictionary itself is parsed
+        try (PGDArchive archive = new PGDArchive(_fileName)) {
+            // load image assets first to allow referencing as dictionary loads
+            try {
+                IOHandler.loadImageAssets(imageCollection, archive);
+            } catch (Exception e) {
+                throw new IOException("Image loading error: " + e.getLocalizedMessage());
+            }
 
-        try {
-            CustHandler handler = IOHandler.getHandlerFromFile(_fileName, this);
-            IOHandler.parseHandler(_fileName, handler);
+            try {
+                CustHandler handler = IOHandler.getHandlerFromFile(archive, this);
+                IOHandler.parseHandler(archive, handler);
 
-            errorLog += handler.getErrorLog();
-            warningLog += handler.getWarningLog();
-        } catch (ParserConfigurationException | SAXException | IOException e) {
-            throw new IOException(e.getMessage());
-        }
+                errorLog += handler.getErrorLog();
+                warningLog += handler.getWarningLog();
+            } catch (ParserConfigurationException | SAXException | IOException e) {
+                throw new IOException(e.getMessage());
+            }
 
-        try {
-            IOHandler.setFontFrom(_fileName, this);
-        } catch (IOException | FontFormatException e) {
-            warningLog += e.getLocalizedMessage() + "\n";
-        }
+            try {
+                IOHandler.setFontFrom(archive, this);
+            } catch (IOException | FontFormatException e) {
+                warningLog += e.getLocalizedMessage() + "\n";
+            }
 
-        try {
-            IOHandler.loadGrammarSounds(_fileName, grammarManager);
-        } catch (Exception e) {
-            warningLog += e.getLocalizedMessage() + "\n";
-        }
+            try {
+                IOHandler.loadGrammarSounds(archive, grammarManager);
+            } catch (Exception e) {
+                warningLog += e.getLocalizedMessage() + "\n";
+            }
 
-        try {
-            logoCollection.loadRadicalRelations();
-        } catch (Exception e) {
-            warningLog += e.getLocalizedMessage() + "\n";
-        }
+            try {
+                logoCollection.loadRadicalRelations();
+            } catch (Exception e) {
+                warningLog += e.getLocalizedMessage() + "\n";
+            }
 
-        try {
-            IOHandler.loadLogographs(logoCollection, _fileName);
-        } catch (Exception e) {
-            warningLog += e.getLocalizedMessage() + "\n";
+            try {
+                IOHandler.loadLogographs(logoCollection, archive);
+            } catch (Exception e) {
+                warningLog += e.getLocalizedMessage() + "\n";
+            }
         }
 
         curLoading = false;
@@ -384,41 +386,42 @@ public class DictCore {
      * Writes to given file
      *
      * @param _fileName filename to write to
-     * @throws javax.xml.parsers.ParserConfigurationException
-     * @throws javax.xml.transform.TransformerException
-     * @throws java.io.FileNotFoundException
+     * @throws java.io.IOException on any failure to save
      */
-    public void writeFile(String _fileName)
-            throws ParserConfigurationException, TransformerException, FileNotFoundException, IOException {
-        DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
+    public void writeFile(String _fileName) throws IOException {
+        // have IOHandler stream dictionary to file
+        IOHandler.writeFile(_fileName, this);
+    }
 
-        // root elements
-        Document doc = docBuilder.newDocument();
-        Element rootElement = doc.createElement(PGTUtil.dictionaryXID);
-        doc.appendChild(rootElement);
+    /**
+     * Writes complete XML representation of dictionary to stream
+     *
+     * @param writer stream to write to
+     * @throws XMLStreamException on write failure
+     */
+    public void writeXML(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.writeStartElement(PGTUtil.dictionaryXID);
 
         // store version of PolyGlot
-        Element header = doc.createElement(PGTUtil.pgVersionXID);
-        header.appendChild(doc.createTextNode(version));
-        rootElement.appendChild(header);
+        PGTUtil.writeXMLElement(writer, PGTUtil.pgVersionXID, version);
 
         // collect XML representation of all dictionary elements
-        propertiesManager.writeXML(doc, rootElement);
-        wordPropCollection.writeXML(doc, rootElement);
-        typeCollection.writeXML(doc, rootElement);
-        wordCollection.writeXML(doc, rootElement);
-        declensionMgr.writeXML(doc, rootElement);
-        pronuncMgr.writeXML(doc, rootElement);
-        romMgr.writeXML(doc, rootElement);
-        logoCollection.writeXML(doc, rootElement);
-        grammarManager.writeXML(doc, rootElement);
+        propertiesManager.writeXML(writer);
+        wordPropCollection.writeXML(writer);
+        typeCollection.writeXML(writer);
+        wordCollection.writeXML(writer);
+        declensionMgr.writeXML(writer);
+        pronuncMgr.writeXML(writer);
+        romMgr.writeXML(writer);
+        logoCollection.writeXML(writer);
+        grammarManager.writeXML(writer);
 
         // write family entries
-        rootElement.appendChild(famManager.writeToSaveXML(doc));
+        famManager.writeXML(writer);
 
-        // have IOHandler write constructed document to file
-        IOHandler.writeFile(_fileName, doc, this);
+        writer.writeEndElement();
+        writer.writeEndDocument();
     }
 
     /**
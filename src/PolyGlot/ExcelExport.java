@@ -32,23 +32,34 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
-import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 /**
- * This class exports an existing dictionary to an excel spreadsheet
+ * This class exports an existing dictionary to an excel spreadsheet. Files
+ * named .xlsx are written through a streaming workbook which only holds a
+ * small window of rows in memory; anything else is written in the legacy
+ * .xls format.
  *
  * @author Draque
  */
 public class ExcelExport {
-    
+
+    // rows kept in memory while streaming .xlsx; older rows flush to disk
+    private static final int XLSX_ROW_WINDOW = 100;
+    // words pulled from lexicon at a time while writing
+    private static final int WORD_PAGE_SIZE = 1000;
+
     /**
      * Exports a dictionary to an excel file (externally facing)
-     * @param fileName Filename to export to
+     * @param fileName Filename to export to (.xlsx for streaming export)
      * @param core dictionary core
      * @throws Exception on write error
      */
@@ -58,43 +69,70 @@ public class ExcelExport {
         e.export(fileName, core);
     }
     
-    private Object[] getWordForm(ConWord conWord, DictCore core) {
-        List<String> ret = new ArrayList<>();
-        String declensionCell = "";
+    private String[] getWordForm(ConWord conWord, DictCore core) {
+        StringBuilder classes = new StringBuilder();
+        StringBuilder declensionCell = new StringBuilder();
         
-        ret.add(conWord.getValue());
-        ret.add(conWord.getLocalWord());
-        ret.add(conWord.getWordTypeDisplay());
-        ret.add(conWord.getPronunciation());
-        
-        String classes = "";
         for (Entry<Integer, Integer> curEntry : conWord.getClassValues()) {
-            if (!classes.equals("")) {
-                classes += ", ";
+            if (classes.length() != 0) {
+                classes.append(", ");
             }
             try {
                 WordProperty prop = (WordProperty)core.getWordPropertiesCollection().getNodeById(curEntry.getKey());
                 WordPropValueNode value = prop.getValueById(curEntry.getValue());
-                classes += value.getValue();
+                classes.append(value.getValue());
             } catch (Exception e) {
-                classes = "ERROR: UNABLE TO PULL CLASS";
+                classes.setLength(0);
+                classes.append("ERROR: UNABLE TO PULL CLASS");
             }
         }
-        ret.add(classes);
         
         List<DeclensionNode> declensions = core.getDeclensionManager().getDeclensionListWord(conWord.getId());
         
         for(DeclensionNode curNode : declensions) {
-            declensionCell += curNode.getNotes() + " : " + curNode.getValue() + "\n";
+            declensionCell.append(curNode.getNotes()).append(" : ")
+                    .append(curNode.getValue()).append("\n");
         }
         
-        ret.add(declensionCell);
-        ret.add(conWord.getDefinition());        
-        
-        return ret.toArray();
+        return new String[]{
+            conWord.getValue(),
+            conWord.getLocalWord(),
+            conWord.getWordTypeDisplay(),
+            conWord.getPronunciation(),
+            classes.toString(),
+            declensionCell.toString(),
+            conWord.getDefinition()
+        };
     }
     
-    
+    /**
+     * Creates workbook appropriate to file type being written
+     * @param fileName Filename to export to
+     * @param core dictionary core
+     * @return streaming workbook for .xlsx, legacy workbook otherwise
+     * @throws Exception if lexicon too large for legacy format
+     */
+    private Workbook createWorkbook(String fileName, DictCore core) throws Exception {
+        Workbook ret;
+        
+        if (fileName.toLowerCase().endsWith(".xlsx")) {
+            SXSSFWorkbook streamBook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+            streamBook.setCompressTempFiles(true);
+            ret = streamBook;
+        } else {
+            int maxRows = SpreadsheetVersion.EXCEL97.getMaxRows();
+            
+            // header row counts against sheet limit
+            if (core.getWordCollection().getWordCount() >= maxRows) {
+                throw new Exception("Lexicon too large for .xls format (limit of "
+                        + (maxRows - 1) + " words). Export to .xlsx instead.");
+            }
+            
+            ret = new HSSFWorkbook();
+        }
+        
+        return ret;
+    }
     
     /**
      * Exports a dictionary to an excel file
@@ -103,8 +141,26 @@ public class ExcelExport {
      * @throws Exception on write error
      */
     private void export(String fileName, DictCore core) throws Exception {
-        HSSFWorkbook workbook = new HSSFWorkbook();
-        HSSFSheet sheet;
+        Workbook workbook = createWorkbook(fileName, core);
+        
+        try {
+            writeWorkbook(workbook, core);
+            
+            try (FileOutputStream out = new FileOutputStream(new File(fileName))) {
+                workbook.write(out);
+            } catch (IOException e) {
+                throw new Exception("Unable to write file: " + fileName);
+            }
+        } finally {
+            if (workbook instanceof SXSSFWorkbook) {
+                // removes temp files backing flushed rows
+                ((SXSSFWorkbook) workbook).dispose();
+            }
+        }
+    }
+    
+    private void writeWorkbook(Workbook workbook, DictCore core) {
+        Sheet sheet;
         CellStyle localStyle = workbook.createCellStyle();
         CellStyle conStyle = workbook.createCellStyle();
         CellStyle boldHeader = workbook.createCellStyle();
@@ -120,7 +176,6 @@ public class ExcelExport {
         
         // record words on sheet 1        
         sheet = workbook.createSheet("Lexicon");
-        Iterator<ConWord> wordIt = core.getWordCollection().getWordNodes().iterator();
         
         Row row  = sheet.createRow(0);
         row.createCell(0).setCellValue(core.conLabel().toUpperCase() + " WORD");
@@ -131,19 +186,27 @@ public class ExcelExport {
         row.createCell(5).setCellValue("DECLENSIONS");
         row.createCell(6).setCellValue("DEFINITIONS");
         
-        for (Integer i = 1; wordIt.hasNext(); i++) {
-            Object[] wordArray = getWordForm(wordIt.next(), core);
-            row = sheet.createRow(i);
-            for (Integer j = 0; j < wordArray.length; j++) {
-                Cell cell = row.createCell(j);
-                cell.setCellValue((String)wordArray[j]);
-                
-                if (j == 0) {
-                    cell.setCellStyle(conStyle);
-                } else {
-                    cell.setCellStyle(localStyle);
+        // pull lexicon a page at a time rather than copying it whole
+        int rowIndex = 1;
+        List<ConWord> wordPage = core.getWordCollection().getWordNodes(0, WORD_PAGE_SIZE);
+        while (!wordPage.isEmpty()) {
+            for (ConWord curWord : wordPage) {
+                String[] wordArray = getWordForm(curWord, core);
+                row = sheet.createRow(rowIndex);
+                for (int j = 0; j < wordArray.length; j++) {
+                    Cell cell = row.createCell(j);
+                    cell.setCellValue(wordArray[j]);
+
+                    if (j == 0) {
+                        cell.setCellStyle(conStyle);
+                    } else {
+                        cell.setCellStyle(localStyle);
+                    }
                 }
+                rowIndex++;
             }
+            
+            wordPage = core.getWordCollection().getWordNodes(rowIndex - 1, WORD_PAGE_SIZE);
         }
         
         // record types on sheet 2
@@ -154,7 +217,7 @@ public class ExcelExport {
         row.createCell(0).setCellValue("TYPE");
         row.createCell(1).setCellValue("NOTES");
         
-        for (Integer i = 1; typeIt.hasNext(); i++) {
+        for (int i = 1; typeIt.hasNext(); i++) {
             TypeNode curNode = typeIt.next();
             row = sheet.createRow(i);
             
@@ -165,36 +228,36 @@ public class ExcelExport {
             cell.setCellStyle(localStyle);
         }
         
-        // record word classes on sheet 3
+        // record word classes on sheet 3, one column per class. Written row
+        // by row, as streamed rows may not be revisited once written.
         sheet = workbook.createSheet("Lexical Classes");
-        int propertyColumn = 0;
+        List<List<WordPropValueNode>> classColumns = new ArrayList<>();
+        int classRows = 0;
+        
+        row = sheet.createRow(0);
         for (WordProperty curProp 
-                : core.getWordPropertiesCollection().getAllWordProperties()) {            
-            // get row, if not exist, create
-            row = sheet.getRow(0);
-            if (row == null) {
-                row = sheet.createRow(0);
-            }
-            
-            Cell cell = row.createCell(propertyColumn);
+                : core.getWordPropertiesCollection().getAllWordProperties()) {
+            Cell cell = row.createCell(classColumns.size());
             cell.setCellValue(curProp.getValue());            
             cell.setCellStyle(boldHeader);
             
-            int rowIndex = 1;
-            for (WordPropValueNode curVal : curProp.getValues()) {
-                row = sheet.getRow(rowIndex);
-                if (row == null) {
-                    row = sheet.createRow(rowIndex);
-                }
-                
-                cell = row.createCell(propertyColumn);
-                cell.setCellStyle(localStyle);
-                cell.setCellValue(curVal.getValue());
+            List<WordPropValueNode> values = new ArrayList<>(curProp.getValues());
+            classColumns.add(values);
+            classRows = Math.max(classRows, values.size());
+        }
+        
+        for (rowIndex = 0; rowIndex < classRows; rowIndex++) {
+            row = sheet.createRow(rowIndex + 1);
+            
+            for (int propertyColumn = 0; propertyColumn < classColumns.size(); propertyColumn++) {
+                List<WordPropValueNode> values = classColumns.get(propertyColumn);
                 
-                rowIndex++;
+                if (rowIndex < values.size()) {
+                    Cell cell = row.createCell(propertyColumn);
+                    cell.setCellStyle(localStyle);
+                    cell.setCellValue(values.get(rowIndex).getValue());
+                }
             }
-            
-            propertyColumn++;
         }
         
         // record pronunciations on sheet 4
@@ -205,7 +268,7 @@ public class ExcelExport {
         row.createCell(0).setCellValue("CHARACTER(S)");
         row.createCell(1).setCellValue("PRONUNCIATION");
         
-        for (Integer i = 1; procIt.hasNext(); i++) {
+        for (int i = 1; procIt.hasNext(); i++) {
             PronunciationNode curNode = procIt.next();
             row = sheet.createRow(i);
             
@@ -217,13 +280,5 @@ public class ExcelExport {
             cell.setCellStyle(localStyle);
             cell.setCellValue(curNode.getPronunciation());
         }
-
-        try {
-            try (FileOutputStream out = new FileOutputStream(new File(fileName))) {
-                workbook.write(out);
-            }
-        } catch (IOException e) {
-            throw new Exception("Unable to write file: " + fileName);
-        }
     }
 }
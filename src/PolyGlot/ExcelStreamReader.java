@@ -0,0 +1,508 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.parsers.SAXParserFactory;
+import org.apache.poi.POIXMLDocument;
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.formula.eval.ErrorEval;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reads the rows of one Excel sheet as a stream, without building the
+ * workbook in memory. Legacy .xls files are read through POI's HSSF event
+ * API, and .xlsx/.xlsm files by SAX parsing the sheet XML. Cell text matches
+ * that of Cell.toString() in POI's usermodel, except that formula cells give
+ * their last calculated value rather than the formula itself.
+ *
+ * @author draque
+ */
+final class ExcelStreamReader {
+
+    /**
+     * Receives each row of sheet as it is read
+     */
+    interface RowHandler {
+
+        /**
+         * @param cells text of row's cells by column index, null for any
+         * column the row has no cell in
+         * @throws Exception to stop reading
+         */
+        void processRow(List<String> cells) throws Exception;
+    }
+
+    // format Cell.toString() uses for date formatted numeric cells
+    private static final String DATE_FORMAT = "dd-MMM-yyyy";
+
+    private ExcelStreamReader() {
+    }
+
+    /**
+     * Reads given sheet of Excel file, passing each row to handler in order
+     *
+     * @param fileName path of .xls, .xlsx or .xlsm file
+     * @param sheetNum index of sheet to read
+     * @param handler consumer of rows
+     * @throws Exception on read error, if sheet does not exist, or any
+     * exception thrown by handler
+     */
+    static void readSheet(String fileName, int sheetNum, RowHandler handler) throws Exception {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(fileName))) {
+            if (POIFSFileSystem.hasPOIFSHeader(in)) {
+                readHSSF(new POIFSFileSystem(in), sheetNum, handler);
+                return;
+            } else if (!POIXMLDocument.hasOOXMLHeader(in)) {
+                throw new InvalidFormatException("Unrecognized Excel format: " + fileName);
+            }
+        }
+
+        readXSSF(fileName, sheetNum, handler);
+    }
+
+    private static void readHSSF(POIFSFileSystem fs, int sheetNum, RowHandler handler) throws Exception {
+        HSSFRowListener listener = new HSSFRowListener(sheetNum, handler);
+        HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(listener);
+
+        try {
+            new HSSFEventFactory().abortableProcessWorkbookEvents(request, fs);
+        } catch (HSSFUserException e) {
+            Throwable reason = e.getReason();
+            throw reason instanceof Exception ? (Exception) reason : e;
+        }
+
+        if (!listener.sheetFound) {
+            throw new Exception("Sheet " + sheetNum + " not found in workbook.");
+        }
+    }
+
+    private static void readXSSF(String fileName, int sheetNum, RowHandler handler) throws Exception {
+        OPCPackage pkg = OPCPackage.open(fileName, PackageAccess.READ);
+
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFStyleFormats formats = new XSSFStyleFormats();
+
+            for (PackagePart stylePart : pkg.getPartsByContentType(XSSFRelation.STYLES.getContentType())) {
+                try (InputStream styleStream = stylePart.getInputStream()) {
+                    parseXML(styleStream, formats);
+                }
+            }
+
+            XSSFSheetIds sheetIds = new XSSFSheetIds();
+            try (InputStream workbookStream = reader.getWorkbookData()) {
+                parseXML(workbookStream, sheetIds);
+            }
+
+            if (sheetNum < 0 || sheetNum >= sheetIds.relationIds.size()) {
+                throw new Exception("Sheet " + sheetNum + " not found in workbook.");
+            }
+
+            try (InputStream sheetStream = reader.getSheet(sheetIds.relationIds.get(sheetNum))) {
+                parseXML(sheetStream, new XSSFSheetHandler(strings, formats, handler));
+            } catch (SAXException e) {
+                Exception cause = e.getException();
+                throw cause == null ? e : cause;
+            }
+        } finally {
+            // package opened read only: revert rather than close (which saves)
+            pkg.revert();
+        }
+    }
+
+    private static void parseXML(InputStream stream, DefaultHandler handler) throws Exception {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        XMLReader xmlReader = factory.newSAXParser().getXMLReader();
+        xmlReader.setContentHandler(handler);
+        xmlReader.parse(new InputSource(stream));
+    }
+
+    /**
+     * Formats numeric cell value as Cell.toString() would
+     */
+    private static String formatNumber(double value, int formatIndex, String formatString) {
+        if (formatString != null && DateUtil.isADateFormat(formatIndex, formatString)
+                && DateUtil.isValidExcelDate(value)) {
+            return new SimpleDateFormat(DATE_FORMAT).format(DateUtil.getJavaDate(value));
+        }
+
+        return String.valueOf(value);
+    }
+
+    private static void setCell(List<String> cells, int column, String text) {
+        while (cells.size() <= column) {
+            cells.add(null);
+        }
+
+        cells.set(column, text);
+    }
+
+    /**
+     * Collects cells of target sheet from HSSF record stream, passing on each
+     * row once the stream moves past it
+     */
+    private static class HSSFRowListener extends AbortableHSSFListener {
+
+        private final int sheetNum;
+        private final RowHandler handler;
+        private final FormatTrackingHSSFListener formats = new FormatTrackingHSSFListener(null);
+        private SSTRecord sst = null;
+        private int sheetIndex = -1;
+        private int depth = 0;
+        private boolean inWorksheet = false;
+        boolean sheetFound = false;
+        private int curRow = -1;
+        private List<String> cells = null;
+        private int stringRow = -1;
+        private int stringColumn = -1;
+
+        HSSFRowListener(int _sheetNum, RowHandler _handler) {
+            sheetNum = _sheetNum;
+            handler = _handler;
+        }
+
+        @Override
+        public short abortableProcessRecord(Record record) throws HSSFUserException {
+            formats.processRecordInternally(record);
+
+            try {
+                switch (record.getSid()) {
+                    case BOFRecord.sid:
+                        depth++;
+                        if (depth == 1) {
+                            inWorksheet = ((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET;
+                            if (inWorksheet) {
+                                sheetIndex++;
+                                sheetFound |= sheetIndex == sheetNum;
+                            }
+                        }
+                        break;
+                    case EOFRecord.sid:
+                        depth--;
+                        if (depth == 0 && inWorksheet && sheetIndex == sheetNum) {
+                            flushRow();
+                            // target sheet finished: no need to read further
+                            return 1;
+                        }
+                        break;
+                    case SSTRecord.sid:
+                        sst = (SSTRecord) record;
+                        break;
+                    default:
+                        if (depth == 1 && inWorksheet && sheetIndex == sheetNum) {
+                            processCell(record);
+                        }
+                }
+            } catch (Exception e) {
+                throw new HSSFUserException(e);
+            }
+
+            return 0;
+        }
+
+        private void processCell(Record record) throws Exception {
+            switch (record.getSid()) {
+                case NumberRecord.sid:
+                    NumberRecord number = (NumberRecord) record;
+                    addCell(number.getRow(), number.getColumn(), formatNumber(number.getValue(),
+                            formats.getFormatIndex(number), formats.getFormatString(number)));
+                    break;
+                case LabelSSTRecord.sid:
+                    LabelSSTRecord label = (LabelSSTRecord) record;
+                    addCell(label.getRow(), label.getColumn(), sst.getString(label.getSSTIndex()).getString());
+                    break;
+                case LabelRecord.sid:
+                    LabelRecord oldLabel = (LabelRecord) record;
+                    addCell(oldLabel.getRow(), oldLabel.getColumn(), oldLabel.getValue());
+                    break;
+                case BoolErrRecord.sid:
+                    BoolErrRecord boolErr = (BoolErrRecord) record;
+                    addCell(boolErr.getRow(), boolErr.getColumn(), boolErr.isBoolean()
+                            ? (boolErr.getBooleanValue() ? "TRUE" : "FALSE")
+                            : ErrorEval.getText(boolErr.getErrorValue()));
+                    break;
+                case BlankRecord.sid:
+                    BlankRecord blank = (BlankRecord) record;
+                    addCell(blank.getRow(), blank.getColumn(), "");
+                    break;
+                case MulBlankRecord.sid:
+                    MulBlankRecord blanks = (MulBlankRecord) record;
+                    for (int i = blanks.getFirstColumn(); i <= blanks.getLastColumn(); i++) {
+                        addCell(blanks.getRow(), i, "");
+                    }
+                    break;
+                case FormulaRecord.sid:
+                    processFormula((FormulaRecord) record);
+                    break;
+                case StringRecord.sid:
+                    // cached string result of preceding formula
+                    if (stringRow != -1) {
+                        addCell(stringRow, stringColumn, ((StringRecord) record).getString());
+                        stringRow = -1;
+                    }
+                    break;
+            }
+        }
+
+        private void processFormula(FormulaRecord formula) throws Exception {
+            int row = formula.getRow();
+            int column = formula.getColumn();
+
+            switch (formula.getCachedResultType()) {
+                case Cell.CELL_TYPE_STRING:
+                    if (formula.hasCachedResultString()) {
+                        stringRow = row;
+                        stringColumn = column;
+                    } else {
+                        addCell(row, column, "");
+                    }
+                    break;
+                case Cell.CELL_TYPE_BOOLEAN:
+                    addCell(row, column, formula.getCachedBooleanValue() ? "TRUE" : "FALSE");
+                    break;
+                case Cell.CELL_TYPE_ERROR:
+                    addCell(row, column, ErrorEval.getText(formula.getCachedErrorValue()));
+                    break;
+                default:
+                    addCell(row, column, formatNumber(formula.getValue(),
+                            formats.getFormatIndex(formula), formats.getFormatString(formula)));
+            }
+        }
+
+        private void addCell(int row, int column, String text) throws Exception {
+            if (row != curRow) {
+                flushRow();
+                curRow = row;
+                cells = new ArrayList<>();
+            }
+
+            setCell(cells, column, text);
+        }
+
+        private void flushRow() throws Exception {
+            if (cells != null) {
+                List<String> row = cells;
+                cells = null;
+                handler.processRow(row);
+            }
+        }
+    }
+
+    /**
+     * Relationship IDs of sheets in workbook order, read from XSSF workbook
+     * part
+     */
+    private static class XSSFSheetIds extends DefaultHandler {
+
+        private static final String RELATIONSHIP_NS
+                = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+        final List<String> relationIds = new ArrayList<>();
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if (localName.equals("sheet")) {
+                relationIds.add(attributes.getValue(RELATIONSHIP_NS, "id"));
+            }
+        }
+    }
+
+    /**
+     * Number formats of cell styles, read from XSSF styles part
+     */
+    private static class XSSFStyleFormats extends DefaultHandler {
+
+        private final Map<Integer, String> customFormats = new HashMap<>();
+        private final List<Integer> styleFormats = new ArrayList<>();
+        private boolean inCellStyles = false;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "numFmt":
+                    customFormats.put(Integer.parseInt(attributes.getValue("numFmtId")),
+                            attributes.getValue("formatCode"));
+                    break;
+                case "cellXfs":
+                    inCellStyles = true;
+                    break;
+                case "xf":
+                    if (inCellStyles) {
+                        String formatId = attributes.getValue("numFmtId");
+                        styleFormats.add(formatId == null ? 0 : Integer.parseInt(formatId));
+                    }
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if (localName.equals("cellXfs")) {
+                inCellStyles = false;
+            }
+        }
+
+        int getFormatIndex(int style) {
+            return style < styleFormats.size() ? styleFormats.get(style) : 0;
+        }
+
+        String getFormatString(int formatIndex) {
+            String ret = customFormats.get(formatIndex);
+            return ret == null ? BuiltinFormats.getBuiltinFormat(formatIndex) : ret;
+        }
+    }
+
+    /**
+     * Collects cells of XSSF sheet XML, passing on each row as it closes
+     */
+    private static class XSSFSheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable strings;
+        private final XSSFStyleFormats formats;
+        private final RowHandler handler;
+        private final StringBuilder value = new StringBuilder();
+        private List<String> cells = null;
+        private int column = -1;
+        private String cellType = null;
+        private int cellStyle = 0;
+        private boolean hasValue = false;
+        private boolean inValue = false;
+
+        XSSFSheetHandler(ReadOnlySharedStringsTable _strings, XSSFStyleFormats _formats,
+                RowHandler _handler) {
+            strings = _strings;
+            formats = _formats;
+            handler = _handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    cells = new ArrayList<>();
+                    column = -1;
+                    break;
+                case "c":
+                    String ref = attributes.getValue("r");
+                    String style = attributes.getValue("s");
+                    column = ref == null ? column + 1 : new CellReference(ref).getCol();
+                    cellType = attributes.getValue("t");
+                    cellStyle = style == null ? 0 : Integer.parseInt(style);
+                    value.setLength(0);
+                    hasValue = false;
+                    break;
+                case "v":
+                case "t":
+                    // "t" holds text of inline strings (possibly in several runs)
+                    inValue = cells != null;
+                    hasValue |= inValue;
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) {
+                value.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v":
+                case "t":
+                    inValue = false;
+                    break;
+                case "c":
+                    setCell(cells, column, getCellText());
+                    break;
+                case "row":
+                    try {
+                        handler.processRow(cells);
+                    } catch (Exception e) {
+                        throw new SAXException(e);
+                    }
+                    cells = null;
+                    break;
+            }
+        }
+
+        private String getCellText() {
+            String ret = value.toString();
+
+            if (!hasValue) {
+                ret = "";
+            } else if (cellType == null || cellType.equals("n")) {
+                int formatIndex = formats.getFormatIndex(cellStyle);
+                ret = formatNumber(Double.parseDouble(ret), formatIndex, formats.getFormatString(formatIndex));
+            } else if (cellType.equals("s")) {
+                ret = strings.getEntryAt(Integer.parseInt(ret.trim()));
+            } else if (cellType.equals("b")) {
+                ret = ret.trim().equals("1") ? "TRUE" : "FALSE";
+            }
+
+            // inline strings, formula strings and errors are given as is
+            return ret;
+        }
+    }
+}
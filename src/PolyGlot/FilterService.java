@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs searches on a single background worker, latest wins. Submitting a
+ * search cancels any search still waiting or running, by interrupting it, and
+ * results of superseded searches are never delivered. Each search waits a
+ * short delay before starting, so that typing does not start a search per
+ * keystroke. Results are handed to the Swing thread a page at a time, letting
+ * other events run between pages.
+ *
+ * @author draque
+ * @param <T> type of search results
+ */
+public final class FilterService<T> {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final ExecutorService worker;
+    private final long delay;
+    private Future<?> current = null;
+    private volatile int generation = 0;
+
+    /**
+     * A search and the receiver of its results
+     *
+     * @param <T> type of search results
+     */
+    public interface Search<T> {
+
+        /**
+         * Runs search. Called on worker thread. Should regularly check for
+         * interruption, which means the search has been superseded.
+         *
+         * @return results, or null if nothing should be displayed
+         * @throws Exception on search error
+         */
+        List<T> search() throws Exception;
+
+        /**
+         * Receives page of results. Called on the Swing thread.
+         *
+         * @param page results in page
+         * @param first true if first page of results
+         */
+        void showPage(List<T> page, boolean first);
+
+        /**
+         * Called on the Swing thread once all pages are shown
+         */
+        void finished();
+
+        /**
+         * Called on the Swing thread if search fails
+         *
+         * @param e cause of failure
+         */
+        void failed(Exception e);
+    }
+
+    /**
+     * @param _delay milliseconds each search waits before starting
+     */
+    public FilterService(long _delay) {
+        delay = _delay;
+        worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread ret = new Thread(r, "PolyGlot filter");
+                ret.setDaemon(true);
+                return ret;
+            }
+        });
+    }
+
+    /**
+     * Queues search, cancelling any earlier search
+     *
+     * @param search search to run
+     */
+    public synchronized void submit(final Search<T> search) {
+        cancel();
+
+        final int runGeneration = generation;
+
+        current = worker.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(delay);
+                    List<T> results = search.search();
+
+                    if (results != null && !Thread.currentThread().isInterrupted()) {
+                        deliver(search, results, 0, runGeneration);
+                    }
+                } catch (InterruptedException e) {
+                    // superseded by a later search
+                } catch (final Exception e) {
+                    SwingUtilities.invokeLater(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (runGeneration == generation) {
+                                search.failed(e);
+                            }
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    /**
+     * Cancels current search, including delivery of any remaining pages
+     */
+    public synchronized void cancel() {
+        generation++;
+
+        if (current != null) {
+            current.cancel(true);
+            current = null;
+        }
+    }
+
+    /**
+     * Cancels current search and stops worker
+     */
+    public synchronized void shutdown() {
+        cancel();
+        worker.shutdownNow();
+    }
+
+    private void deliver(final Search<T> search, final List<T> results,
+            final int start, final int runGeneration) {
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                if (runGeneration != generation) {
+                    return;
+                }
+
+                int end = Math.min(start + PAGE_SIZE, results.size());
+
+                search.showPage(results.subList(start, end), start == 0);
+
+                if (end < results.size()) {
+                    deliver(search, results, end, runGeneration);
+                } else {
+                    search.finished();
+                }
+            }
+        });
+    }
+}
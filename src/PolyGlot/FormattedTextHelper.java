@@ -64,17 +64,21 @@ public class FormattedTextHelper {
      * @throws javax.swing.text.BadLocationException if unable to load
      */
     public static void restoreFromString(String savedVal, JTextPane pane, DictCore core) throws BadLocationException {
-        String remaining = savedVal;
+        NodeCursor nodes = new NodeCursor(savedVal);
         pane.setText("");
+        Document doc = pane.getDocument();
+        Font conFont = core.getPropertiesManager().getFontCon();
+        boolean enforceRTL = core.getPropertiesManager().isEnforceRTL();
         Color fontColor = Color.black;
         String font = "";
         int fontSize = -1;
+        
+        // consecutive text with identical styling is inserted in one go
+        StringBuilder run = new StringBuilder();
+        AttributeSet runAttributes = null;
                 
-        while (!remaining.isEmpty()) {
-            String nextNode = getNextNode(remaining);
-            Font conFont = core.getPropertiesManager().getFontCon();
-            
-            remaining = remaining.substring(nextNode.length(), remaining.length());
+        while (nodes.hasNext()) {
+            String nextNode = nodes.next();
             
             if (nextNode.startsWith("<font")) {
                 
@@ -88,6 +92,8 @@ public class FormattedTextHelper {
             } else if (nextNode.startsWith("</font")) {
                 // do nothing
             } else if (nextNode.startsWith("<img src=")) {
+                insertRun(doc, run, runAttributes);
+                
                 String idString = nextNode.replace("<img src=\"", "").replace("\">", "");
                 Integer id = Integer.parseInt(idString);
                 try {
@@ -98,16 +104,14 @@ public class FormattedTextHelper {
                             + e.getLocalizedMessage(), null);
                 }                
             } else {
-                Document doc = pane.getDocument();
-                
                 MutableAttributeSet aset = new SimpleAttributeSet();
                 if (font.equals(PGTUtil.conLangFont)) {
-                    if (core.getPropertiesManager().isEnforceRTL()) {
+                    if (enforceRTL) {
                         nextNode = PGTUtil.RTLMarker + nextNode;
                     }
                     StyleConstants.setFontFamily(aset, conFont.getFamily());
                 } else {
-                    if (core.getPropertiesManager().isEnforceRTL()) {
+                    if (enforceRTL) {
                         nextNode = PGTUtil.LTRMarker + nextNode;
                     }
                     if (!font.equals("")) {
@@ -122,10 +126,31 @@ public class FormattedTextHelper {
                 StyleConstants.setForeground(aset, fontColor);
                 
                 if (!nextNode.equals("")){
-                    doc.insertString(doc.getLength(), nextNode, aset);
+                    if (runAttributes != null && !runAttributes.isEqual(aset)) {
+                        insertRun(doc, run, runAttributes);
+                    }
+                    
+                    runAttributes = aset;
+                    run.append(nextNode);
                 }
             }
         }
+        
+        insertRun(doc, run, runAttributes);
+    }
+    
+    /**
+     * Appends pending run of text to document, then clears it
+     * @param doc document to append to
+     * @param run text to append
+     * @param attributes styling of text
+     * @throws BadLocationException if unable to insert
+     */
+    private static void insertRun(Document doc, StringBuilder run, AttributeSet attributes) throws BadLocationException {
+        if (run.length() != 0) {
+            doc.insertString(doc.getLength(), run.toString(), attributes);
+            run.setLength(0);
+        }
     }
     
     /**
@@ -136,17 +161,15 @@ public class FormattedTextHelper {
      * @return ordered list of text
      */
     public static List<Entry<String, PFontInfo>> getSectionTextFontSpecifec(String savedVal, DictCore core) {
-        String remaining = savedVal;
+        NodeCursor nodes = new NodeCursor(savedVal);
         String font = "";
         List<Entry<String, PFontInfo>> ret = new ArrayList();
         PFontInfo conFont = new PFontInfo();
                 
-        while (!remaining.isEmpty()) {
-            String nextNode = getNextNode(remaining);
+        while (nodes.hasNext()) {
+            String nextNode = nodes.next();
             conFont.awtFont = core.getPropertiesManager().getFontCon();
             
-            remaining = remaining.substring(nextNode.length(), remaining.length());
-            
             if (nextNode.startsWith("<font")) {                
                 font = extractFamily(nextNode);
                 conFont.size = extractSize(nextNode);
@@ -317,42 +340,6 @@ public class FormattedTextHelper {
         return ret;
     }
     
-    /**
-     * Gets next node from saved text
-     * @param fromText remaining text from which to pull node
-     * @return next node in string form
-     */
-    private static String getNextNode(String fromText) {
-        String ret;
-        
-        if (fromText.startsWith("<font") ||
-                fromText.startsWith("</font")) {
-            int pos = fromText.indexOf('>');
-            ret = fromText.substring(0, pos + 1);
-        } else {
-            int posStart = fromText.indexOf("<font");
-            int posEnd = fromText.indexOf("</font");
-            
-            // get the nearest start/end of a font ascription
-            int pos;
-            if (posStart == -1 && posEnd == -1) {
-                pos = fromText.length();
-            } else if (posStart == -1) {
-                pos = posEnd;
-            } else if (posEnd == -1) {
-                pos = posStart;
-            } else if (posStart < posEnd) {
-                pos = posStart;
-            } else {
-                pos = posEnd;
-            }
-            
-            ret = fromText.substring(0, pos);
-        }
-        
-        return ret;
-    }
-    
     /**
      * Creates and returns string representing complex formatted text, which 
      * can be saved. Filters out all RTL and LTR characters before returning.
@@ -361,19 +348,19 @@ public class FormattedTextHelper {
      * @throws BadLocationException if unable to create string format
      */
     public static String storageFormat(JTextPane pane) throws BadLocationException, Exception {
-        String ret = storeFormatRecurse(pane.getDocument().getDefaultRootElement(), pane);
-        return ret.replace(PGTUtil.RTLMarker, "").replace(PGTUtil.LTRMarker, "");
+        StringBuilder ret = new StringBuilder();
+        storeFormatRecurse(pane.getDocument().getDefaultRootElement(), pane, ret);
+        return ret.toString().replace(PGTUtil.RTLMarker, "").replace(PGTUtil.LTRMarker, "");
     }
 
     /**
      * Recursing method implementing functionality of storageFormat()
      * @param e element to be cycled through
      * @param pane top parent JTextPane
-     * @return string format value of current node and its children
+     * @param ret builder to write string format value of current node and its children to
      * @throws BadLocationException if unable to create string format
      */
-    private static String storeFormatRecurse(Element e, JTextPane pane) throws BadLocationException, Exception {
-        String ret = "";
+    private static void storeFormatRecurse(Element e, JTextPane pane, StringBuilder ret) throws BadLocationException, Exception {
         int ec = e.getElementCount();
 
         if (ec == 0) {
@@ -385,7 +372,7 @@ public class FormattedTextHelper {
                     throw new Exception("ID For image not stored. Unable to store section.");
                 }
                 
-                ret += "<img src=\"" + e.getAttributes().getAttribute(PGTUtil.ImageIdAttribute) + "\">";
+                ret.append("<img src=\"").append(e.getAttributes().getAttribute(PGTUtil.ImageIdAttribute)).append("\">");
             } else {
                 int start = e.getStartOffset();
                 int len = e.getEndOffset() - start;
@@ -394,20 +381,18 @@ public class FormattedTextHelper {
                     String font = StyleConstants.getFontFamily(a);
                     String fontColor = colorToText(StyleConstants.getForeground(a));
                     int fontSize = StyleConstants.getFontSize(a);
-                    ret += "<font face=\"" + font + "\""
-                            + "size=\"" + fontSize + "\""
-                            + "color=\"" + fontColor + "\"" + ">";
-                    ret += pane.getDocument().getText(start, len);
-                    ret += "</font>";
+                    ret.append("<font face=\"").append(font).append("\"")
+                            .append("size=\"").append(fontSize).append("\"")
+                            .append("color=\"").append(fontColor).append("\"").append(">");
+                    ret.append(pane.getDocument().getText(start, len));
+                    ret.append("</font>");
                 }
             }
         } else {
             for (int i = 0; i < ec; i++) {
-                ret += storeFormatRecurse(e.getElement(i), pane);
+                storeFormatRecurse(e.getElement(i), pane, ret);
             }
         }
-
-        return ret;
     }
 
     /**
@@ -514,6 +499,62 @@ public class FormattedTextHelper {
         return ret.replaceAll("<.*?>", "");
     }
     
+    /**
+     * Walks saved text one node at a time without copying what remains: each
+     * node is either a font tag, or everything up to the next font tag.
+     * Positions of the next tags are remembered, so that the whole text is
+     * scanned only once.
+     */
+    private static class NodeCursor {
+        private final String text;
+        private int pos = 0;
+        private int nextOpen = -2;
+        private int nextClose = -2;
+        
+        NodeCursor(String _text) {
+            text = _text;
+        }
+        
+        boolean hasNext() {
+            return pos < text.length();
+        }
+        
+        String next() {
+            int end;
+            
+            if (text.startsWith("<font", pos) || text.startsWith("</font", pos)) {
+                end = text.indexOf('>', pos) + 1;
+                
+                // unterminated tag: treat rest as text
+                if (end == 0) {
+                    end = text.length();
+                }
+            } else {
+                if (nextOpen != -1 && nextOpen < pos) {
+                    nextOpen = text.indexOf("<font", pos);
+                }
+                if (nextClose != -1 && nextClose < pos) {
+                    nextClose = text.indexOf("</font", pos);
+                }
+                
+                // get the nearest start/end of a font ascription
+                if (nextOpen == -1 && nextClose == -1) {
+                    end = text.length();
+                } else if (nextOpen == -1) {
+                    end = nextClose;
+                } else if (nextClose == -1) {
+                    end = nextOpen;
+                } else {
+                    end = Math.min(nextOpen, nextClose);
+                }
+            }
+            
+            String ret = text.substring(pos, end);
+            pos = end;
+            return ret;
+        }
+    }
+    
     static class SecEntry implements Entry {
         final String key;
         PFontInfo fontInfo;        
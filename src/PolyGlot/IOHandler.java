@@ -36,8 +36,10 @@ import java.awt.Point;
 import java.awt.Window;
 import java.awt.image.BufferedImage;
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.File;
@@ -45,10 +47,10 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStreamWriter;
-import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
@@ -61,6 +63,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
@@ -70,13 +74,13 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import org.apache.poi.util.IOUtils;
-import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 
 /**
@@ -124,78 +128,56 @@ public class IOHandler {
     /**
      * Sets the conlang font, if one exists and caches its file for quicksaving
      *
-     * @param _path The path of the PGD file
+     * @param archive opened PGD archive
      * @param core the dictionary core
      * @throws java.io.IOException
      * @throws java.awt.FontFormatException
      */
-    public static void setFontFrom(String _path, DictCore core) throws IOException, FontFormatException {
-        if (isFileZipArchive(_path)) {
-            try (ZipFile zipFile = new ZipFile(_path)) {
-                ZipEntry fontEntry = zipFile.getEntry(PGTUtil.fontFileName);
-
-                if (fontEntry != null) {
-                    final File tempFile = File.createTempFile("stream2file", ".tmp");
-                    tempFile.deleteOnExit();
-
-                    try (FileOutputStream out = new FileOutputStream(tempFile)) {
-                        try (InputStream inputStream = zipFile.getInputStream(fontEntry)) {
-                            IOUtils.copy(inputStream, out);
-                        }
+    public static void setFontFrom(PGDArchive archive, DictCore core) throws IOException, FontFormatException {
+        byte[] cachedFont;
 
-                        try {
-                            Font conFont = Font.createFont(Font.TRUETYPE_FONT, tempFile);
+        try {
+            cachedFont = archive.getFont();
+        } catch (IOException e) {
+            throw new IOException("Could not load language font. I/O exception: " + e.getMessage());
+        }
 
-                            if (conFont == null) {
-                                return;
-                            }
+        if (cachedFont == null) {
+            return;
+        }
 
-                            byte[] cachedFont;
-                            try (InputStream inputStream = new FileInputStream(tempFile)) {
-                                cachedFont = IOUtils.toByteArray(inputStream);
-                            }
-                            core.getPropertiesManager().setFontCon(conFont);
-                            core.getPropertiesManager().setCachedFont(cachedFont);
-                        } catch (FontFormatException e) {
-                            throw new FontFormatException("Could not load language font. Possible incompatible font: " + e.getMessage());
-                        } catch (IOException e) {
-                            throw new IOException("Could not load language font. I/O exception: " + e.getMessage());
-                        }
-                    }
-                }
+        try {
+            Font conFont = Font.createFont(Font.TRUETYPE_FONT, new ByteArrayInputStream(cachedFont));
+
+            if (conFont == null) {
+                return;
             }
+
+            core.getPropertiesManager().setFontCon(conFont);
+            core.getPropertiesManager().setCachedFont(cachedFont);
+        } catch (FontFormatException e) {
+            throw new FontFormatException("Could not load language font. Possible incompatible font: " + e.getMessage());
+        } catch (IOException e) {
+            throw new IOException("Could not load language font. I/O exception: " + e.getMessage());
         }
     }
 
     /**
-     * Given file name, returns appropriate cust handler
+     * Given opened archive, returns appropriate cust handler
      *
-     * @param _fileName full path of target file to read
+     * @param archive opened PGD archive
      * @param _core dictionary core
      * @return cushandler class
      * @throws java.io.IOException on read problem
      */
-    public static CustHandler getHandlerFromFile(String _fileName, DictCore _core) throws IOException {
-        CustHandler ret = null;
-
-        if (IOHandler.isFileZipArchive(_fileName)) {
-            try (ZipFile zipFile = new ZipFile(_fileName)) {
-                ZipEntry xmlEntry = zipFile.getEntry(PGTUtil.dictFileName);
-                try (InputStream ioStream = zipFile.getInputStream(xmlEntry)) {
-                    ret = CustHandlerFactory.getCustHandler(ioStream, _core);
-                } catch (Exception e) {
-                    throw new IOException(e.getLocalizedMessage());
-                }
-            }
-        } else {
-            try (InputStream ioStream = new FileInputStream(_fileName)) {
-                ret = CustHandlerFactory.getCustHandler(ioStream, _core);
-            } catch (Exception e) {
-                throw new IOException(e.getLocalizedMessage());
-            }
+    public static CustHandler getHandlerFromFile(PGDArchive archive, DictCore _core) throws IOException {
+        try {
+            return CustHandlerFactory.getCustHandler(archive.getVersion(), _core);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getLocalizedMessage());
         }
-
-        return ret;
     }
 
     /**
@@ -306,6 +288,9 @@ public class IOHandler {
                     case PGTUtil.optionsAutoResize:
                         core.getOptionsManager().setAnimateWindows(bothVal[1].equals(PGTUtil.True));
                         break;
+                    case PGTUtil.optionsDeepSaveVerify:
+                        core.getOptionsManager().setDeepSaveVerify(bothVal[1].equals(PGTUtil.True));
+                        break;
                     case "\n":
                         break;
                     default:
@@ -317,30 +302,21 @@ public class IOHandler {
     }
 
     /**
-     * Given handler class, parses XML document within file (archive or not)
+     * Given handler class, parses XML document within archive
      *
-     * @param _fileName full path of target file
+     * @param archive opened PGD archive
      * @param _handler custom handler to consume XML document
      * @throws IOException on read error
      * @throws ParserConfigurationException on parser factory config error
      * @throws SAXException on XML interpretation error
      */
-    public static void parseHandler(String _fileName, CustHandler _handler)
+    public static void parseHandler(PGDArchive archive, CustHandler _handler)
             throws IOException, ParserConfigurationException, SAXException {
         SAXParserFactory factory = SAXParserFactory.newInstance();
         SAXParser saxParser = factory.newSAXParser();
 
-        if (IOHandler.isFileZipArchive(_fileName)) {
-            try (ZipFile zipFile = new ZipFile(_fileName)) {
-                ZipEntry xmlEntry = zipFile.getEntry(PGTUtil.dictFileName);
-                try (InputStream ioStream = zipFile.getInputStream(xmlEntry)) {
-                    saxParser.parse(ioStream, _handler);
-                }
-            }
-        } else {
-            try (InputStream ioStream = new FileInputStream(_fileName)) {
-                saxParser.parse(ioStream, _handler);
-            }
+        try (InputStream ioStream = archive.getDictionaryStream()) {
+            saxParser.parse(ioStream, _handler);
         }
     }
 
@@ -371,159 +347,168 @@ public class IOHandler {
         return test == 0x504b0304;
     }
 
-    public static void writeFile(String _fileName, Document doc, DictCore core) throws IOException, TransformerException {
+    /**
+     * Saves dictionary to file. The dictionary XML is streamed directly into
+     * the archive rather than being built in memory first.
+     *
+     * @param _fileName path to save to
+     * @param core dictionary core to save
+     * @throws IOException on failure to save
+     */
+    public static void writeFile(String _fileName, DictCore core) throws IOException {
         File finalFile = new File(_fileName);
         String writeLog = "";
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        Transformer transformer = transformerFactory.newTransformer();
 
         // The below has unreliable behavior in some situations, but is still better than nothing.
         if (!finalFile.canWrite()) {
             throw new IOException("Unable to write file to this location. PolyGlot does not have write permission (try saving elsewhere). Target: " + finalFile.toPath());
         }
 
-        try (StringWriter writer = new StringWriter()) {
-            transformer.transform(new DOMSource(doc), new StreamResult(writer));
-
-            StringBuilder sb = new StringBuilder();
-
-            sb.append(writer.getBuffer().toString());
-
-            // save file to temp location initially.
-            final File f = File.createTempFile(_fileName, null);
-            try (FileOutputStream fileOutputStream = new FileOutputStream(f)) {
-                try (ZipOutputStream out = new ZipOutputStream(fileOutputStream, Charset.forName("ISO-8859-1"))) {
-
-                    ZipEntry e = new ZipEntry(PGTUtil.dictFileName);
-                    out.putNextEntry(e);
+        // save file to temp location initially.
+        final File f = File.createTempFile(_fileName, null);
+        try (FileOutputStream fileOutputStream = new FileOutputStream(f)) {
+            try (ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(fileOutputStream), Charset.forName("ISO-8859-1"))) {
+
+                ZipEntry e = new ZipEntry(PGTUtil.dictFileName);
+                out.putNextEntry(e);
+
+                try {
+                    XMLStreamWriter writer = XMLOutputFactory.newInstance()
+                            .createXMLStreamWriter(out, "UTF-8");
+                    core.writeXML(writer);
+                    // closing the writer leaves the archive stream open
+                    writer.close();
+                } catch (XMLStreamException ex) {
+                    throw new IOException("Unable to write dictionary: " + ex.getLocalizedMessage(), ex);
+                }
 
-                    byte[] data = sb.toString().getBytes("UTF-8");
-                    out.write(data, 0, data.length);
+                out.closeEntry();
 
-                    out.closeEntry();
+                byte[] cachedFont = core.getPropertiesManager().getCachedFont();
 
-                    byte[] cachedFont = core.getPropertiesManager().getCachedFont();
+                // only search for font if the cached font is null
+                if (cachedFont == null) {
+                    // embed font in PGD archive if applicable
+                    File fontFile = null;
+                    try {
+                        fontFile = IOHandler.getFontFile(core.getPropertiesManager().getFontCon());
+                    } catch (Exception ex) {
+                        writeLog += "\nerror: " + ex.getLocalizedMessage();
+                    }
 
-                    // only search for font if the cached font is null
-                    if (cachedFont == null) {
-                        // embed font in PGD archive if applicable
-                        File fontFile = null;
+                    if (fontFile != null) {
                         try {
-                            fontFile = IOHandler.getFontFile(core.getPropertiesManager().getFontCon());
-                        } catch (Exception ex) {
-                            writeLog += "\nerror: " + ex.getLocalizedMessage();
-                        }
+                            try (FileInputStream fontInputStream = new FileInputStream(fontFile)) {
+                                core.getPropertiesManager().setCachedFont(IOUtils.toByteArray(fontInputStream));
+                            }
+                            byte[] buffer = new byte[1024];
+                            try (FileInputStream fis = new FileInputStream(fontFile)) {
+                                out.putNextEntry(new ZipEntry(PGTUtil.fontFileName));
+                                int length;
 
-                        if (fontFile != null) {
-                            try {
-                                try (FileInputStream fontInputStream = new FileInputStream(fontFile)) {
-                                    core.getPropertiesManager().setCachedFont(IOUtils.toByteArray(fontInputStream));
+                                while ((length = fis.read(buffer)) > 0) {
+                                    out.write(buffer, 0, length);
                                 }
-                                byte[] buffer = new byte[1024];
-                                try (FileInputStream fis = new FileInputStream(fontFile)) {
-                                    out.putNextEntry(new ZipEntry(PGTUtil.fontFileName));
-                                    int length;
-
-                                    while ((length = fis.read(buffer)) > 0) {
-                                        out.write(buffer, 0, length);
-                                    }
 
-                                    out.closeEntry();
-                                }
-                            } catch (FileNotFoundException ex) {
-                                writeLog += "\nUnable to write font to archive: " + ex.getMessage();
-                            } catch (IOException ex) {
-                                writeLog += "\nUnable to write font to archive: " + ex.getMessage();
+                                out.closeEntry();
                             }
-                        }
-                    } else {
-                        try {
-                            out.putNextEntry(new ZipEntry(PGTUtil.fontFileName));
-                            out.write(cachedFont);
-                            out.closeEntry();
+                        } catch (FileNotFoundException ex) {
+                            writeLog += "\nUnable to write font to archive: " + ex.getMessage();
                         } catch (IOException ex) {
                             writeLog += "\nUnable to write font to archive: " + ex.getMessage();
                         }
                     }
+                } else {
+                    try {
+                        out.putNextEntry(new ZipEntry(PGTUtil.fontFileName));
+                        out.write(cachedFont);
+                        out.closeEntry();
+                    } catch (IOException ex) {
+                        writeLog += "\nUnable to write font to archive: " + ex.getMessage();
+                    }
+                }
 
-                    // write all logograph images to file
-                    List<LogoNode> logoNodes = core.getLogoCollection().getAllLogos();
-                    if (!logoNodes.isEmpty()) {
-                        try {
-                            out.putNextEntry(new ZipEntry(PGTUtil.logoGraphSavePath));
-                            for (LogoNode curNode : logoNodes) {
-                                try {
-                                    out.putNextEntry(new ZipEntry(PGTUtil.logoGraphSavePath
-                                            + curNode.getId().toString() + ".png"));
+                // write all logograph images to file
+                List<LogoNode> logoNodes = core.getLogoCollection().getAllLogos();
+                if (!logoNodes.isEmpty()) {
+                    try {
+                        out.putNextEntry(new ZipEntry(PGTUtil.logoGraphSavePath));
+                        for (LogoNode curNode : logoNodes) {
+                            try {
+                                out.putNextEntry(new ZipEntry(PGTUtil.logoGraphSavePath
+                                        + curNode.getId().toString() + ".png"));
 
-                                    ImageIO.write(curNode.getLogoGraph(), "png", out);
+                                // copied through as loaded unless changed since
+                                out.write(curNode.getLogoGraphBytes());
 
-                                    out.closeEntry();
-                                } catch (IOException ex) {
-                                    writeLog += "\nUnable to save logograph: " + ex.getLocalizedMessage();
-                                }
+                                out.closeEntry();
+                            } catch (IOException ex) {
+                                writeLog += "\nUnable to save logograph: " + ex.getLocalizedMessage();
                             }
-                        } catch (IOException ex) {
-                            writeLog += "\nUnable to save Logographs: " + ex.getLocalizedMessage();
                         }
+                    } catch (IOException ex) {
+                        writeLog += "\nUnable to save Logographs: " + ex.getLocalizedMessage();
                     }
+                }
 
-                    // Write all general images in image repository to file
-                    List<ImageNode> imageNodes = core.getImageCollection().getAllImages();
-                    if (!imageNodes.isEmpty()) {
-                        try {
-                            out.putNextEntry(new ZipEntry(PGTUtil.imagesSavePath));
-                            for (ImageNode curNode : imageNodes) {
-                                try {
-                                    out.putNextEntry(new ZipEntry(PGTUtil.imagesSavePath
-                                            + curNode.getId().toString() + ".png"));
+                // Write all general images in image repository to file
+                List<ImageNode> imageNodes = core.getImageCollection().getAllImages();
+                if (!imageNodes.isEmpty()) {
+                    try {
+                        out.putNextEntry(new ZipEntry(PGTUtil.imagesSavePath));
+                        for (ImageNode curNode : imageNodes) {
+                            try {
+                                out.putNextEntry(new ZipEntry(PGTUtil.imagesSavePath
+                                        + curNode.getId().toString() + ".png"));
 
-                                    ImageIO.write(curNode.getImage(), "png", out);
+                                out.write(curNode.getImageBytes());
 
-                                    out.closeEntry();
-                                } catch (IOException ex) {
-                                    writeLog += "\nUnable to save image: " + ex.getLocalizedMessage();
-                                }
+                                out.closeEntry();
+                            } catch (IOException ex) {
+                                writeLog += "\nUnable to save image: " + ex.getLocalizedMessage();
                             }
-                        } catch (IOException ex) {
-                            writeLog += "\nUnable to save Images: " + ex.getLocalizedMessage();
                         }
+                    } catch (IOException ex) {
+                        writeLog += "\nUnable to save Images: " + ex.getLocalizedMessage();
                     }
+                }
 
-                    // write all grammar wav recordings to file
-                    Map<Integer, byte[]> grammarSoundMap = core.getGrammarManager().getSoundMap();
-                    Iterator<Entry<Integer, byte[]>> gramSoundIt = grammarSoundMap.entrySet().iterator();
-                    if (gramSoundIt.hasNext()) {
-                        try {
-                            out.putNextEntry(new ZipEntry(PGTUtil.grammarSoundSavePath));
-
-                            while (gramSoundIt.hasNext()) {
-                                Entry<Integer, byte[]> curEntry = gramSoundIt.next();
-                                Integer curId = curEntry.getKey();
-                                byte[] curSound = curEntry.getValue();
-
-                                try {
-                                    out.putNextEntry(new ZipEntry(PGTUtil.grammarSoundSavePath
-                                            + curId.toString() + ".raw"));
-                                    out.write(curSound);
-                                    out.closeEntry();
-                                } catch (IOException ex) {
-                                    writeLog += "\nUnable to save sound: " + ex.getLocalizedMessage();
-                                }
+                // write all grammar wav recordings to file
+                Map<Integer, byte[]> grammarSoundMap = core.getGrammarManager().getSoundMap();
+                Iterator<Entry<Integer, byte[]>> gramSoundIt = grammarSoundMap.entrySet().iterator();
+                if (gramSoundIt.hasNext()) {
+                    try {
+                        out.putNextEntry(new ZipEntry(PGTUtil.grammarSoundSavePath));
+
+                        while (gramSoundIt.hasNext()) {
+                            Entry<Integer, byte[]> curEntry = gramSoundIt.next();
+                            Integer curId = curEntry.getKey();
+                            byte[] curSound = curEntry.getValue();
 
+                            try {
+                                out.putNextEntry(new ZipEntry(PGTUtil.grammarSoundSavePath
+                                        + curId.toString() + ".raw"));
+                                out.write(curSound);
+                                out.closeEntry();
+                            } catch (IOException ex) {
+                                writeLog += "\nUnable to save sound: " + ex.getLocalizedMessage();
                             }
-                        } catch (IOException ex) {
-                            writeLog += "\nUnable to save sounds: " + ex.getLocalizedMessage();
+
                         }
+                    } catch (IOException ex) {
+                        writeLog += "\nUnable to save sounds: " + ex.getLocalizedMessage();
                     }
-
-                    out.finish();
-                    out.close();
                 }
+
+                out.finish();
+                out.close();
             }
+        }
 
-            // attempt to open file in dummy core. On success, copy file to end
-            // destination, on fail, delete file, and inform user by bubbling error
+        // verify written archive before copying it to its end destination. A
+        // deep verification opens the file in a dummy core, otherwise only
+        // archive structure is checked. On fail, inform user by bubbling error
+        if (core.getOptionsManager().isDeepSaveVerify()) {
             try {
                 DictCore test = new DictCore();
                 test.readFile(f.getAbsolutePath());
@@ -531,12 +516,14 @@ public class IOHandler {
             } catch (IOException | IllegalStateException ex) {
                 throw new IOException(ex);
             }
+        } else {
+            verifyArchive(f, core);
+        }
 
-            try {
-                java.nio.file.Files.copy(f.toPath(), finalFile.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-            } catch (IOException ex) {
-                throw new IOException("Unable to save file: " + ex.getMessage());
-            }
+        try {
+            java.nio.file.Files.copy(f.toPath(), finalFile.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new IOException("Unable to save file: " + ex.getMessage());
         }
 
         if (!writeLog.equals("")) {
@@ -544,6 +531,120 @@ public class IOHandler {
         }
     }
 
+    /**
+     * Checks structure of a freshly written archive without loading it: each
+     * entry's CRC is recomputed, the dictionary XML must be well formed, and
+     * the counts of words, types and saved assets must match the core's
+     *
+     * @param archive written archive to check
+     * @param core dictionary core archive was written from
+     * @throws IOException if archive fails any check
+     */
+    private static void verifyArchive(File archive, DictCore core) throws IOException {
+        int[] xmlCounts = null;
+        int logoCount = 0;
+        int imageCount = 0;
+        int soundCount = 0;
+        byte[] buffer = new byte[8192];
+
+        try (ZipFile zipFile = new ZipFile(archive)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+
+                if (entry.isDirectory()) {
+                    continue;
+                }
+
+                CRC32 crc = new CRC32();
+                try (InputStream entryStream = new CheckedInputStream(zipFile.getInputStream(entry), crc)) {
+                    if (name.equals(PGTUtil.dictFileName)) {
+                        // parser closes its input at document end; shield the
+                        // entry stream so any remainder is still checksummed
+                        xmlCounts = countDictionaryNodes(new FilterInputStream(entryStream) {
+                            @Override
+                            public void close() {
+                            }
+                        });
+                    }
+
+                    // read any remainder through so the whole entry is checksummed
+                    while (entryStream.read(buffer) != -1) {
+                    }
+                }
+
+                if (crc.getValue() != entry.getCrc()) {
+                    throw new IOException("Saved archive corrupt. CRC mismatch in entry: " + name);
+                }
+
+                if (name.startsWith(PGTUtil.logoGraphSavePath)) {
+                    logoCount++;
+                } else if (name.startsWith(PGTUtil.imagesSavePath)) {
+                    imageCount++;
+                } else if (name.startsWith(PGTUtil.grammarSoundSavePath)) {
+                    soundCount++;
+                }
+            }
+        }
+
+        if (xmlCounts == null) {
+            throw new IOException("Saved archive contains no dictionary.");
+        }
+
+        verifyCount("words", core.getWordCollection().getWordCount(), xmlCounts[0]);
+        verifyCount("parts of speech", core.getTypes().getNodes().size(), xmlCounts[1]);
+        verifyCount("logographs", core.getLogoCollection().getAllLogos().size(), logoCount);
+        verifyCount("images", core.getImageCollection().getAllImages().size(), imageCount);
+        verifyCount("grammar recordings", core.getGrammarManager().getSoundMap().size(), soundCount);
+    }
+
+    /**
+     * Reads dictionary XML through to its end, counting saved words and types
+     *
+     * @param xmlStream stream of dictionary XML
+     * @return count of words and count of types, in that order
+     * @throws IOException if XML is not well formed
+     */
+    private static int[] countDictionaryNodes(InputStream xmlStream) throws IOException {
+        int[] ret = new int[2];
+
+        try {
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(xmlStream);
+
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+
+                    switch (reader.getLocalName()) {
+                        case PGTUtil.wordXID:
+                            ret[0]++;
+                            break;
+                        case PGTUtil.typeXID:
+                            ret[1]++;
+                            break;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Saved dictionary is malformed: " + e.getLocalizedMessage());
+        }
+
+        return ret;
+    }
+
+    private static void verifyCount(String label, int expected, int saved) throws IOException {
+        if (expected != saved) {
+            throw new IOException("Saved archive incomplete. Expected " + expected
+                    + " " + label + ", found " + saved + ".");
+        }
+    }
+
     public static byte[] getFontFileArray(Font font) throws Exception {
         return Files.readAllBytes(getFontFile(font).toPath());
     }
@@ -686,46 +787,22 @@ public class IOHandler {
     }
 
     /**
-     * Loads image assets from file. Does not load logographs due to legacy
+     * Loads image assets from archive. Does not load logographs due to legacy
      * coding/logic
      *
      * @param imageCollection from dictCore to populate
-     * @param fileName of file containing assets
+     * @param archive opened PGD archive
      * @throws java.io.IOException
      */
     public static void loadImageAssets(ImageCollection imageCollection,
-            String fileName) throws IOException, Exception {
-        try (ZipFile zipFile = new ZipFile(fileName)) {
-            Enumeration<? extends ZipEntry> entries = zipFile.entries();
-            ZipEntry entry;
-            while (entries.hasMoreElements()) { // find images directory (zip paths are linear, only simulating tree structure)
-                entry = entries.nextElement();
-                if (!entry.getName().equals(PGTUtil.imagesSavePath)) {
-                    continue;
-                }
-                break;
-            }
-
-            while (entries.hasMoreElements()) {
-                entry = entries.nextElement();
-
-                if (entry.isDirectory()) { // kills process after last image found
-                    break;
-                }
-
-                BufferedImage img;
-                try (InputStream imageStream = zipFile.getInputStream(entry)) {
-                    String name = entry.getName().replace(".png", "")
-                            .replace(PGTUtil.imagesSavePath, "");
-                    int imageId = Integer.parseInt(name);
-                    img = ImageIO.read(imageStream);
-                    ImageNode imageNode = new ImageNode();
-                    imageNode.setId(imageId);
-                    imageNode.setImage(img);
-                    imageCollection.getBuffer().setEqual(imageNode);
-                    imageCollection.insert(imageId);
-                }
-            }
+            PGDArchive archive) throws IOException, Exception {
+        for (Entry<Integer, byte[]> curImage : archive.getImages().entrySet()) {
+            int imageId = curImage.getKey();
+            ImageNode imageNode = new ImageNode();
+            imageNode.setId(imageId);
+            imageNode.setImageBytes(curImage.getValue());
+            imageCollection.getBuffer().setEqual(imageNode);
+            imageCollection.insert(imageId);
         }
     }
 
@@ -749,33 +826,27 @@ public class IOHandler {
     }
 
     /**
-     * loads all images into their logographs from archive and images into the
-     * generalized image collection
+     * loads all images into their logographs from archive
      *
      * @param logoCollection logocollection from dictionary core
-     * @param fileName name/path of archive
+     * @param archive opened PGD archive
      * @throws java.lang.Exception
      */
     public static void loadLogographs(LogoCollection logoCollection,
-            String fileName) throws Exception {
-        if (!isFileZipArchive(fileName)) {
-            return;
-        }
-
-        Iterator<LogoNode> it = logoCollection.getAllLogos().iterator();
-        try (ZipFile zipFile = new ZipFile(fileName)) {
-            while (it.hasNext()) {
-                LogoNode curNode = it.next();
-                ZipEntry imgEntry = zipFile.getEntry(PGTUtil.logoGraphSavePath
-                        + curNode.getId().toString() + ".png");
+            PGDArchive archive) throws Exception {
+        String loadLog = "";
 
-                BufferedImage img;
-                try (InputStream imageStream = zipFile.getInputStream(imgEntry)) {
-                    img = ImageIO.read(imageStream);
-                }
-                curNode.setLogoGraph(img);
+        for (LogoNode curNode : logoCollection.getAllLogos()) {
+            try {
+                curNode.setLogoGraphBytes(archive.getLogograph(curNode.getId()));
+            } catch (IOException e) {
+                loadLog += "\nUnable to load logograph: " + e.getLocalizedMessage();
             }
         }
+
+        if (!loadLog.equals("")) {
+            throw new Exception(loadLog);
+        }
     }
 
     /**
@@ -813,45 +884,29 @@ public class IOHandler {
      * Loads any related grammar recordings into the passed grammar manager via
      * id
      *
-     * @param _fileName name of file to load sound recordings from
+     * @param archive opened PGD archive
      * @param grammarManager grammar manager to populate with sounds
      * @throws Exception on sound load errors
      */
-    static void loadGrammarSounds(String fileName, GrammarManager grammarManager) throws Exception {
+    static void loadGrammarSounds(PGDArchive archive, GrammarManager grammarManager) throws Exception {
         String loadLog = "";
+        Iterator<GrammarChapNode> chapIt = grammarManager.getChapters().iterator();
 
-        try (ZipFile zipFile = new ZipFile(fileName)) {
-            Iterator<GrammarChapNode> chapIt = grammarManager.getChapters().iterator();
-
-            while (chapIt.hasNext()) {
-                GrammarChapNode curChap = chapIt.next();
-
-                for (int i = 0; i < curChap.getChildCount(); i++) {
-                    GrammarSectionNode curNode = (GrammarSectionNode) curChap.getChildAt(i);
-
-                    if (curNode.getRecordingId() == -1) {
-                        continue;
-                    }
-
-                    String soundPath = PGTUtil.grammarSoundSavePath
-                            + curNode.getRecordingId().toString() + ".raw";
-                    ZipEntry soundEntry = zipFile.getEntry(soundPath);
+        while (chapIt.hasNext()) {
+            GrammarChapNode curChap = chapIt.next();
 
-                    byte[] sound = null;
+            for (int i = 0; i < curChap.getChildCount(); i++) {
+                GrammarSectionNode curNode = (GrammarSectionNode) curChap.getChildAt(i);
 
-                    try (InputStream soundStream = zipFile.getInputStream(soundEntry)) {
-                        sound = IOUtils.toByteArray(soundStream);
-                    } catch (IOException e) {
-                        loadLog += "\nUnable to load sound: " + e.getLocalizedMessage();
-                    } catch (Exception e) {
-                        loadLog += "\nUnable to load sound: " + e.getLocalizedMessage();
-                    }
-
-                    if (sound == null) {
-                        continue;
-                    }
+                if (curNode.getRecordingId() == -1) {
+                    continue;
+                }
 
+                try {
+                    byte[] sound = archive.getSound(curNode.getRecordingId());
                     grammarManager.addChangeRecording(curNode.getRecordingId(), sound);
+                } catch (IOException e) {
+                    loadLog += "\nUnable to load sound: " + e.getLocalizedMessage();
                 }
             }
         }
@@ -1065,6 +1120,10 @@ public class IOHandler {
             nextLine = PGTUtil.optionsAutoResize + "=" + (core.getOptionsManager().isAnimateWindows() ? PGTUtil.True : PGTUtil.False);
 
             f0.write(nextLine + newLine);
+
+            nextLine = PGTUtil.optionsDeepSaveVerify + "=" + (core.getOptionsManager().isDeepSaveVerify() ? PGTUtil.True : PGTUtil.False);
+
+            f0.write(nextLine + newLine);
         }
     }
 
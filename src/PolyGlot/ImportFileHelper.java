@@ -25,21 +25,25 @@ import PolyGlot.Nodes.WordPropValueNode;
 import PolyGlot.Nodes.WordProperty;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileReader;
-import java.io.InputStream;
-import java.util.Arrays;
-import java.util.Iterator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
 
 public class ImportFileHelper {
 
+    private static final int IMPORT_BATCH_SIZE = 1000;
+    private static final int MAPPING_THREADS = Runtime.getRuntime().availableProcessors();
+
     private final DictCore core;
     private String iConWord;
     private String iLocalWord;
@@ -50,6 +54,14 @@ public class ImportFileHelper {
     private String delimiter;
     private boolean bFirstLineLabels;
     private boolean bCreateTypes;
+    private int[] conWordCols;
+    private int[] localWordCols;
+    private int[] typeCols;
+    private int[] classCols;
+    private int[] definitionCols;
+    private int[] pronunciationCols;
+    private final Map<String, WordProperty> importClasses = new HashMap<>();
+    private final Map<Integer, Map<String, WordPropValueNode>> importClassValues = new HashMap<>();
 
     public ImportFileHelper(DictCore _core) {
         core = _core;
@@ -78,6 +90,14 @@ public class ImportFileHelper {
      * @throws Exception
      */
     public void importFile(String inputFile, Integer sheetNum) throws Exception {
+        conWordCols = parseColumns(iConWord);
+        localWordCols = parseColumns(iLocalWord);
+        typeCols = parseColumns(iType);
+        classCols = parseColumns(iClass);
+        definitionCols = parseColumns(iDefinition);
+        pronunciationCols = parseColumns(iPronunciation);
+        buildClassLookup();
+
         if (inputFile.endsWith("xls")
                 || inputFile.endsWith("xlsx")
                 || inputFile.endsWith("xlsm")) {
@@ -93,222 +113,294 @@ public class ImportFileHelper {
     }
 
     private void importExcel(String inputFile, Integer sheetNum) throws Exception {
-        Workbook wb;
-        Sheet mySheet;
-        try (InputStream myFile = new FileInputStream(inputFile)) {
-            wb = WorkbookFactory.create(myFile);
-            mySheet = wb.getSheetAt(sheetNum);
-            Iterator<Row> rowIterator = mySheet.iterator();
-
+        // rows are streamed from file rather than loading the whole workbook
+        ExcelStreamReader.readSheet(inputFile, sheetNum, new ExcelStreamReader.RowHandler() {
             // if first row is labels, skip
-            if (bFirstLineLabels && rowIterator.hasNext()) {
-                rowIterator.next();
+            private boolean skipRow = bFirstLineLabels;
+
+            @Override
+            public void processRow(List<String> cells) throws Exception {
+                if (skipRow) {
+                    skipRow = false;
+                } else {
+                    processWordRow(cells);
+                }
             }
+        });
+    }
+
+    private void importCSV(String inputFile) throws Exception {
+        // tab may be entered as an escape, as the delimiter was once a regex
+        String fieldDelimiter = delimiter.equals("\\t") ? "\t" : delimiter;
+        ExecutorService pool = Executors.newFixedThreadPool(MAPPING_THREADS,
+                new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread ret = new Thread(r, "PolyGlot CSV import");
+                ret.setDaemon(true);
+                return ret;
+            }
+        });
+
+        try (CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new FileReader(new File(inputFile))), fieldDelimiter)) {
+            // skip first line if specified by user
+            if (bFirstLineLabels) {
+                reader.readRecord();
+            }
+
+            List<List<String>> batch = readBatch(reader);
+
+            while (!batch.isEmpty()) {
+                List<ConWord> words = mapRecords(batch, pool);
+                List<ConWord> insertWords = new ArrayList<>();
+
+                // classes and types are created in row order, so run serially
+                for (int i = 0; i < batch.size(); i++) {
+                    ConWord newWord = words.get(i);
 
-            while (rowIterator.hasNext()) {
-                processWordRow(rowIterator.next());
+                    if (newWord != null) {
+                        resolveRecordRefs(batch.get(i), newWord);
+                        insertWords.add(newWord);
+                    }
+                }
+
+                core.getWordCollection().insertAll(insertWords);
+                batch = readBatch(reader);
             }
+        } finally {
+            pool.shutdownNow();
         }
     }
 
-    private void importCSV(String inputFile) throws Exception {
-        File file = new File(inputFile);
-        try (FileReader reader = new FileReader(file)) {
-            try (BufferedReader br = new BufferedReader(reader)) {
-                String line;
-                List<String> columnList;
-
-                // skip first line if specified by user
-                if (bFirstLineLabels) {
-                    br.readLine();
+    private static List<List<String>> readBatch(CsvRecordReader reader) throws IOException {
+        List<List<String>> ret = new ArrayList<>();
+        List<String> record;
+
+        while (ret.size() < IMPORT_BATCH_SIZE && (record = reader.readRecord()) != null) {
+            ret.add(record);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Maps records to words across pool, setting all values that require no
+     * lookups in the language
+     *
+     * @param records records to map
+     * @param pool pool to map on
+     * @return word for each record, null where record has no conword value
+     * @throws Exception on mapping error
+     */
+    private List<ConWord> mapRecords(final List<List<String>> records, ExecutorService pool) throws Exception {
+        int chunkSize = (records.size() + MAPPING_THREADS - 1) / MAPPING_THREADS;
+        List<Future<List<ConWord>>> chunks = new ArrayList<>();
+        List<ConWord> ret = new ArrayList<>(records.size());
+
+        for (int start = 0; start < records.size(); start += chunkSize) {
+            final List<List<String>> chunk = records.subList(start,
+                    Math.min(start + chunkSize, records.size()));
+            chunks.add(pool.submit(new Callable<List<ConWord>>() {
+                @Override
+                public List<ConWord> call() {
+                    List<ConWord> words = new ArrayList<>(chunk.size());
+
+                    for (List<String> record : chunk) {
+                        words.add(mapRecordValues(record));
+                    }
+
+                    return words;
                 }
+            }));
+        }
 
-                while ((line = br.readLine()) != null) {
-                    String[] columns = line.split(delimiter);
+        try {
+            for (Future<List<ConWord>> chunk : chunks) {
+                ret.addAll(chunk.get());
+            }
+        } catch (ExecutionException e) {
+            throw new Exception("Unable to import rows: " + e.getCause().getLocalizedMessage(), e.getCause());
+        }
 
-                    ConWord newWord = new ConWord();
+        return ret;
+    }
 
-                    // add conword
-                    columnList = Arrays.asList(iConWord.split(","));
-                    for (String entry : columnList) {
-                        if (entry == null || entry.equals("")) {
-                            continue;
-                        }
+    /**
+     * Creates word from CSV record with its text values set
+     *
+     * @param record fields of record
+     * @return new word, or null if record has no conword value
+     */
+    private ConWord mapRecordValues(List<String> record) {
+        ConWord newWord = new ConWord();
+        // empty trailing fields are treated as absent
+        int fieldCount = record.size();
 
-                        Integer cellNum = cellNumCheckGet(entry);
+        while (fieldCount > 0 && record.get(fieldCount - 1).isEmpty()) {
+            fieldCount--;
+        }
 
-                        // fail silently for files that truncate empty trailing fields
-                        if (cellNum >= columns.length) {
-                            continue;
-                        }
+        // add conword
+        for (int cellNum : conWordCols) {
+            String field = getField(record, fieldCount, cellNum);
 
-                        if (newWord.getValue().trim().equals("")) {
-                            newWord.setValue(columns[cellNum].trim());
-                        } else {
-                            newWord.setValue(newWord.getValue() + ", " + columns[cellNum].trim());
-                        }
-                    }
+            if (field == null) {
+                continue;
+            }
 
-                    // if conword is blank, continue. Bare minimum for imported word is a conword value.
-                    if (newWord.getValue().trim().equals("")) {
-                        continue;
-                    }
+            if (newWord.getValue().trim().equals("")) {
+                newWord.setValue(field);
+            } else {
+                newWord.setValue(newWord.getValue() + ", " + field);
+            }
+        }
 
-                    // add definition
-                    columnList = Arrays.asList(iDefinition.split(","));
-                    for (String entry : columnList) {
-                        if (entry == null || entry.equals("")) {
-                            continue;
-                        }
-
-                        Integer cellNum = cellNumCheckGet(entry);
-
-                        // fail silently for files that truncate empty trailing fields
-                        if (cellNum >= columns.length) {
-                            continue;
-                        }
-
-                        if (newWord.getDefinition().trim().equals("")) {
-                            newWord.setDefinition(columns[cellNum].trim());
-                        } else {
-                            newWord.setDefinition(newWord.getDefinition() + "\n\n" + columns[cellNum].trim());
-                        }
-                    }
+        // if conword is blank, skip. Bare minimum for imported word is a conword value.
+        if (newWord.getValue().trim().equals("")) {
+            return null;
+        }
 
-                    // add classes
-                    columnList = Arrays.asList(iClass.split(","));
-                    for (String entry : columnList) {
-                        if (entry == null || entry.equals("")) {
-                            continue;
-                        }
-
-                        Integer cellNum = cellNumCheckGet(entry);
-
-                        // fail silently for files that truncate empty trailing fields
-                        if (cellNum >= columns.length) {
-                            continue;
-                        }
-
-                        String className = "CLASS" + cellNum.toString(); // guarantee unique name for user to rename later (based on column)
-                        WordProperty wordProp = null;
-
-                        // find class
-                        for (WordProperty findProp : core.getWordPropertiesCollection().getAllWordProperties()) {
-                            if (findProp.getValue().equals(className)) {
-                                wordProp = findProp;
-                                break;
-                            }
-                        }
-
-                        // create class if doesn't yet exist
-                        if (wordProp == null) {
-                            wordProp = new WordProperty();
-                            wordProp.setValue(className);
-                            int propId = core.getWordPropertiesCollection().addNode(wordProp);
-                            try {
-                                wordProp = (WordProperty) core.getWordPropertiesCollection().getNodeById(propId);
-                            } catch (Exception e) {
-                                throw new Exception("Problem pulling word class for word: " + newWord.getValue());
-                            }
-                        }
-
-                        // find class value
-                        WordPropValueNode wordVal = null;
-                        for (WordPropValueNode findVal : wordProp.getValues()) {
-                            if (findVal.getValue().equals(columns[cellNum].trim())) {
-                                wordVal = findVal;
-                                break;
-                            }
-                        }
-
-                        // create class value if doesn't exist yet
-                        if (wordVal == null) {
-                            wordVal = new WordPropValueNode();
-                            wordVal.setValue(columns[cellNum].trim());
-                            wordVal = wordProp.addValue(columns[cellNum].trim());
-                        }
-
-                        // add class value to word
-                        newWord.setClassValue(wordProp.getId(), wordVal.getId());
-                    }
+        // add definition
+        for (int cellNum : definitionCols) {
+            String field = getField(record, fieldCount, cellNum);
 
-                    // add local word
-                    columnList = Arrays.asList(iLocalWord.split(","));
-                    for (String entry : columnList) {
-                        if (entry == null || entry.equals("")) {
-                            continue;
-                        }
-
-                        Integer cellNum = cellNumCheckGet(entry);
-
-                        // fail silently for files that truncate empty trailing fields
-                        if (cellNum >= columns.length) {
-                            continue;
-                        }
-
-                        if (newWord.getLocalWord().trim().equals("")) {
-                            newWord.setLocalWord(columns[cellNum].trim());
-                        } else {
-                            newWord.setLocalWord(newWord.getLocalWord() + ", " + columns[cellNum].trim());
-                        }
-                    }
+            if (field == null) {
+                continue;
+            }
 
-                    // add pronunciation
-                    columnList = Arrays.asList(iPronunciation.split(","));
-                    for (String entry : columnList) {
-                        if (entry == null || entry.equals("")) {
-                            continue;
-                        }
-
-                        Integer cellNum = cellNumCheckGet(entry);
-
-                        // fail silently for files that truncate empty trailing fields
-                        if (cellNum >= columns.length) {
-                            continue;
-                        }
-
-                        if (newWord.getPronunciation().trim().equals("")) {
-                            newWord.setPronunciation(columns[cellNum].trim());
-                        } else {
-                            newWord.setPronunciation(newWord.getPronunciation() + ", " + columns[cellNum].trim());
-                        }
-                    }
+            if (newWord.getDefinition().trim().equals("")) {
+                newWord.setDefinition(field);
+            } else {
+                newWord.setDefinition(newWord.getDefinition() + "\n\n" + field);
+            }
+        }
 
-                    // add type
-                    columnList = Arrays.asList(iType.split(","));
-                    for (String entry : columnList) {
-                        if (entry == null || entry.equals("")) {
-                            continue;
-                        }
-
-                        Integer cellNum = cellNumCheckGet(entry);
-
-                        // fail silently for files that truncate empty trailing fields
-                        if (cellNum >= columns.length) {
-                            continue;
-                        }
-
-                        if (newWord.getWordTypeId() == 0) {
-                            newWord.setWordTypeId(core.getTypes().findOrCreate(columns[cellNum].trim()).getId());
-                        } else {
-                            newWord.setWordTypeId(core.getTypes().findOrCreate(newWord.getWordTypeDisplay() + ", " + columns[cellNum].trim()).getId());
-                        }
-                    }
+        // add local word
+        for (int cellNum : localWordCols) {
+            String field = getField(record, fieldCount, cellNum);
 
-                    // add type to list of potential types if applicable and user
-                    // specified
-                    if (bCreateTypes && newWord.getWordTypeId() != 0
-                            && !core.getTypes().nodeExists(newWord.getWordTypeId())) {
-                        core.getTypes().clear();
-                        TypeNode newType = core.getTypes().getBufferType();
-                        newType.setValue(newWord.getWordTypeDisplay());
-                        core.getTypes().insert();
-                    }
+            if (field == null) {
+                continue;
+            }
 
-                    core.getWordCollection().addWord(newWord);
-                }
+            if (newWord.getLocalWord().trim().equals("")) {
+                newWord.setLocalWord(field);
+            } else {
+                newWord.setLocalWord(newWord.getLocalWord() + ", " + field);
+            }
+        }
+
+        // add pronunciation
+        for (int cellNum : pronunciationCols) {
+            String field = getField(record, fieldCount, cellNum);
+
+            if (field == null) {
+                continue;
+            }
+
+            if (newWord.getPronunciation().trim().equals("")) {
+                newWord.setPronunciation(field);
+            } else {
+                newWord.setPronunciation(newWord.getPronunciation() + ", " + field);
             }
         }
+
+        return newWord;
+    }
+
+    /**
+     * Sets classes and type of word from CSV record, creating any that do not
+     * yet exist
+     *
+     * @param record fields of record
+     * @param newWord word mapped from record
+     * @throws Exception if class or type cannot be created
+     */
+    private void resolveRecordRefs(List<String> record, ConWord newWord) throws Exception {
+        int fieldCount = record.size();
+
+        while (fieldCount > 0 && record.get(fieldCount - 1).isEmpty()) {
+            fieldCount--;
+        }
+
+        // add classes
+        for (int cellNum : classCols) {
+            String field = getField(record, fieldCount, cellNum);
+
+            if (field == null) {
+                continue;
+            }
+
+            WordProperty wordProp = getImportClass(cellNum, newWord);
+            WordPropValueNode wordVal = getImportClassValue(wordProp, field);
+
+            // add class value to word
+            newWord.setClassValue(wordProp.getId(), wordVal.getId());
+        }
+
+        // add type
+        for (int cellNum : typeCols) {
+            String field = getField(record, fieldCount, cellNum);
+
+            if (field == null) {
+                continue;
+            }
+
+            if (newWord.getWordTypeId() == 0) {
+                newWord.setWordTypeId(core.getTypes().findOrCreate(field).getId());
+            } else {
+                newWord.setWordTypeId(core.getTypes().findOrCreate(newWord.getWordTypeDisplay() + ", " + field).getId());
+            }
+        }
+
+        // add type to list of potential types if applicable and user
+        // specified
+        if (bCreateTypes && newWord.getWordTypeId() != 0
+                && !core.getTypes().nodeExists(newWord.getWordTypeId())) {
+            core.getTypes().clear();
+            TypeNode newType = core.getTypes().getBufferType();
+            newType.setValue(newWord.getWordTypeDisplay());
+            core.getTypes().insert();
+        }
+    }
+
+    /**
+     * Gets trimmed field of record
+     *
+     * @param record fields of record
+     * @param fieldCount number of fields record is treated as having
+     * @param cellNum index of field
+     * @return trimmed field, or null if record has no such field
+     */
+    private static String getField(List<String> record, int fieldCount, int cellNum) {
+        // fail silently for files that truncate empty trailing fields
+        return cellNum >= 0 && cellNum < fieldCount ? record.get(cellNum).trim() : null;
+    }
+
+    /**
+     * Parses comma separated list of columns, given by number or letter
+     *
+     * @param columns column list from import options
+     * @return index of each column listed
+     * @throws Exception on invalid column value
+     */
+    private int[] parseColumns(String columns) throws Exception {
+        List<Integer> cols = new ArrayList<>();
+
+        for (String entry : columns.split(",")) {
+            if (!entry.equals("")) {
+                cols.add(cellNumCheckGet(entry));
+            }
+        }
+
+        int[] ret = new int[cols.size()];
+
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = cols.get(i);
+        }
+
+        return ret;
     }
 
     private Integer cellNumCheckGet(String entry) throws Exception {
@@ -331,27 +423,20 @@ public class ImportFileHelper {
     /**
      * Processes Excel row
      *
-     * @param row row to process
+     * @param cells text of row's cells, null where row has no cell
      * @throws Exception
      */
-    private void processWordRow(Row row) throws Exception {
+    private void processWordRow(List<String> cells) throws Exception {
         ConWord newWord = new ConWord();
 
-        List<String> columnList;
-
         // add conword
-        columnList = Arrays.asList(iConWord.split(","));
-        for (String entry : columnList) {
-            if (entry == null || entry.equals("")) {
-                continue;
-            }
-
-            Integer cellNum = cellNumCheckGet(entry);
+        for (int cellNum : conWordCols) {
+            String cell = getCell(cells, cellNum);
 
             if (newWord.getValue().trim().equals("")) {
-                newWord.setValue(row.getCell(cellNum) != null ? row.getCell(cellNum).toString() : "");
-            } else if (row.getCell(cellNum) != null) {
-                newWord.setValue(newWord.getValue() + ", " + row.getCell(cellNum).toString());
+                newWord.setValue(cell != null ? cell : "");
+            } else if (cell != null) {
+                newWord.setValue(newWord.getValue() + ", " + cell);
             }
         }
 
@@ -361,123 +446,62 @@ public class ImportFileHelper {
         }
 
         // add definition
-        columnList = Arrays.asList(iDefinition.split(","));
-        for (String entry : columnList) {
-            if (entry == null || entry.equals("")) {
-                continue;
-            }
-
-            Integer cellNum = cellNumCheckGet(entry);
+        for (int cellNum : definitionCols) {
+            String cell = getCell(cells, cellNum);
 
             if (newWord.getDefinition().trim().equals("")) {
-                newWord.setDefinition(row.getCell(cellNum) != null ? row.getCell(cellNum).toString() : "");
-            } else if (row.getCell(cellNum) != null) {
-                newWord.setDefinition(newWord.getDefinition() + "\n\n" + row.getCell(cellNum).toString());
+                newWord.setDefinition(cell != null ? cell : "");
+            } else if (cell != null) {
+                newWord.setDefinition(newWord.getDefinition() + "\n\n" + cell);
             }
         }
 
         // add classes
-        columnList = Arrays.asList(iClass.split(","));
-        for (String entry : columnList) {
-            if (entry == null || entry.equals("")) {
-                continue;
-            }
-
-            Integer cellNum = cellNumCheckGet(entry);
-
-            String className = "CLASS" + cellNum.toString(); // guarantee unique name for user to rename later (based on column)
-            WordProperty wordProp = null;
-
-            // find class
-            for (WordProperty findProp : core.getWordPropertiesCollection().getAllWordProperties()) {
-                if (findProp.getValue().equals(className)) {
-                    wordProp = findProp;
-                    break;
-                }
-            }
-
-            // create class if doesn't yet exist
-            if (wordProp == null) {
-                wordProp = new WordProperty();
-                wordProp.setValue(className);
-                int propId = core.getWordPropertiesCollection().addNode(wordProp);
-                try {
-                    wordProp = (WordProperty) core.getWordPropertiesCollection().getNodeById(propId);
-                } catch (Exception e) {
-                    throw new Exception("Problem pulling word class for word: " + newWord.getValue());
-                }
-            }
+        for (int cellNum : classCols) {
+            WordProperty wordProp = getImportClass(cellNum, newWord);
+            String cell = getCell(cells, cellNum);
 
-            // find class value
-            Cell curCell = row.getCell(cellNum);
-            WordPropValueNode wordVal = null;
-            if (curCell != null) { // null = empty cell in many occasions, skip if this is the case
-                for (WordPropValueNode findVal : wordProp.getValues()) {
-                    if (findVal.getValue().equals(curCell.toString().trim())) {
-                        wordVal = findVal;
-                        break;
-                    }
-                }
-            } else {
+            // null = empty cell in many occasions, skip if this is the case
+            if (cell == null) {
                 continue;
             }
 
-            // create class value if doesn't exist yet
-            if (wordVal == null) {
-                wordVal = new WordPropValueNode();
-                wordVal.setValue(row.getCell(cellNum).toString().trim());
-                wordVal = wordProp.addValue(row.getCell(cellNum).toString().trim());
-            }
+            WordPropValueNode wordVal = getImportClassValue(wordProp, cell.trim());
 
             // add class value to word
             newWord.setClassValue(wordProp.getId(), wordVal.getId());
         }
 
         // add local word
-        columnList = Arrays.asList(iLocalWord.split(","));
-        for (String entry : columnList) {
-            if (entry == null || entry.equals("")) {
-                continue;
-            }
-
-            Integer cellNum = cellNumCheckGet(entry);
+        for (int cellNum : localWordCols) {
+            String cell = getCell(cells, cellNum);
 
             if (newWord.getLocalWord().trim().equals("")) {
-                newWord.setLocalWord(row.getCell(cellNum) != null ? row.getCell(cellNum).toString() : "");
-            } else if (row.getCell(cellNum) != null) {
-                newWord.setLocalWord(newWord.getLocalWord() + ", " + row.getCell(cellNum).toString());
+                newWord.setLocalWord(cell != null ? cell : "");
+            } else if (cell != null) {
+                newWord.setLocalWord(newWord.getLocalWord() + ", " + cell);
             }
         }
 
         // add pronunciation
-        columnList = Arrays.asList(iPronunciation.split(","));
-        for (String entry : columnList) {
-            if (entry == null || entry.equals("")) {
-                continue;
-            }
-
-            Integer cellNum = cellNumCheckGet(entry);
+        for (int cellNum : pronunciationCols) {
+            String cell = getCell(cells, cellNum);
 
             if (newWord.getPronunciation().trim().equals("")) {
-                newWord.setPronunciation(row.getCell(cellNum) != null ? row.getCell(cellNum).toString() : "");
-            } else if (row.getCell(cellNum) != null) {
-                newWord.setPronunciation(newWord.getPronunciation() + ", " + row.getCell(cellNum).toString());
+                newWord.setPronunciation(cell != null ? cell : "");
+            } else if (cell != null) {
+                newWord.setPronunciation(newWord.getPronunciation() + ", " + cell);
             }
         }
 
         // add type
-        columnList = Arrays.asList(iType.split(","));
-        for (String entry : columnList) {
-            if (entry == null || entry.equals("")) {
-                continue;
-            }
-
-            Integer cellNum = cellNumCheckGet(entry);
+        for (int cellNum : typeCols) {
+            String cell = getCell(cells, cellNum);
 
             if (newWord.getWordTypeId() == 0) {
-                newWord.setWordTypeId(core.getTypes().findOrCreate(row.getCell(cellNum) != null ? row.getCell(cellNum).toString() : "").getId());
-            } else if (row.getCell(cellNum) != null) {
-                newWord.setWordTypeId(core.getTypes().findOrCreate(newWord.getWordTypeDisplay() + ", " + row.getCell(cellNum).toString()).getId());
+                newWord.setWordTypeId(core.getTypes().findOrCreate(cell != null ? cell : "").getId());
+            } else if (cell != null) {
+                newWord.setWordTypeId(core.getTypes().findOrCreate(newWord.getWordTypeDisplay() + ", " + cell).getId());
             }
         }
 
@@ -494,6 +518,89 @@ public class ImportFileHelper {
         core.getWordCollection().addWord(newWord);
     }
 
+    private static String getCell(List<String> cells, int cellNum) {
+        return cellNum >= 0 && cellNum < cells.size() ? cells.get(cellNum) : null;
+    }
+
+    /**
+     * Indexes existing classes by name, so that imported rows find their
+     * classes without searching the whole collection for each row
+     */
+    private void buildClassLookup() {
+        importClasses.clear();
+        importClassValues.clear();
+
+        for (WordProperty curProp : core.getWordPropertiesCollection().getAllWordProperties()) {
+            if (!importClasses.containsKey(curProp.getValue())) {
+                importClasses.put(curProp.getValue(), curProp);
+            }
+        }
+    }
+
+    /**
+     * Gets class that values of given column import into, creating it if it
+     * does not yet exist
+     *
+     * @param cellNum column imported from
+     * @param newWord word being imported
+     * @return class for column
+     * @throws Exception if class cannot be created
+     */
+    private WordProperty getImportClass(Integer cellNum, ConWord newWord) throws Exception {
+        String className = "CLASS" + cellNum.toString(); // guarantee unique name for user to rename later (based on column)
+        WordProperty ret = importClasses.get(className);
+
+        // create class if doesn't yet exist
+        if (ret == null) {
+            ret = new WordProperty();
+            ret.setValue(className);
+            int propId = core.getWordPropertiesCollection().addNode(ret);
+            try {
+                ret = (WordProperty) core.getWordPropertiesCollection().getNodeById(propId);
+            } catch (Exception e) {
+                throw new Exception("Problem pulling word class for word: " + newWord.getValue());
+            }
+            importClasses.put(className, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets value of class with given text, creating it if it does not yet
+     * exist
+     *
+     * @param wordProp class to get value from
+     * @param value text of value
+     * @return class value
+     * @throws Exception if value cannot be created
+     */
+    private WordPropValueNode getImportClassValue(WordProperty wordProp, String value) throws Exception {
+        Map<String, WordPropValueNode> values = importClassValues.get(wordProp.getId());
+
+        if (values == null) {
+            values = new HashMap<>();
+
+            for (WordPropValueNode curVal : wordProp.getValues()) {
+                if (!values.containsKey(curVal.getValue())) {
+                    values.put(curVal.getValue(), curVal);
+                }
+            }
+
+            importClassValues.put(wordProp.getId(), values);
+        }
+
+        WordPropValueNode ret = values.get(value);
+
+        // create class value if doesn't exist yet
+        if (ret == null) {
+            ret = wordProp.addValue(value);
+            values.put(value, ret);
+        }
+
+        return ret;
+    }
+
     /**
      * Gets int value of columns when addressed by letter names
      *
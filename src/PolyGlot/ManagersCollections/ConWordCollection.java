@@ -28,18 +28,25 @@ import PolyGlot.Nodes.DictNode;
 import PolyGlot.PGTUtil;
 import PolyGlot.Nodes.PronunciationNode;
 import PolyGlot.Nodes.TypeNode;
+import PolyGlot.ManagersCollections.WordSearchIndex.Field;
 import PolyGlot.RankedObject;
 import PolyGlot.WebInterface;
 import java.awt.Font;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  * @author draque
@@ -47,11 +54,22 @@ import org.w3c.dom.Element;
  */
 public class ConWordCollection extends DictionaryCollection {
 
+    private static final int FILTER_CHECK_INTERVAL = 256;
+    private static final int PROC_RECALC_CHUNK_SIZE = 512;
     private final String splitChar = ",";
     private final DictCore core;
     private final Map<String, Integer> allConWords;
     private final Map<String, Integer> allLocalWords;
-    private boolean orderByLocal = false;
+    private final WordSearchIndex searchIndex = new WordSearchIndex();
+    private final DeclensionFormIndex formIndex;
+    private int procIndexStamp = -1; // pronunciation state index was built against
+    private final SortedWordView conOrder = new SortedWordView(false);
+    private final SortedWordView localOrder = new SortedWordView(true);
+    private final WordStatistics wordStats;
+    private final WordLegalityIndex legalityIndex;
+    private boolean indexSuspended = false; // set while committing recalculated pronunciations
+    // guards nodeMap and procIndexStamp, as words are filtered off the Swing thread
+    private final Object wordLock = new Object();
 
     public ConWordCollection(DictCore _core) {
         bufferNode = new ConWord();
@@ -59,6 +77,9 @@ public class ConWordCollection extends DictionaryCollection {
         allConWords = new HashMap<>();
         allLocalWords = new HashMap<>();
         core = _core;
+        formIndex = new DeclensionFormIndex(_core);
+        wordStats = new WordStatistics(_core);
+        legalityIndex = new WordLegalityIndex(_core);
     }
 
     /**
@@ -79,9 +100,10 @@ public class ConWordCollection extends DictionaryCollection {
 
         ((ConWord) bufferNode).setParent(this);
         ((ConWord) bufferNode).setCore(core);
-        ret = super.insert(_id, bufferNode);
+        ret = insert(_id, bufferNode);
 
         balanceWordCounts(insWord, true);
+        indexWord((ConWord) bufferNode);
 
         bufferNode = new ConWord();
         ((ConWord) bufferNode).setCore(core);
@@ -90,17 +112,18 @@ public class ConWordCollection extends DictionaryCollection {
     }
 
     /**
-     * Gets all words that are illegal in some way
+     * Gets all words that are illegal in some way. Legality is cached, so
+     * only words which may have changed since last checked are tested.
      *
      * @return an iterator full of all illegal conwords
      */
     public Iterator<ConWord> illegalFilter() {
         List<ConWord> retList = new ArrayList<>();
 
-        for (Object object : nodeMap.values()) {
-            ConWord curWord = (ConWord) object;
+        for (Integer wordId : legalityIndex.getIllegalWords()) {
+            ConWord curWord = (ConWord) nodeMap.get(wordId);
 
-            if (!curWord.isWordLegal()) {
+            if (curWord != null) {
                 retList.add(curWord);
             }
         }
@@ -109,6 +132,46 @@ public class ConWordCollection extends DictionaryCollection {
         return retList.iterator();
     }
 
+    /**
+     * Tests whether word is legal, using cached result for words held by this
+     * collection
+     *
+     * @param word word to test
+     * @return true if legal
+     */
+    public boolean isWordLegal(ConWord word) {
+        if (nodeMap.get(word.getId()) == word) {
+            return legalityIndex.isLegal(word.getId());
+        }
+
+        return computeWordLegal(word);
+    }
+
+    /**
+     * Marks word for legality recheck after its declensions have changed
+     *
+     * @param wordId ID of word
+     */
+    public void wordDeclensionsChanged(int wordId) {
+        legalityIndex.invalidateWord(wordId);
+    }
+
+    /**
+     * Tests legality of word without consulting the cache
+     *
+     * @param word word to test
+     * @return true if legal
+     */
+    boolean computeWordLegal(ConWord word) {
+        ConWord checkValue = testWordLegality(word);
+
+        return checkValue.getValue().equals("")
+                && checkValue.getDefinition().equals("")
+                && checkValue.getLocalWord().equals("")
+                && checkValue.getPronunciation().equals("")
+                && checkValue.typeError.equals("");
+    }
+
     /**
      * Checks whether word is legal and returns error reason if not
      *
@@ -147,9 +210,9 @@ public class ConWordCollection extends DictionaryCollection {
                 + core.getDeclensionManager().declensionRequirementsMet(word, wordType));
 
         if (wordType != null) {
-            String typeRegex = wordType.getPattern();
+            Pattern typePattern = wordType.getCompiledPattern();
 
-            if (!typeRegex.equals("") && !word.getValue().matches(typeRegex)) {
+            if (typePattern != null && !typePattern.matcher(word.getValue()).matches()) {
                 ret.setDefinition(ret.getDefinition() + (ret.getDefinition().equals("") ? "" : "\n")
                         + "Word does not match enforced pattern for type: " + word.getWordTypeDisplay() + ".");
                 ret.setProcOverride(true);
@@ -174,6 +237,7 @@ public class ConWordCollection extends DictionaryCollection {
         ret = super.insert(bufferNode);
 
         balanceWordCounts((ConWord) bufferNode, true);
+        indexWord((ConWord) bufferNode);
 
         bufferNode = new ConWord();
         ((ConWord) bufferNode).setCore(core);
@@ -291,7 +355,16 @@ public class ConWordCollection extends DictionaryCollection {
         ConWord deleteWord = this.getNodeById(_id);
 
         balanceWordCounts(deleteWord, false);
-        super.deleteNodeById(_id);
+        synchronized (wordLock) {
+            super.deleteNodeById(_id);
+        }
+        searchIndex.remove(_id);
+        formIndex.removeWord(_id);
+        wordStats.remove(_id);
+        legalityIndex.removeWord(_id);
+        conOrder.remove(_id);
+        localOrder.remove(_id);
+        core.getLogoCollection().wordDeleted(_id);
         core.getDeclensionManager().clearAllDeclensionsWord(_id);
     }
 
@@ -302,8 +375,97 @@ public class ConWordCollection extends DictionaryCollection {
         balanceWordCounts(oldWord, false);
         balanceWordCounts((ConWord) _modNode, true);
         ((ConWord) _modNode).setCore(core);
+        ((ConWord) _modNode).setParent(this);
+
+        synchronized (wordLock) {
+            super.modifyNode(_id, _modNode);
+        }
+        indexWord((ConWord) _modNode);
+    }
+
+    /**
+     * Updates search index values for a word after its values have changed.
+     * Ignores words not held by this collection (buffers, copies, etc.)
+     *
+     * @param word word to reindex
+     */
+    public void updateWordIndex(ConWord word) {
+        if (!indexSuspended && nodeMap.get(word.getId()) == word) {
+            indexWord(word);
+        }
+    }
+
+    /**
+     * Writes all searchable values of a word to the search index.
+     * Pronunciations are only kept current once the pronunciation index has
+     * been built (it is built lazily on first search by pronunciation)
+     *
+     * @param word word to index
+     */
+    private void indexWord(ConWord word) {
+        indexWordValues(word);
+        conOrder.update(word, alphaOrder);
+        localOrder.update(word, alphaOrder);
+    }
+
+    /**
+     * Writes searchable values of a word to the search and form indexes,
+     * leaving the sorted views untouched
+     *
+     * @param word word to index
+     */
+    private void indexWordValues(ConWord word) {
+        int wordId = word.getId();
+
+        searchIndex.setText(Field.VALUE, wordId, word.getValue());
+        searchIndex.setText(Field.LOCAL, wordId, word.getLocalWord());
+        searchIndex.setText(Field.DEFINITION, wordId,
+                FormattedTextHelper.getTextBody(word.getDefinition()));
+        searchIndex.setType(wordId, word.getWordTypeId());
+        formIndex.setWord(wordId, word.getWordTypeId(), word.getValue());
+        wordStats.setWord(word);
+        legalityIndex.setWord(word);
+        core.getLogoCollection().wordChanged(word);
+
+        synchronized (wordLock) {
+            if (procIndexStamp == getProcStamp()) {
+                searchIndex.setText(Field.PRONUNCIATION, wordId, word.getPronunciation());
+            }
+        }
+    }
+
+    /**
+     * Gets value representing all state generated pronunciations depend on
+     *
+     * @return current pronunciation stamp
+     */
+    private int getProcStamp() {
+        PropertiesManager propMan = core.getPropertiesManager();
+
+        return core.getPronunciationMgr().getRevision() * 4
+                + (propMan.isIgnoreCase() ? 1 : 0)
+                + (propMan.isDisableProcRegex() ? 2 : 0);
+    }
+
+    /**
+     * Rebuilds pronunciation index if generated pronunciations might have
+     * changed since last built
+     */
+    private void refreshProcIndex() {
+        synchronized (wordLock) {
+            int curStamp = getProcStamp();
 
-        super.modifyNode(_id, _modNode);
+            if (curStamp != procIndexStamp) {
+                searchIndex.clearField(Field.PRONUNCIATION);
+
+                for (Object curNode : nodeMap.values()) {
+                    ConWord curWord = (ConWord) curNode;
+                    searchIndex.setText(Field.PRONUNCIATION, curWord.getId(), curWord.getPronunciation());
+                }
+
+                procIndexStamp = curStamp;
+            }
+        }
     }
 
     /**
@@ -319,7 +481,10 @@ public class ConWordCollection extends DictionaryCollection {
     protected Integer insert(Integer _id, DictNode _buffer) throws Exception {
         ((ConWord) _buffer).setCore(core);
         ((ConWord) _buffer).setParent(this);
-        return super.insert(_id, _buffer);
+
+        synchronized (wordLock) {
+            return super.insert(_id, _buffer);
+        }
     }
 
     /**
@@ -328,13 +493,195 @@ public class ConWordCollection extends DictionaryCollection {
      * @throws java.lang.Exception
      */
     public void recalcAllProcs() throws Exception {
-        List<ConWord> words = this.getWordNodes();
+        recalcAllProcs(null);
+    }
 
-        for (ConWord curWord : words) {
+    /**
+     * Recalculates all non-overridden pronunciations. Pronunciations are
+     * generated in parallel against a single compiled copy of the rules, then
+     * written back to the words in one pass once all are done. Words the
+     * rules cannot pronounce keep their stored pronunciation. If cancelled,
+     * no word is modified.
+     *
+     * @param listener receives progress and may cancel (may be null)
+     * @return false if cancelled, true otherwise
+     * @throws java.lang.Exception
+     */
+    public boolean recalcAllProcs(RecalcListener listener) throws Exception {
+        ProcRecalc recalc = prepareProcRecalc();
+
+        if (!recalc.generate(listener)) {
+            return false;
+        }
+
+        commitProcs(recalc);
+
+        return true;
+    }
+
+    /**
+     * Takes note of all non-overridden words and the current pronunciation
+     * rules, to generate pronunciations for with ProcRecalc.generate(). Only
+     * generation may be run off the Swing thread: the result must be written
+     * back with commitProcs().
+     *
+     * @return pronunciations to generate
+     */
+    public ProcRecalc prepareProcRecalc() {
+        List<ConWord> words = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+
+        for (ConWord curWord : this.getWordNodes()) {
             // only runs if word's pronunciation not overridden
             if (!curWord.isProcOverride()) {
-                curWord.setPronunciation(core.getPronunciationMgr().getPronunciation(curWord.getValue()));
-                this.modifyNode(curWord.getId(), curWord);
+                words.add(curWord);
+                values.add(curWord.getValue());
+            }
+        }
+
+        return new ProcRecalc(words, values, core.getPronunciationMgr().getEngine());
+    }
+
+    /**
+     * Writes generated pronunciations to their words in one pass. Words are
+     * not reindexed one by one: only pronunciations are indexed, once all are
+     * written. Words deleted, changed or overridden since generation are left
+     * alone, as are words the rules could not pronounce, so that imported or
+     * hand entered pronunciations are never blanked.
+     *
+     * @param recalc generated pronunciations
+     */
+    public void commitProcs(ProcRecalc recalc) {
+        synchronized (wordLock) {
+            boolean indexProcs = procIndexStamp == getProcStamp();
+            indexSuspended = true;
+
+            try {
+                for (int i = 0; i < recalc.words.size(); i++) {
+                    ConWord curWord = recalc.words.get(i);
+
+                    if (nodeMap.get(curWord.getId()) != curWord
+                            || curWord.isProcOverride()
+                            || !curWord.getValue().equals(recalc.values.get(i))
+                            || recalc.results[i].isEmpty()) {
+                        continue;
+                    }
+
+                    curWord.setPronunciation(recalc.results[i]);
+
+                    if (indexProcs) {
+                        searchIndex.setText(Field.PRONUNCIATION, curWord.getId(), recalc.results[i]);
+                    }
+                }
+            } finally {
+                indexSuspended = false;
+            }
+        }
+    }
+
+    /**
+     * Pronunciations of a set of words, generated in parallel and not yet
+     * written to the words
+     */
+    public static class ProcRecalc {
+
+        private final List<ConWord> words;
+        private final List<String> values;
+        private final PronunciationEngine engine;
+        private final String[] results;
+
+        private ProcRecalc(List<ConWord> _words, List<String> _values, PronunciationEngine _engine) {
+            words = _words;
+            values = _values;
+            engine = _engine;
+            results = new String[_values.size()];
+        }
+
+        /**
+         * Generates all pronunciations across the common fork/join pool
+         *
+         * @param listener receives progress and may cancel (may be null)
+         * @return false if cancelled, true otherwise
+         */
+        public boolean generate(RecalcListener listener) {
+            ForkJoinPool.commonPool().invoke(new ProcRecalcTask(values, engine,
+                    listener, results, new AtomicInteger(), 0, results.length));
+
+            return listener == null || !listener.isCancelled();
+        }
+
+        /**
+         * @return number of pronunciations to generate
+         */
+        public int size() {
+            return results.length;
+        }
+    }
+
+    /**
+     * Receives progress of pronunciation generation, and may cancel it. Both methods are called from pool threads.
+     */
+    public interface RecalcListener {
+
+        /**
+         * @param done number of pronunciations generated so far
+         * @param total number of pronunciations to generate
+         */
+        void progress(int done, int total);
+
+        /**
+         * @return true if recalculation should stop
+         */
+        boolean isCancelled();
+    }
+
+    /**
+     * Generates pronunciations for a range of words, splitting ranges larger
+     * than PROC_RECALC_CHUNK_SIZE in two
+     */
+    private static class ProcRecalcTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final List<String> values;
+        private final PronunciationEngine engine;
+        private final RecalcListener listener;
+        private final String[] results;
+        private final AtomicInteger done;
+        private final int start;
+        private final int end;
+
+        ProcRecalcTask(List<String> _values, PronunciationEngine _engine,
+                RecalcListener _listener, String[] _results, AtomicInteger _done,
+                int _start, int _end) {
+            values = _values;
+            engine = _engine;
+            listener = _listener;
+            results = _results;
+            done = _done;
+            start = _start;
+            end = _end;
+        }
+
+        @Override
+        protected void compute() {
+            if (listener != null && listener.isCancelled()) {
+                return;
+            }
+
+            if (end - start > PROC_RECALC_CHUNK_SIZE) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new ProcRecalcTask(values, engine, listener, results, done, start, mid),
+                        new ProcRecalcTask(values, engine, listener, results, done, mid, end));
+            } else {
+                for (int i = start; i < end; i++) {
+                    results[i] = engine.getPronunciation(values.get(i));
+                }
+
+                int total = done.addAndGet(end - start);
+
+                if (listener != null) {
+                    listener.progress(total, results.length);
+                }
             }
         }
     }
@@ -412,20 +759,17 @@ public class ConWordCollection extends DictionaryCollection {
      * words, based on attributes set on the parameter. Returns iterator of all
      * words that match. As a note: the conword value of the filter parameter is
      * matched not only against the values of all conwords in the dictionary,
-     * but also their conjugations/declensions
+     * but also their conjugations/declensions. Filtering stops early if the
+     * calling thread is interrupted.
      *
      * @param _filter A conword object containing filter values
      * @return an list of conwords which match the given search
+     * @throws InterruptedException if interrupted while filtering
      * @throws Exception on filtering error
      */
     public List<ConWord> filteredList(ConWord _filter) throws Exception {
-        ConWordCollection retValues = new ConWordCollection(core);
-        retValues.setAlphaOrder(alphaOrder);
+        List<ConWord> retValues = new ArrayList<>();
 
-        Iterator<Entry<Integer, ConWord>> filterList = nodeMap.entrySet()
-                .iterator();
-        Entry<Integer, ConWord> curEntry;
-        ConWord curWord;
         // definition search should always ignore case
         _filter.setDefinition(_filter.getDefinition().toLowerCase());
 
@@ -437,145 +781,311 @@ public class ConWordCollection extends DictionaryCollection {
             _filter.setPronunciation(_filter.getPronunciation().toLowerCase());
         }
 
-        while (filterList.hasNext()) {
-            curEntry = filterList.next();
-            curWord = curEntry.getValue();
+        // words matching by generated declension, looked up once for all words
+        BitSet formMatches = new BitSet();
+        if (!_filter.getValue().trim().isEmpty()) {
             try {
-                // definition should always ignore case
-                String definition = FormattedTextHelper.getTextBody(curWord.getDefinition()).toLowerCase();
-                int type = curWord.getWordTypeId();
-                String local;
-                String proc;
-
-                // if set to ignore case, set up caseless matches, normal otherwise
-                if (core.getPropertiesManager().isIgnoreCase()) {                    
-                    local = curWord.getLocalWord().toLowerCase();
-                    proc = curWord.getPronunciation().toLowerCase();
-                } else {
-                    local = curWord.getLocalWord();
-                    proc = curWord.getPronunciation();
-                }
+                formMatches = getDeclensionMatches(_filter.getValue());
+            } catch (Exception e) {
+                throw new Exception("FILTERING ERROR: " + e.getMessage());
+            }
+        }
 
-                // each filter test split up to minimize compares                
-                // definition
+        checkInterrupted();
 
-                if (!_filter.getDefinition().trim().isEmpty()) {
-                    boolean cont = true;
+        List<ConWord> checkWords = new ArrayList<>();
 
-                    for (String def1 : _filter.getDefinition().split(splitChar)) {
-                        if (definition.contains(def1)) {
-                            cont = false;
-                            break;
-                        }
-                    }
+        // words may be edited on the Swing thread while filtering
+        synchronized (wordLock) {
+            BitSet candidates = getFilterCandidates(_filter, formMatches);
 
-                    if (cont) {
-                        continue;
+            if (candidates == null) {
+                checkWords.addAll(getAllWords());
+            } else {
+                for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                    ConWord curWord = (ConWord) nodeMap.get(i);
+
+                    if (curWord != null) {
+                        checkWords.add(curWord);
                     }
                 }
+            }
+        }
+
+        for (int i = 0; i < checkWords.size(); i++) {
+            ConWord curWord = checkWords.get(i);
 
-                // type (exact match only)
-                if (_filter.getWordTypeId() != 0
-                        && type != _filter.getWordTypeId()) {
-                    continue;
+            if (i % FILTER_CHECK_INTERVAL == 0) {
+                checkInterrupted();
+            }
+
+            try {
+                if (matchesFilter(curWord, _filter, formMatches)) {
+                    retValues.add(curWord);
                 }
+            } catch (Exception e) {
+                throw new Exception("FILTERING ERROR: " + e.getMessage());
+            }
+        }
 
-                // local word
-                if (!_filter.getLocalWord().trim().isEmpty()) {
-                    boolean cont = true;
+        checkInterrupted();
 
-                    for (String loc1 : _filter.getLocalWord().split(splitChar)) {
-                        if (local.contains(loc1)) {
-                            cont = false;
-                            break;
-                        }
-                    }
-                    if (cont) {
-                        continue;
-                    }
+        return SortedWordView.sortByValue(retValues, alphaOrder);
+    }
+
+    /**
+     * Allows long running searches to be cancelled by interrupting them
+     *
+     * @throws InterruptedException if current thread has been interrupted
+     * (clearing its interrupted status)
+     */
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Filtering cancelled.");
+        }
+    }
+
+    /**
+     * Uses the search index to narrow down words which might match a filter.
+     * Every word which matches is guaranteed to be among the candidates, but
+     * candidates must still be checked individually.
+     *
+     * @param _filter filter to find candidates for (case already applied)
+     * @param formMatches words with generated forms matching the filter value
+     * @return bitmap of candidate word IDs, null if all words are candidates
+     */
+    private BitSet getFilterCandidates(ConWord _filter, BitSet formMatches) {
+        BitSet ret = null;
+
+        if (!_filter.getDefinition().trim().isEmpty()) {
+            ret = WordSearchIndex.intersect(ret, getFieldCandidates(Field.DEFINITION, _filter.getDefinition()));
+        }
+
+        if (_filter.getWordTypeId() != 0) {
+            ret = WordSearchIndex.intersect(ret, searchIndex.getTypeWords(_filter.getWordTypeId()));
+        }
+
+        if (!_filter.getLocalWord().trim().isEmpty()) {
+            ret = WordSearchIndex.intersect(ret, getFieldCandidates(Field.LOCAL, _filter.getLocalWord()));
+        }
+
+        if (!_filter.getPronunciation().trim().isEmpty()) {
+            refreshProcIndex();
+            ret = WordSearchIndex.intersect(ret, getFieldCandidates(Field.PRONUNCIATION, _filter.getPronunciation()));
+        }
+
+        if (!_filter.getValue().trim().isEmpty()) {
+            ret = WordSearchIndex.intersect(ret, getValueCandidates(_filter.getValue(), formMatches));
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets candidates for a "contains" search on a field, where any of the
+     * comma delimited values may match
+     *
+     * @param field field to search
+     * @param filterText raw text of filter
+     * @return candidate words, null if unrestricted
+     */
+    private BitSet getFieldCandidates(Field field, String filterText) {
+        BitSet ret = new BitSet();
+
+        for (String curFilter : filterText.split(splitChar)) {
+            ret = WordSearchIndex.union(ret, searchIndex.getCandidates(field, curFilter));
+
+            if (ret == null) {
+                break;
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets candidates for a search on conword values. Headword regex searches
+     * cannot be narrowed. Words whose generated declensions match are always
+     * candidates.
+     *
+     * @param filterText raw text of filter
+     * @param formMatches words with generated forms matching the filter
+     * @return candidate words, null if unrestricted
+     */
+    private BitSet getValueCandidates(String filterText, BitSet formMatches) {
+        BitSet ret = new BitSet();
+
+        for (String curFilter : filterText.split(splitChar)) {
+            if (curFilter.trim().isEmpty() || !isLiteralSearch(curFilter)) {
+                return null;
+            }
+
+            ret.or(searchIndex.getCandidates(Field.VALUE, curFilter));
+        }
+
+        ret.or(formMatches);
+
+        return ret;
+    }
+
+    /**
+     * Gets all words with an automatically generated declension/conjugation
+     * which matches any of the comma delimited values given (by regex or by
+     * starting with the value)
+     *
+     * @param filterText raw text of filter
+     * @return IDs of words with matching forms
+     */
+    private BitSet getDeclensionMatches(String filterText) {
+        BitSet ret = new BitSet();
+
+        formIndex.refresh();
+
+        for (String curFilter : filterText.split(splitChar)) {
+            if (!curFilter.trim().isEmpty()) {
+                ret.or(formIndex.getMatchingWords(curFilter, isLiteralSearch(curFilter)));
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Tests whether search text contains no regex special characters, meaning
+     * a regex match is equivalent to plain string equality
+     *
+     * @param search text to test
+     * @return true if literal
+     */
+    private static boolean isLiteralSearch(String search) {
+        for (char c : search.toCharArray()) {
+            if ("\\^$.|?*+()[]{}".indexOf(c) != -1) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Tests whether a single word passes all values of a filter
+     *
+     * @param curWord word to test
+     * @param _filter filter to test against (case already applied)
+     * @param formMatches words with generated forms matching the filter value
+     * @return true if word passes filter
+     */
+    private boolean matchesFilter(ConWord curWord, ConWord _filter, BitSet formMatches) {
+        // definition should always ignore case
+        String definition = searchIndex.getText(Field.DEFINITION, curWord.getId());
+        int type = curWord.getWordTypeId();
+        String local;
+        String proc;
+
+        if (definition == null) {
+            definition = FormattedTextHelper.getTextBody(curWord.getDefinition()).toLowerCase();
+        }
+
+        // if set to ignore case, set up caseless matches, normal otherwise
+        if (core.getPropertiesManager().isIgnoreCase()) {
+            local = curWord.getLocalWord().toLowerCase();
+            proc = curWord.getPronunciation().toLowerCase();
+        } else {
+            local = curWord.getLocalWord();
+            proc = curWord.getPronunciation();
+        }
+
+        // each filter test split up to minimize compares
+        // definition
+        if (!_filter.getDefinition().trim().isEmpty()) {
+            boolean cont = true;
+
+            for (String def1 : _filter.getDefinition().split(splitChar)) {
+                if (definition.contains(def1)) {
+                    cont = false;
+                    break;
                 }
+            }
 
-                // con word
-                if (!_filter.getValue().trim().isEmpty())
-                {
-                    boolean cont = true;
-                    
-                    for (String val1 : _filter.getValue().split(splitChar)) {
-                        if (matchHeadAndDeclensions(val1, curWord)) {
-                            cont = false;
-                            break;
-                        }
-                    }
-                    
-                    if (cont) {
-                        continue;
-                    }
+            if (cont) {
+                return false;
+            }
+        }
+
+        // type (exact match only)
+        if (_filter.getWordTypeId() != 0
+                && type != _filter.getWordTypeId()) {
+            return false;
+        }
+
+        // local word
+        if (!_filter.getLocalWord().trim().isEmpty()) {
+            boolean cont = true;
+
+            for (String loc1 : _filter.getLocalWord().split(splitChar)) {
+                if (local.contains(loc1)) {
+                    cont = false;
+                    break;
                 }
+            }
 
-                // pronunciation
-                if (!_filter.getPronunciation().trim().isEmpty()) {
-                    boolean cont = true;
+            if (cont) {
+                return false;
+            }
+        }
 
-                    for (String proc1 : _filter.getPronunciation().split(splitChar)) {
-                        if (proc.contains(proc1)) {
-                            cont = false;
-                        }
-                    }
+        // con word
+        if (!_filter.getValue().trim().isEmpty()
+                && !formMatches.get(curWord.getId())) {
+            boolean cont = true;
 
-                    if (cont) {
-                        continue;
-                    }
+            for (String val1 : _filter.getValue().split(splitChar)) {
+                if (matchHead(val1, curWord)) {
+                    cont = false;
+                    break;
                 }
+            }
 
-                retValues.setBufferWord(curWord);
-                retValues.insert(curWord.getId());
-            } catch (Exception e) {
-                throw new Exception("FILTERING ERROR: " + e.getMessage());
+            if (cont) {
+                return false;
             }
         }
 
-        return retValues.getWordNodes();
+        // pronunciation
+        if (!_filter.getPronunciation().trim().isEmpty()) {
+            boolean cont = true;
+
+            for (String proc1 : _filter.getPronunciation().split(splitChar)) {
+                if (proc.contains(proc1)) {
+                    cont = false;
+                    break;
+                }
+            }
+
+            if (cont) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     /**
-     * Tests whether matchText matches the headword of the passed word, or any
-     * declensions/conjugations of the word.
+     * Tests whether matchText matches the headword of the passed word.
+     * Declensions/conjugations are matched through the declension form index.
      *
      * @param matchText Text to match.
      * @param word Word within which to search for matches
      * @return true if match, false otherwise
      */
-    private boolean matchHeadAndDeclensions(String matchText, ConWord word) {
-        boolean ret = false;
+    private boolean matchHead(String matchText, ConWord word) {
         boolean ignoreCase = core.getPropertiesManager().isIgnoreCase();
 
         String head = ignoreCase ? word.getValue().toLowerCase() : word.getValue();
 
-        if (matchText.trim().isEmpty()
+        return matchText.trim().isEmpty()
                 || head.matches(matchText)
-                || head.startsWith(matchText)) {
-            ret = true;
-        }
-        TypeNode type = core.getTypes().getNodeById(word.getWordTypeId());
-
-        if (type != null && !ret) {
-            int typeId = type.getId();
-            Iterator<DeclensionPair> decIt = core.getDeclensionManager().getAllCombinedIds(typeId).iterator();
-
-            while (!ret && decIt.hasNext()) {
-                DeclensionPair curPair = decIt.next();
-                String declension = core.getDeclensionManager()
-                        .declineWord(typeId, curPair.combinedId, word.getValue());
-
-                if (!declension.trim().isEmpty()
-                        && (declension.matches(matchText)
-                        || declension.startsWith(matchText))) {
-                    ret = true;
-                }
-            }
-        }
-
-        return ret;
+                || head.startsWith(matchText);
     }
 
     @Override
@@ -605,64 +1115,70 @@ public class ConWordCollection extends DictionaryCollection {
     }
 
     /**
-     * returns iterator of nodes with their IDs as the entry key (ordered)
+     * returns all words in alphabetical order
      *
-     * @return
+     * @return new list of words, which the caller may modify freely
      */
     public List<ConWord> getWordNodes() {
-        List<ConWord> retList = new ArrayList<>(nodeMap.values());
-
-        Collections.sort(retList);
+        return getWordNodes(0, Integer.MAX_VALUE);
+    }
 
-        return retList;
+    /**
+     * returns a page of words in alphabetical order
+     *
+     * @param start index of first word in order to return
+     * @param count maximum number of words to return
+     * @return words in range (fewer than count if range runs past end)
+     */
+    public List<ConWord> getWordNodes(int start, int count) {
+        synchronized (wordLock) {
+            return conOrder.getRange(getAllWords(), alphaOrder, start, count);
+        }
     }
 
     /**
      * gets and returns iterator of all words based on alphabetical order of
-     * localwords on the entries. Respects default alpha order.
+     * localwords on the entries. Words with multiple comma separated local
+     * values are returned once per value, as copies bearing only that value.
      *
      * @return
      */
     public Iterator<ConWord> getNodeIteratorLocalOrder() {
-        List<ConWord> cycleList = new ArrayList<>(nodeMap.values());
-        List<ConWord> retList = new ArrayList<>();
+        return getLocalOrderNodes(0, Integer.MAX_VALUE).iterator();
+    }
 
-        // cycle through and create copies of words with multiple local values
-        for(ConWord curWord : cycleList) {
-            String localPre = curWord.getLocalWord();
-            if (localPre.contains(",")) {
-                String[] allLocals = localPre.split(",");
-                
-                // create new temp word for purposes of dictionary creation
-                for (String curLocal : allLocals) {
-                    ConWord ins = new ConWord();
-                    ins.setCore(core);
-                    ins.setEqual(curWord);
-                    ins.setLocalWord(curLocal);
-                    ins.setParent(this);
-                    
-                    retList.add(ins);
-                }
-            } else {
-                retList.add(curWord);
-            }
+    /**
+     * returns a page of words in local word order (see
+     * getNodeIteratorLocalOrder)
+     *
+     * @param start index of first entry in order to return
+     * @param count maximum number of entries to return
+     * @return entries in range (fewer than count if range runs past end)
+     */
+    public List<ConWord> getLocalOrderNodes(int start, int count) {
+        synchronized (wordLock) {
+            return localOrder.getRange(getAllWords(), alphaOrder, start, count);
         }
-        
-        orderByLocal = true;
-        Collections.sort(retList);
-        orderByLocal = false;
-
-        return retList.iterator();
     }
 
     /**
-     * Used to determine if lists should currently return in local order (this
-     * is almost never used for anything but sorting. There is no setter.)
+     * Gets number of entries in local word order, counting words with
+     * multiple local values once per value
      *
-     * @return whether to sort by local value
+     * @return number of entries
      */
-    public boolean isLocalOrder() {
-        return orderByLocal;
+    public int getLocalOrderCount() {
+        synchronized (wordLock) {
+            return localOrder.size(getAllWords(), alphaOrder);
+        }
+    }
+
+    /**
+     * @return live view of all words (the node map only ever holds words)
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<ConWord> getAllWords() {
+        return (Collection<ConWord>) nodeMap.values();
     }
 
     /**
@@ -682,249 +1198,153 @@ public class ConWordCollection extends DictionaryCollection {
     }
 
     /**
-     * Builds report on words in ConLang. Potentially computationally expensive.
+     * Inserts many words at once, assigning each a new ID. Words are inserted
+     * as given rather than copied through the buffer, and the sorted views
+     * are rebuilt once on next read instead of being updated per word.
      *
-     * @return
+     * @param words words to insert, in the order IDs should be assigned
+     * @throws Exception if any word cannot be inserted
      */
-    public String buildWordReport() {
-        String ret = "";
-
-        Map<String, Integer> wordStart = new HashMap<>();
-        Map<String, Integer> wordEnd = new HashMap<>();
-        Map<String, Integer> characterCombos2 = new HashMap<>();
-        Integer highestCombo2 = 0;
-        Map<String, Integer> characterCombos3 = new HashMap<>();
-        Map<Integer, Integer> typeCountByWord = new HashMap<>();
-        Map<String, Integer> phonemeCount = new HashMap<>();
-        Map<String, Integer> charCount = new HashMap<>();
-        Map<String, Integer> phonemeCombo2 = new HashMap<>();
-        Integer wordCount = nodeMap.size();
-        String allChars = core.getPropertiesManager().getAlphaPlainText();
-
-        Iterator<ConWord> wordIt = new ArrayList<>(nodeMap.values()).iterator();
-
-        // Put values into maps to count/record... 
-        while (wordIt.hasNext()) {
-            ConWord curWord = wordIt.next();
-            final String curValue = curWord.getValue();
-            final int curValueLength = curValue.length();
-            final int curType = curWord.getWordTypeId();
-
-            // make sure we have all the characters in the word (fi they forgot to populate one in their alpha order(
-            for (char c : curValue.toCharArray()) {
-                if (!allChars.contains(String.valueOf(c))) {
-                    allChars += c;
-                }
-            }
-
-            String beginsWith = curValue.substring(0, 1);
-            String endsWith = curValue.substring(curValueLength - 1, curValueLength);
-
-            // either increment or create value for starting character
-            if (wordStart.containsKey(beginsWith)) {
-                int newValue = wordStart.get(beginsWith) + 1;
-                wordStart.remove(beginsWith);
-                wordStart.put(beginsWith, newValue);
-            } else {
-                wordStart.put(beginsWith, 1);
-            }
-
-            // either increment or create value for ending character
-            if (wordEnd.containsKey(endsWith)) {
-                int newValue = wordEnd.get(endsWith) + 1;
-                wordEnd.remove(endsWith);
-                wordEnd.put(endsWith, newValue);
-            } else {
-                wordEnd.put(endsWith, 1);
-            }
-
-            // capture and record all phonemes in word and phoneme combinations
-            List<PronunciationNode> phonArray = core.getPronunciationMgr()
-                    .getPronunciationElements(curValue);
-
-            for (int i = 0; i < phonArray.size(); i++) {
-                if (phonemeCount.containsKey(phonArray.get(i).getPronunciation())) {
-                    int newValue = phonemeCount.get(phonArray.get(i).getPronunciation()) + 1;
-                    phonemeCount.remove(phonArray.get(i).getPronunciation());
-                    phonemeCount.put(phonArray.get(i).getPronunciation(), newValue);
-                } else {
-                    phonemeCount.put(phonArray.get(i).getPronunciation(), 1);
-                }
-
-                // grab combo if there are additinal phonemes, otherwise you're done
-                if (i + 1 < phonArray.size()) {
-                    String curCombo = phonArray.get(i).getPronunciation() + " "
-                            + phonArray.get(i + 1).getPronunciation();
-
-                    if (phonemeCombo2.containsKey(curCombo)) {
-                        int newValue = phonemeCombo2.get(curCombo) + 1;
-                        phonemeCombo2.remove(curCombo);
-                        phonemeCombo2.put(curCombo, newValue);
-                    } else {
-                        phonemeCombo2.put(curCombo, 1);
-                    }
-                }
-            }
-
-            // caupture all individual characters
-            for (int i = 0; i < curValueLength; i++) {
-                String curChar = curValue.substring(i, i + 1);
-
-                if (charCount.containsKey(curChar)) {
-                    int newValue = charCount.get(curChar) + 1;
-                    charCount.remove(curChar);
-                    charCount.put(curChar, newValue);
-                } else {
-                    charCount.put(curChar, 1);
-                }
-            }
-
-            // capture and record all 2 character combinations in words
-            for (int i = 0; i < curValueLength - 1; i++) {
-                String combo = curValue.substring(i, i + 2);
-
-                if (characterCombos2.containsKey(combo)) {
-                    int curComboCount = characterCombos2.get(combo);
+    public void insertAll(Collection<ConWord> words) throws Exception {
+        if (words.isEmpty()) {
+            return;
+        }
 
-                    if (highestCombo2 <= curComboCount) {
-                        highestCombo2 = curComboCount + 1;
-                    }
+        for (ConWord curWord : words) {
+            super.insert(curWord);
+            balanceWordCounts(curWord, true);
+            indexWordValues(curWord);
+        }
 
-                    int newValue = characterCombos2.get(combo) + 1;
-                    characterCombos2.remove(combo);
-                    characterCombos2.put(combo, newValue);
-                } else {
-                    characterCombos2.put(combo, 1);
-                }
-            }
+        conOrder.invalidate();
+        localOrder.invalidate();
+    }
 
-            // capture and record all 3 character combinations in words
-            for (int i = 0; i < curValueLength - 2; i++) {
-                String combo = curValue.substring(i, i + 3);
+    /**
+     * Builds report on words in ConLang from running statistics, so cost
+     * depends on the size of the alphabet and phoneme inventory rather than
+     * the lexicon.
+     *
+     * @return
+     */
+    public String buildWordReport() {
+        StringBuilder ret = new StringBuilder();
+        String alphaChars = core.getPropertiesManager().getAlphaPlainText();
+        StringBuilder allChars = new StringBuilder(alphaChars);
+        List<PronunciationNode> phonemes = core.getPronunciationMgr().getPronunciations();
 
-                if (characterCombos3.containsKey(combo)) {
-                    int newValue = characterCombos3.get(combo) + 1;
-                    characterCombos3.remove(combo);
-                    characterCombos3.put(combo, newValue);
-                } else {
-                    characterCombos3.put(combo, 1);
-                }
-            }
+        wordStats.refreshPhonemes(getProcStamp());
 
-            // record type count...
-            if (typeCountByWord.containsKey(curType)) {
-                int newValue = typeCountByWord.get(curType) + 1;
-                typeCountByWord.remove(curType);
-                typeCountByWord.put(curType, newValue);
-            } else {
-                typeCountByWord.put(curType, 1);
+        // make sure we have all the characters in words (if they forgot to populate one in their alpha order)
+        for (char c : wordStats.getCountedChars()) {
+            if (alphaChars.indexOf(c) == -1) {
+                allChars.append(c);
             }
         }
 
-        ret += formatPlain("Count of words in conlang lexicon: " + wordCount + "<br><br>");
+        // scale of heat maps, never below 1
+        int highestCombo2 = Math.max(1, wordStats.getHighestCharCombo2Count());
+
+        ret.append(formatPlain("Count of words in conlang lexicon: " + wordStats.getWordCount() + "<br><br>"));
 
         // build display of type counts
-        ret += formatPlain("count of words by type:<br>");
-        for (Entry<Integer, Integer> curEntry : typeCountByWord.entrySet()) {
-            TypeNode type = core.getTypes().getNodeById(curEntry.getKey());
+        ret.append(formatPlain("count of words by type:<br>"));
+        for (int typeId : wordStats.getCountedTypes()) {
+            TypeNode type = core.getTypes().getNodeById(typeId);
 
             if (type != null) {
-                ret += formatPlain(type.getValue() + " : " + curEntry.getValue() + "<br>");
+                ret.append(formatPlain(type.getValue() + " : " + wordStats.getTypeCount(typeId) + "<br>"));
             }
         }
-        ret += formatPlain("<br><br>");
+        ret.append(formatPlain("<br><br>"));
 
         // build display for starts-with statistics
-        ret += formatPlain(" Breakdown of words counted starting with letter:<br>");
-        for (char letter : allChars.toCharArray()) {
-            ret += letter + formatPlain(" : "
-                    + (wordStart.containsKey("" + letter) ? wordStart.get("" + letter) : formatPlain("0")) + "<br>");
+        ret.append(formatPlain(" Breakdown of words counted starting with letter:<br>"));
+        for (int i = 0; i < allChars.length(); i++) {
+            char letter = allChars.charAt(i);
+            appendLetterCount(ret, letter, wordStats.getStartCount(letter));
         }
-        ret += formatPlain("<br><br>");
+        ret.append(formatPlain("<br><br>"));
 
         // build display for ends-with statistics
-        ret += formatPlain(" Breakdown of words counted ending with letter:<br>");
-        for (char letter : allChars.toCharArray()) {
-            ret += letter + formatPlain(" : "
-                    + (wordEnd.containsKey("" + letter) ? wordEnd.get("" + letter) : formatPlain("0")) + "<br>");
+        ret.append(formatPlain(" Breakdown of words counted ending with letter:<br>"));
+        for (int i = 0; i < allChars.length(); i++) {
+            char letter = allChars.charAt(i);
+            appendLetterCount(ret, letter, wordStats.getEndCount(letter));
         }
-        ret += formatPlain("<br><br>");
+        ret.append(formatPlain("<br><br>"));
 
         // build display for character counts
-        ret += formatPlain(" Breakdown of characters counted across all words:<br>");
-        for (char letter : allChars.toCharArray()) {
-            ret += letter + formatPlain(" : "
-                    + (charCount.containsKey("" + letter) ? charCount.get("" + letter) : formatPlain("0")) + "<br>");
+        ret.append(formatPlain(" Breakdown of characters counted across all words:<br>"));
+        for (int i = 0; i < allChars.length(); i++) {
+            char letter = allChars.charAt(i);
+            appendLetterCount(ret, letter, wordStats.getCharCount(letter));
         }
-        ret += formatPlain("<br><br>");
+        ret.append(formatPlain("<br><br>"));
 
         // build display for phoneme count
-        ret += formatPlain(" Breakdown of phonemes counted across all words:<br>");
-        Iterator<PronunciationNode> procLoop = core.getPronunciationMgr().getPronunciations().iterator();
-        while (procLoop.hasNext()) {
-            PronunciationNode curNode = procLoop.next();
-            ret += formatPlain(curNode.getPronunciation() + " : "
-                    + (phonemeCount.containsKey(curNode.getPronunciation())
-                    ? phonemeCount.get(curNode.getPronunciation()) : formatPlain("0")) + "<br>");
+        ret.append(formatPlain(" Breakdown of phonemes counted across all words:<br>"));
+        for (PronunciationNode curNode : phonemes) {
+            int count = wordStats.getPhonemeCount(curNode.getPronunciation());
+            ret.append(formatPlain(curNode.getPronunciation() + " : "
+                    + (count != 0 ? count : formatPlain("0")) + "<br>"));
         }
-        ret += formatPlain("<br><br>");
+        ret.append(formatPlain("<br><br>"));
 
         // buid grid of 2 letter combos
-        ret += formatPlain("Heat map of letter combination frequency:<br>");
-        ret += "<table border=\"1\">";
-        ret += "<tr><td></td>";
-        for (char topRow : allChars.toCharArray()) {
-            ret += "<td>" + topRow + "</td>";
-        }
-        ret += "</tr>";
-        for (char y : core.getPropertiesManager().getAlphaPlainText().toCharArray()) {
-            ret += "<tr><td>" + y + "</td>";
-            for (char x : allChars.toCharArray()) {
-                String search = "" + x + y;
-                Integer comboValue = (characterCombos2.containsKey(search)
-                        ? characterCombos2.get(search) : 0);
-
-                Integer red = (255 / highestCombo2) * comboValue;
-                Integer blue = 255 - red;
-                ret += "<td bgcolor=rgb(" + red + "," + blue + "," + blue + ")>"
-                        + x + y + formatPlain(":"
-                                + comboValue.toString()) + "</td>";
+        ret.append(formatPlain("Heat map of letter combination frequency:<br>"));
+        ret.append("<table border=\"1\">");
+        ret.append("<tr><td></td>");
+        for (int i = 0; i < allChars.length(); i++) {
+            ret.append("<td>").append(allChars.charAt(i)).append("</td>");
+        }
+        ret.append("</tr>");
+        for (char y : alphaChars.toCharArray()) {
+            ret.append("<tr><td>").append(y).append("</td>");
+            for (int i = 0; i < allChars.length(); i++) {
+                char x = allChars.charAt(i);
+                int comboValue = wordStats.getCharCombo2Count(x, y);
+
+                appendHeatCell(ret, (255 / highestCombo2) * comboValue,
+                        "" + x + y + formatPlain(":" + comboValue));
             }
-            ret += "</tr>";
+            ret.append("</tr>");
         }
-        ret += "</table>" + formatPlain("<br><br>");
+        ret.append("</table>").append(formatPlain("<br><br>"));
 
         // buid grid of 2 phoneme combos
-        ret += formatPlain("Heat map of phoneme combination frequency:<br>");
-        ret += "<table border=\"1\">";
-        ret += "<tr>" + formatPlain("<td></td>");
-        Iterator<PronunciationNode> procIty = core.getPronunciationMgr().getPronunciations().iterator();
-        while (procIty.hasNext()) {
-            ret += "<td>" + formatPlain(formatPlain(procIty.next().getPronunciation())) + "</td>";
-        }
-        ret += "</tr>";
-        procIty = core.getPronunciationMgr().getPronunciations().iterator();
-        while (procIty.hasNext()) {
-            PronunciationNode y = procIty.next();
-            ret += "<tr><td>" + formatPlain(y.getPronunciation()) + "</td>";
-            Iterator<PronunciationNode> procItx = core.getPronunciationMgr().getPronunciations().iterator();
-            while (procItx.hasNext()) {
-                PronunciationNode x = procItx.next();
-                String search = x.getPronunciation() + " " + y.getPronunciation();
-                Integer comboValue = (phonemeCombo2.containsKey(search)
-                        ? phonemeCombo2.get(search) : 0);
-
-                Integer red = (255 / highestCombo2) * comboValue;
-                Integer blue = 255 - red;
-                ret += "<td bgcolor=rgb(" + red + "," + blue + "," + blue + ")>"
-                        + formatPlain(x.getPronunciation() + y.getPronunciation() + ":"
-                                + comboValue.toString()) + "</td>";
+        ret.append(formatPlain("Heat map of phoneme combination frequency:<br>"));
+        ret.append("<table border=\"1\">");
+        ret.append("<tr>").append(formatPlain("<td></td>"));
+        for (PronunciationNode curNode : phonemes) {
+            ret.append("<td>").append(formatPlain(formatPlain(curNode.getPronunciation()))).append("</td>");
+        }
+        ret.append("</tr>");
+        for (PronunciationNode y : phonemes) {
+            ret.append("<tr><td>").append(formatPlain(y.getPronunciation())).append("</td>");
+            for (PronunciationNode x : phonemes) {
+                int comboValue = wordStats.getPhonemeCombo2Count(x.getPronunciation(), y.getPronunciation());
+
+                appendHeatCell(ret, (255 / highestCombo2) * comboValue,
+                        formatPlain(x.getPronunciation() + y.getPronunciation() + ":" + comboValue));
             }
-            ret += "</tr>";
+            ret.append("</tr>");
         }
-        ret += "</table>";
+        ret.append("</table>");
 
-        return ret;
+        return ret.toString();
+    }
+
+    private static void appendLetterCount(StringBuilder report, char letter, int count) {
+        report.append(letter).append(formatPlain(" : "
+                + (count != 0 ? count : formatPlain("0")) + "<br>"));
+    }
+
+    private static void appendHeatCell(StringBuilder report, int red, String content) {
+        int blue = 255 - red;
+
+        report.append("<td bgcolor=rgb(").append(red).append(',').append(blue)
+                .append(',').append(blue).append(")>").append(content).append("</td>");
     }
 
     /**
@@ -939,73 +1359,40 @@ public class ConWordCollection extends DictionaryCollection {
     }
 
     /**
-     * Writes all word information to XML document
+     * Writes all word information to XML stream
      *
-     * @param doc Document to write to
-     * @param rootElement root element of document
+     * @param writer stream to write to
+     * @throws XMLStreamException on write failure
      */
-    public void writeXML(Document doc, Element rootElement) {
+    public void writeXML(XMLStreamWriter writer) throws XMLStreamException {
         List<ConWord> wordLoop = getWordNodes();
-        Element wordNode;
-        Element wordValue;
 
         for (ConWord curWord : wordLoop) {
-            wordNode = doc.createElement(PGTUtil.wordXID);
-            rootElement.appendChild(wordNode);
-
-            wordValue = doc.createElement(PGTUtil.wordIdXID);
-            Integer wordId = curWord.getId();
-            wordValue.appendChild(doc.createTextNode(wordId.toString()));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.localWordXID);
-            wordValue.appendChild(doc.createTextNode(curWord.getLocalWord()));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.conWordXID);
-            wordValue.appendChild(doc.createTextNode(curWord.getValue()));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.wordTypeIdXID);
-            wordValue.appendChild(doc.createTextNode(curWord.getWordTypeId().toString()));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.wordProcXID);
-            wordValue
-                    .appendChild(doc.createTextNode(curWord.getPronunciation()));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.wordDefXID);
-            wordValue.appendChild(doc.createTextNode(WebInterface.archiveHTML(curWord.getDefinition())));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.wordProcOverrideXID);
-            wordValue.appendChild(doc.createTextNode(curWord.isProcOverride() ? PGTUtil.True : PGTUtil.False));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.wordAutoDeclenOverrideXID);
-            wordValue.appendChild(doc.createTextNode(curWord.isOverrideAutoDeclen() ? PGTUtil.True : PGTUtil.False));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.wordRuleOverrideXID);
-            wordValue.appendChild(doc.createTextNode(curWord.isRulesOverrride() ? PGTUtil.True : PGTUtil.False));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.wordClassCollectionXID);
+            writer.writeStartElement(PGTUtil.wordXID);
+
+            PGTUtil.writeXMLElement(writer, PGTUtil.wordIdXID, curWord.getId().toString());
+            PGTUtil.writeXMLElement(writer, PGTUtil.localWordXID, curWord.getLocalWord());
+            PGTUtil.writeXMLElement(writer, PGTUtil.conWordXID, curWord.getValue());
+            PGTUtil.writeXMLElement(writer, PGTUtil.wordTypeIdXID, curWord.getWordTypeId().toString());
+            PGTUtil.writeXMLElement(writer, PGTUtil.wordProcXID, curWord.getPronunciation());
+            PGTUtil.writeXMLElement(writer, PGTUtil.wordDefXID, WebInterface.archiveHTML(curWord.getDefinition()));
+            PGTUtil.writeXMLElement(writer, PGTUtil.wordProcOverrideXID, curWord.isProcOverride() ? PGTUtil.True : PGTUtil.False);
+            PGTUtil.writeXMLElement(writer, PGTUtil.wordAutoDeclenOverrideXID, curWord.isOverrideAutoDeclen() ? PGTUtil.True : PGTUtil.False);
+            PGTUtil.writeXMLElement(writer, PGTUtil.wordRuleOverrideXID, curWord.isRulesOverrride() ? PGTUtil.True : PGTUtil.False);
+
+            writer.writeStartElement(PGTUtil.wordClassCollectionXID);
             for (Entry<Integer, Integer> entry : curWord.getClassValues()) {
-                Element classVal = doc.createElement(PGTUtil.wordClassAndValueXID);
-                classVal.appendChild(doc.createTextNode(entry.getKey() + "," + entry.getValue()));
-                wordValue.appendChild(classVal);
+                PGTUtil.writeXMLElement(writer, PGTUtil.wordClassAndValueXID, entry.getKey() + "," + entry.getValue());
             }
-            wordNode.appendChild(wordValue);
+            writer.writeEndElement();
 
-            wordValue = doc.createElement(PGTUtil.wordClassTextValueCollectionXID);
+            writer.writeStartElement(PGTUtil.wordClassTextValueCollectionXID);
             for (Entry<Integer, String> entry : curWord.getClassTextValues()) {
-                Element classVal = doc.createElement(PGTUtil.wordClassTextValueXID);
-                classVal.appendChild(doc.createTextNode(entry.getKey() + "," + entry.getValue()));
-                wordValue.appendChild(classVal);
+                PGTUtil.writeXMLElement(writer, PGTUtil.wordClassTextValueXID, entry.getKey() + "," + entry.getValue());
             }
-            wordNode.appendChild(wordValue);
+            writer.writeEndElement();
+
+            writer.writeEndElement();
         }
     }
 
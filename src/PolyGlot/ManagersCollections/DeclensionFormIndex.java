@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot.ManagersCollections;
+
+import PolyGlot.DictCore;
+import PolyGlot.Nodes.DeclensionPair;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Index of all automatically generated declined/conjugated forms of words,
+ * mapping each surface form back to the words and combined declension IDs
+ * that produce it. Forms are generated lazily: changed words are marked
+ * dirty and only regenerated when the index is next refreshed. Words of a
+ * type are regenerated whenever the generation signature of the type changes.
+ *
+ * @author draque.thompson
+ */
+public class DeclensionFormIndex {
+
+    private final DictCore core;
+    private final TreeMap<String, List<FormEntry>> forms = new TreeMap<>();
+    private final Map<Integer, WordState> words = new HashMap<>();
+    private final Map<Integer, String> typeSignatures = new HashMap<>();
+    private final Set<Integer> dirtyWords = new HashSet<>();
+
+    public DeclensionFormIndex(DictCore _core) {
+        core = _core;
+    }
+
+    /**
+     * Records current value and type of a word. If either has changed, the
+     * word's forms will be regenerated on next refresh.
+     *
+     * @param wordId ID of word
+     * @param typeId type of word
+     * @param value headword value of word
+     */
+    public synchronized void setWord(int wordId, int typeId, String value) {
+        WordState state = words.get(wordId);
+
+        if (state != null && state.typeId == typeId && state.value.equals(value)) {
+            return;
+        }
+
+        if (state == null) {
+            state = new WordState();
+            words.put(wordId, state);
+        }
+
+        state.typeId = typeId;
+        state.value = value;
+        dirtyWords.add(wordId);
+    }
+
+    /**
+     * Removes a word and all of its forms from the index
+     *
+     * @param wordId ID of word to remove
+     */
+    public synchronized void removeWord(int wordId) {
+        WordState state = words.remove(wordId);
+
+        if (state != null) {
+            removeForms(wordId, state);
+        }
+
+        dirtyWords.remove(wordId);
+    }
+
+    /**
+     * Brings all forms up to date with current words and declension rules
+     */
+    public synchronized void refresh() {
+        DeclensionManager decMan = core.getDeclensionManager();
+        Map<Integer, String> curSignatures = new HashMap<>();
+
+        // find types whose generated forms may have changed
+        for (WordState state : words.values()) {
+            if (!curSignatures.containsKey(state.typeId)) {
+                // words of missing types have no generated forms
+                curSignatures.put(state.typeId, core.getTypes().getNodeById(state.typeId) == null
+                        ? "" : decMan.getGenerationSignature(state.typeId));
+            }
+        }
+
+        Set<Integer> changedTypes = new HashSet<>();
+        for (Entry<Integer, String> curEntry : curSignatures.entrySet()) {
+            if (!curEntry.getValue().equals(typeSignatures.get(curEntry.getKey()))) {
+                changedTypes.add(curEntry.getKey());
+            }
+        }
+
+        if (!changedTypes.isEmpty()) {
+            for (Entry<Integer, WordState> curEntry : words.entrySet()) {
+                if (changedTypes.contains(curEntry.getValue().typeId)) {
+                    dirtyWords.add(curEntry.getKey());
+                }
+            }
+        }
+
+        Map<Integer, List<DeclensionPair>> typeCombos = new HashMap<>();
+        Iterator<Integer> dirtyIt = dirtyWords.iterator();
+
+        while (dirtyIt.hasNext()) {
+            int wordId = dirtyIt.next();
+            WordState state = words.get(wordId);
+            List<DeclensionPair> combos = typeCombos.get(state.typeId);
+
+            if (combos == null) {
+                combos = curSignatures.get(state.typeId).isEmpty()
+                        ? new ArrayList<DeclensionPair>() : decMan.getAllCombinedIds(state.typeId);
+                typeCombos.put(state.typeId, combos);
+            }
+
+            removeForms(wordId, state);
+
+            for (DeclensionPair curPair : combos) {
+                String form = decMan.declineWord(state.typeId, curPair.combinedId, state.value);
+
+                if (!form.trim().isEmpty()) {
+                    addForm(form, new FormEntry(wordId, curPair.combinedId));
+                    state.forms.add(form);
+                }
+            }
+
+            dirtyIt.remove();
+        }
+
+        typeSignatures.clear();
+        typeSignatures.putAll(curSignatures);
+    }
+
+    /**
+     * Gets all words and declensions which generate a given form. Refresh
+     * before calling to ensure current values.
+     *
+     * @param form exact form to look up
+     * @return list of matching entries (empty if none)
+     */
+    public synchronized List<FormEntry> getFormEntries(String form) {
+        List<FormEntry> ret = forms.get(form);
+
+        return ret == null ? new ArrayList<FormEntry>() : new ArrayList<>(ret);
+    }
+
+    /**
+     * Gets IDs of all words with a generated form which either matches the
+     * given regex or starts with the given text. Refresh before calling to
+     * ensure current values.
+     *
+     * @param matchText text to match forms against
+     * @param literal true if matchText contains no regex special characters
+     * (only prefix matches possible, allowing direct lookup)
+     * @return IDs of all words with matching forms
+     */
+    public synchronized BitSet getMatchingWords(String matchText, boolean literal) {
+        BitSet ret = new BitSet();
+
+        if (literal) {
+            for (List<FormEntry> entries : forms.subMap(matchText, true,
+                    matchText + Character.MAX_VALUE, true).values()) {
+                for (FormEntry entry : entries) {
+                    ret.set(entry.wordId);
+                }
+            }
+        } else {
+            Pattern matchPattern = Pattern.compile(matchText);
+
+            for (Entry<String, List<FormEntry>> curEntry : forms.entrySet()) {
+                String form = curEntry.getKey();
+
+                if (matchPattern.matcher(form).matches() || form.startsWith(matchText)) {
+                    for (FormEntry entry : curEntry.getValue()) {
+                        ret.set(entry.wordId);
+                    }
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private void addForm(String form, FormEntry entry) {
+        List<FormEntry> entries = forms.get(form);
+
+        if (entries == null) {
+            entries = new ArrayList<>(1);
+            forms.put(form, entries);
+        }
+
+        entries.add(entry);
+    }
+
+    private void removeForms(int wordId, WordState state) {
+        for (String form : state.forms) {
+            List<FormEntry> entries = forms.get(form);
+
+            if (entries == null) {
+                continue;
+            }
+
+            Iterator<FormEntry> entryIt = entries.iterator();
+            while (entryIt.hasNext()) {
+                if (entryIt.next().wordId == wordId) {
+                    entryIt.remove();
+                }
+            }
+
+            if (entries.isEmpty()) {
+                forms.remove(form);
+            }
+        }
+
+        state.forms.clear();
+    }
+
+    /**
+     * A single generated form of a word
+     */
+    public static class FormEntry {
+
+        public final int wordId;
+        public final String combinedId;
+
+        public FormEntry(int _wordId, String _combinedId) {
+            wordId = _wordId;
+            combinedId = _combinedId;
+        }
+    }
+
+    private static class WordState {
+
+        int typeId;
+        String value = "";
+        final Set<String> forms = new HashSet<>();
+    }
+}
@@ -34,12 +34,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  *
@@ -68,6 +71,10 @@ public class DeclensionManager {
     private DeclensionNode buffer = new DeclensionNode(-1);
     private final List<DeclensionGenRule> generationRules = new ArrayList<>();
     private DeclensionGenRule ruleBuffer = new DeclensionGenRule();
+    
+    // compiled generation rules: type ID -> combined ID -> rules in order of application
+    private final Map<Integer, Map<String, List<CompiledGenRule>>> compiledRules = new HashMap<>();
+    private int compiledRevision = -1;
 
     public boolean isCombinedDeclSurpressed(String _combId) {
         if (!combSettings.containsKey(_combId)) {
@@ -146,6 +153,7 @@ public class DeclensionManager {
      */
     public void addDeclensionGenRule(DeclensionGenRule newRule) {
         generationRules.add(newRule);
+        clearCompiledRules();
     }
 
     /**
@@ -160,9 +168,11 @@ public class DeclensionManager {
             DeclensionGenRule curRule = itRules.next();
 
             if (curRule.getTypeId() == typeId) {
-                generationRules.remove(curRule);
+                itRules.remove();
             }
         }
+        
+        clearCompiledRules();
     }
 
     /**
@@ -172,6 +182,7 @@ public class DeclensionManager {
      */
     public void deleteDeclensionGenRule(DeclensionGenRule delRule) {
         generationRules.remove(delRule);
+        clearCompiledRules();
     }
 
     /**
@@ -221,23 +232,18 @@ public class DeclensionManager {
      * @return new word value if exists, empty string otherwise
      */
     public String declineWord(int typeId, String combinedId, String base) {
-        Iterator<DeclensionGenRule> typeRules = getDeclensionRules(typeId).iterator();
+        List<CompiledGenRule> combRules = getCompiledRules(typeId).get(combinedId);
         String ret = "";
 
-        while (typeRules.hasNext()) {
-            DeclensionGenRule curRule = typeRules.next();
-
-            // skip all entries not applicable to this particular combined word ID
-            if (!curRule.getCombinationId().equals(combinedId)) {
-                continue;
-            }
+        if (combRules == null) {
+            return ret;
+        }
 
+        for (CompiledGenRule curRule : combRules) {
             // apply transforms within rule if rule matches current base
-            if (base.matches(curRule.getRegex())) {
-                List<DeclensionGenTransform> transforms = curRule.getTransforms();
-
-                for (DeclensionGenTransform curTrans : transforms) {
-                    base = base.replaceAll(curTrans.regex, curTrans.replaceText);
+            if (curRule.matches(base)) {
+                for (int i = 0; i < curRule.getTransformCount(); i++) {
+                    base = curRule.transform(i, base);
 
                     ret = base;
                 }
@@ -246,6 +252,91 @@ public class DeclensionManager {
 
         return ret;
     }
+    
+    /**
+     * Gets compiled generation rules for a type, grouped by combined ID,
+     * compiling them if no current compilation exists
+     * 
+     * @param typeId type to fetch rules of
+     * @return map of combined ID to rules, in order of application
+     */
+    private synchronized Map<String, List<CompiledGenRule>> getCompiledRules(int typeId) {
+        if (compiledRevision != DeclensionGenRule.getRevision()) {
+            compiledRules.clear();
+            compiledRevision = DeclensionGenRule.getRevision();
+        }
+        
+        Map<String, List<CompiledGenRule>> ret = compiledRules.get(typeId);
+        
+        if (ret == null) {
+            ret = new LinkedHashMap<>();
+            
+            for (DeclensionGenRule curRule : getDeclensionRules(typeId)) {
+                List<CompiledGenRule> combRules = ret.get(curRule.getCombinationId());
+                
+                if (combRules == null) {
+                    combRules = new ArrayList<>();
+                    ret.put(curRule.getCombinationId(), combRules);
+                }
+                
+                combRules.add(new CompiledGenRule(curRule));
+            }
+            
+            // fetching rules may renumber indices (altering order) of other types
+            if (compiledRevision != DeclensionGenRule.getRevision()) {
+                compiledRules.clear();
+                compiledRevision = DeclensionGenRule.getRevision();
+            }
+            
+            compiledRules.put(typeId, ret);
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Gets a value which changes whenever the forms generated for words of a
+     * type might change (rules or declension dimensions altered). Anything
+     * derived from generated forms of the type should be rebuilt when this
+     * value changes.
+     * 
+     * @param typeId type to get signature of
+     * @return signature of type's generated forms
+     */
+    public String getGenerationSignature(int typeId) {
+        StringBuilder ret = new StringBuilder();
+        
+        for (DeclensionPair curPair : getAllCombinedIds(typeId)) {
+            ret.append(curPair.combinedId).append('\n');
+        }
+        
+        for (Entry<String, List<CompiledGenRule>> curEntry : getCompiledRules(typeId).entrySet()) {
+            ret.append(curEntry.getKey()).append('\n');
+            
+            for (CompiledGenRule curRule : curEntry.getValue()) {
+                ret.append(curRule.getSource());
+            }
+        }
+        
+        return ret.toString();
+    }
+    
+    /**
+     * Tests whether any generation rules exist for a type
+     * 
+     * @param typeId type to test
+     * @return true if type has rules
+     */
+    public boolean hasDeclensionRules(int typeId) {
+        return !getCompiledRules(typeId).isEmpty();
+    }
+    
+    /**
+     * Discards all compiled generation rules
+     */
+    private synchronized void clearCompiledRules() {
+        compiledRules.clear();
+    }
 
     public Map<Integer, List<DeclensionNode>> getTemplateMap() {
         return dTemplates;
@@ -257,14 +348,29 @@ public class DeclensionManager {
 
     public void addDeclensionToWord(Integer wordId, Integer declensionId, DeclensionNode declension) {
         addDeclension(wordId, declensionId, declension, dList);
+        wordDeclensionsChanged(wordId);
     }
 
     public void deleteDeclensionFromWord(Integer wordId, Integer declensionId) {
         deleteDeclension(wordId, declensionId, dList);
+        wordDeclensionsChanged(wordId);
     }
 
     public void updateDeclensionWord(Integer wordId, Integer declensionId, DeclensionNode declension) {
         updateDeclension(wordId, declensionId, declension, dList);
+        wordDeclensionsChanged(wordId);
+    }
+
+    /**
+     * Informs word collection that a word's declensions have changed, as
+     * they affect its legality
+     *
+     * @param wordId ID of word changed
+     */
+    private void wordDeclensionsChanged(Integer wordId) {
+        if (core.getWordCollection() != null) {
+            core.getWordCollection().wordDeclensionsChanged(wordId);
+        }
     }
 
     /**
@@ -296,6 +402,8 @@ public class DeclensionManager {
 
                 curNode.setCombinedDimId("D" + curNode.getCombinedDimId());
             }
+
+            wordDeclensionsChanged(curEntry.getKey());
         }
     }
 
@@ -423,6 +531,7 @@ public class DeclensionManager {
      */
     public void clearAllDeclensionsWord(Integer wordId) {
         clearAllDeclensions(wordId, dList);
+        wordDeclensionsChanged(wordId);
     }
 
     /**
@@ -832,18 +941,18 @@ public class DeclensionManager {
         for (DeclensionNode remNode : removeVals) {
             wordList.remove(remNode);
         }
+
+        wordDeclensionsChanged(wordId);
     }
 
     /**
-     * Writes all declension information to XML document
+     * Writes all declension information to XML stream
      *
-     * @param doc Document to write to
-     * @param rootElement root element of document
+     * @param writer stream to write to
+     * @throws XMLStreamException on write failure
      */
-    public void writeXML(Document doc, Element rootElement) {
+    public void writeXML(XMLStreamWriter writer) throws XMLStreamException {
         Set<Entry<Integer, List<DeclensionNode>>> declensionSet;
-        Element wordNode;
-        Element wordValue;
 
         // record declension templates
         declensionSet = getTemplateMap().entrySet();
@@ -852,53 +961,27 @@ public class DeclensionManager {
             Integer relatedId = e.getKey();
 
             for (DeclensionNode curNode : e.getValue()) {
-                wordNode = doc.createElement(PGTUtil.declensionXID);
-                rootElement.appendChild(wordNode);
-
-                wordValue = doc.createElement(PGTUtil.declensionIdXID);
-                wordValue.appendChild(doc.createTextNode(curNode.getId().toString()));
-                wordNode.appendChild(wordValue);
-
-                wordValue = doc.createElement(PGTUtil.declensionTextXID);
-                wordValue.appendChild(doc.createTextNode(curNode.getValue()));
-                wordNode.appendChild(wordValue);
-
-                wordValue = doc.createElement(PGTUtil.declensionNotesXID);
-                wordValue.appendChild(doc.createTextNode(WebInterface.archiveHTML(curNode.getNotes())));
-                wordNode.appendChild(wordValue);
+                writer.writeStartElement(PGTUtil.declensionXID);
 
-                wordValue = doc.createElement(PGTUtil.declensionIsTemplateXID);
-                wordValue.appendChild(doc.createTextNode("1"));
-                wordNode.appendChild(wordValue);
-
-                wordValue = doc.createElement(PGTUtil.declensionRelatedIdXID);
-                wordValue.appendChild(doc.createTextNode(relatedId.toString()));
-                wordNode.appendChild(wordValue);
-
-                wordValue = doc.createElement(PGTUtil.declensionMandatoryXID);
-                wordValue.appendChild(doc.createTextNode(curNode.isMandatory() ? PGTUtil.True : PGTUtil.False));
-                wordNode.appendChild(wordValue);
+                PGTUtil.writeXMLElement(writer, PGTUtil.declensionIdXID, curNode.getId().toString());
+                PGTUtil.writeXMLElement(writer, PGTUtil.declensionTextXID, curNode.getValue());
+                PGTUtil.writeXMLElement(writer, PGTUtil.declensionNotesXID, WebInterface.archiveHTML(curNode.getNotes()));
+                PGTUtil.writeXMLElement(writer, PGTUtil.declensionIsTemplateXID, "1");
+                PGTUtil.writeXMLElement(writer, PGTUtil.declensionRelatedIdXID, relatedId.toString());
+                PGTUtil.writeXMLElement(writer, PGTUtil.declensionMandatoryXID, curNode.isMandatory() ? PGTUtil.True : PGTUtil.False);
 
                 Iterator<DeclensionDimension> dimIt = curNode.getDimensions().iterator();
                 while (dimIt.hasNext()) {
-                    wordValue = doc.createElement(PGTUtil.dimensionNodeXID);
-
                     DeclensionDimension curDim = dimIt.next();
 
-                    Element dimNode = doc.createElement(PGTUtil.dimensionIdXID);
-                    dimNode.appendChild(doc.createTextNode(curDim.getId().toString()));
-                    wordValue.appendChild(dimNode);
-
-                    dimNode = doc.createElement(PGTUtil.dimensionNameXID);
-                    dimNode.appendChild(doc.createTextNode(curDim.getValue()));
-                    wordValue.appendChild(dimNode);
-
-                    dimNode = doc.createElement(PGTUtil.dimensionMandXID);
-                    dimNode.appendChild(doc.createTextNode(curDim.isMandatory() ? PGTUtil.True : PGTUtil.False));
-                    wordValue.appendChild(dimNode);
-
-                    wordNode.appendChild(wordValue);
+                    writer.writeStartElement(PGTUtil.dimensionNodeXID);
+                    PGTUtil.writeXMLElement(writer, PGTUtil.dimensionIdXID, curDim.getId().toString());
+                    PGTUtil.writeXMLElement(writer, PGTUtil.dimensionNameXID, curDim.getValue());
+                    PGTUtil.writeXMLElement(writer, PGTUtil.dimensionMandXID, curDim.isMandatory() ? PGTUtil.True : PGTUtil.False);
+                    writer.writeEndElement();
                 }
+
+                writer.writeEndElement();
             }
         }
 
@@ -908,93 +991,131 @@ public class DeclensionManager {
             Integer relatedId = e.getKey();
 
             for (DeclensionNode curNode : e.getValue()) {
-                wordNode = doc.createElement(PGTUtil.declensionXID);
-                rootElement.appendChild(wordNode);
-
-                wordValue = doc.createElement(PGTUtil.declensionIdXID);
-                wordValue.appendChild(doc.createTextNode(curNode.getId().toString()));
-                wordNode.appendChild(wordValue);
-
-                wordValue = doc.createElement(PGTUtil.declensionTextXID);
-                wordValue.appendChild(doc.createTextNode(curNode.getValue()));
-                wordNode.appendChild(wordValue);
+                writer.writeStartElement(PGTUtil.declensionXID);
 
-                wordValue = doc.createElement(PGTUtil.declensionNotesXID);
-                wordValue.appendChild(doc.createTextNode(curNode.getNotes()));
-                wordNode.appendChild(wordValue);
+                PGTUtil.writeXMLElement(writer, PGTUtil.declensionIdXID, curNode.getId().toString());
+                PGTUtil.writeXMLElement(writer, PGTUtil.declensionTextXID, curNode.getValue());
+                PGTUtil.writeXMLElement(writer, PGTUtil.declensionNotesXID, curNode.getNotes());
+                PGTUtil.writeXMLElement(writer, PGTUtil.declensionRelatedIdXID, relatedId.toString());
+                PGTUtil.writeXMLElement(writer, PGTUtil.declensionComDimIdXID, curNode.getCombinedDimId());
+                PGTUtil.writeXMLElement(writer, PGTUtil.declensionIsTemplateXID, "0");
 
-                wordValue = doc.createElement(PGTUtil.declensionRelatedIdXID);
-                wordValue.appendChild(doc.createTextNode(relatedId.toString()));
-                wordNode.appendChild(wordValue);
-
-                wordValue = doc.createElement(PGTUtil.declensionComDimIdXID);
-                wordValue.appendChild(doc.createTextNode(curNode.getCombinedDimId()));
-                wordNode.appendChild(wordValue);
-
-                wordValue = doc.createElement(PGTUtil.declensionIsTemplateXID);
-                wordValue.appendChild(doc.createTextNode("0"));
-                wordNode.appendChild(wordValue);
+                writer.writeEndElement();
             }
         }
 
         // record declension autogeneration rules
         for (DeclensionGenRule curRule : generationRules) {
-            Element ruleNode = doc.createElement(PGTUtil.decGenRuleXID);
-            rootElement.appendChild(ruleNode);
-
-            wordValue = doc.createElement(PGTUtil.decGenRuleCombXID);
-            wordValue.appendChild(doc.createTextNode(curRule.getCombinationId()));
-            ruleNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.decGenRuleNameXID);
-            wordValue.appendChild(doc.createTextNode(curRule.getName()));
-            ruleNode.appendChild(wordValue);
+            writer.writeStartElement(PGTUtil.decGenRuleXID);
 
-            wordValue = doc.createElement(PGTUtil.decGenRuleRegexXID);
-            wordValue.appendChild(doc.createTextNode(curRule.getRegex()));
-            ruleNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.decGenRuleTypeXID);
-            wordValue.appendChild(doc.createTextNode(Integer.toString(curRule.getTypeId())));
-            ruleNode.appendChild(wordValue);
-            
-            wordValue = doc.createElement(PGTUtil.decGenRuleIndexXID);
-            wordValue.appendChild(doc.createTextNode(Integer.toString(curRule.getIndex())));
-            ruleNode.appendChild(wordValue);
+            PGTUtil.writeXMLElement(writer, PGTUtil.decGenRuleCombXID, curRule.getCombinationId());
+            PGTUtil.writeXMLElement(writer, PGTUtil.decGenRuleNameXID, curRule.getName());
+            PGTUtil.writeXMLElement(writer, PGTUtil.decGenRuleRegexXID, curRule.getRegex());
+            PGTUtil.writeXMLElement(writer, PGTUtil.decGenRuleTypeXID, Integer.toString(curRule.getTypeId()));
+            PGTUtil.writeXMLElement(writer, PGTUtil.decGenRuleIndexXID, Integer.toString(curRule.getIndex()));
 
             List<DeclensionGenTransform> transIt = curRule.getTransforms();
             for (DeclensionGenTransform curTransform : transIt) {
-                Element transNode = doc.createElement(PGTUtil.decGenTransXID);
-                ruleNode.appendChild(transNode);
-
-                wordValue = doc.createElement(PGTUtil.decGenTransRegexXID);
-                wordValue.appendChild(doc.createTextNode(curTransform.regex));
-                transNode.appendChild(wordValue);
-
-                wordValue = doc.createElement(PGTUtil.decGenTransReplaceXID);
-                wordValue.appendChild(doc.createTextNode(curTransform.replaceText));
-                transNode.appendChild(wordValue);
+                writer.writeStartElement(PGTUtil.decGenTransXID);
+                PGTUtil.writeXMLElement(writer, PGTUtil.decGenTransRegexXID, curTransform.regex);
+                PGTUtil.writeXMLElement(writer, PGTUtil.decGenTransReplaceXID, curTransform.replaceText);
+                writer.writeEndElement();
             }
+
+            writer.writeEndElement();
         }
 
         // record combined form settings
-        Element combinedForms = doc.createElement(PGTUtil.decCombinedFormSectionXID);
-        rootElement.appendChild(combinedForms);
+        writer.writeStartElement(PGTUtil.decCombinedFormSectionXID);
 
         for (Map.Entry pairs : combSettings.entrySet()) {
-            Element curCombForm = doc.createElement(PGTUtil.decCombinedFormXID);
-            Element curAttrib;
+            writer.writeStartElement(PGTUtil.decCombinedFormXID);
             
             // This section will have to be slightly rewritten if the combined settings become more complex
-            curAttrib = doc.createElement(PGTUtil.decCombinedIdXID);
-            curAttrib.appendChild(doc.createTextNode((String)pairs.getKey()));
-            curCombForm.appendChild(curAttrib);
+            PGTUtil.writeXMLElement(writer, PGTUtil.decCombinedIdXID, (String) pairs.getKey());
+            PGTUtil.writeXMLElement(writer, PGTUtil.decCombinedSurpressXID, (Boolean) pairs.getValue() ? PGTUtil.True : PGTUtil.False);
+            
+            writer.writeEndElement();
+        }
+
+        writer.writeEndElement();
+    }
+    
+    /**
+     * Declension generation rule with all patterns precompiled. Patterns which
+     * fail to compile retain their error, which is thrown only if the pattern
+     * is actually used (as when compiling on every use).
+     */
+    private static class CompiledGenRule {
+        private final Pattern match;
+        private final RuntimeException matchError;
+        private final Pattern[] transforms;
+        private final RuntimeException[] transformErrors;
+        private final String[] replacements;
+        private final String source;
+        
+        public CompiledGenRule(DeclensionGenRule rule) {
+            List<DeclensionGenTransform> ruleTransforms = rule.getTransforms();
+            StringBuilder compSource = new StringBuilder(rule.getRegex()).append('\n');
+            Pattern compMatch = null;
+            RuntimeException compError = null;
+            
+            try {
+                compMatch = Pattern.compile(rule.getRegex());
+            } catch (RuntimeException e) {
+                compError = e;
+            }
+            
+            match = compMatch;
+            matchError = compError;
+            transforms = new Pattern[ruleTransforms.size()];
+            transformErrors = new RuntimeException[ruleTransforms.size()];
+            replacements = new String[ruleTransforms.size()];
+            
+            for (int i = 0; i < ruleTransforms.size(); i++) {
+                DeclensionGenTransform curTrans = ruleTransforms.get(i);
+                
+                try {
+                    transforms[i] = Pattern.compile(curTrans.regex);
+                } catch (RuntimeException e) {
+                    transformErrors[i] = e;
+                }
+                
+                replacements[i] = curTrans.replaceText;
+                compSource.append(curTrans.regex).append('\n')
+                        .append(curTrans.replaceText).append('\n');
+            }
+            
+            source = compSource.toString();
+        }
+        
+        /**
+         * @return text of all patterns this rule was compiled from
+         */
+        public String getSource() {
+            return source;
+        }
+        
+        public boolean matches(String base) {
+            if (matchError != null) {
+                throw matchError;
+            }
+            
+            return match.matcher(base).matches();
+        }
+        
+        public int getTransformCount() {
+            return transforms.length;
+        }
+        
+        public String transform(int index, String base) {
+            if (transformErrors[index] != null) {
+                throw transformErrors[index];
+            }
             
-            curAttrib = doc.createElement(PGTUtil.decCombinedSurpressXID);
-            curAttrib.appendChild(doc.createTextNode((Boolean)pairs.getValue() ? PGTUtil.True : PGTUtil.False));
-            curCombForm.appendChild(curAttrib);
+            Matcher matcher = transforms[index].matcher(base);
             
-            combinedForms.appendChild(curCombForm);
+            return matcher.replaceAll(replacements[index]);
         }
     }
 }
@@ -23,11 +23,13 @@ package PolyGlot.ManagersCollections;
 import PolyGlot.CustomControls.PAlphaMap;
 import PolyGlot.Nodes.DictNode;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
 
 /**
  *
@@ -41,6 +43,12 @@ public abstract class DictionaryCollection {
 
     private int highestNodeId = 1;
 
+    // dense array of all node IDs, for constant time random selection
+    private int[] idArray = new int[16];
+    private int idCount = 0;
+    private final Map<Integer, Integer> idPositions = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+
     /**
      * Clears value of collection's current buffer
      *
@@ -108,7 +116,27 @@ public abstract class DictionaryCollection {
                     + " not found.");
         }
 
+        removeNode(_id);
+    }
+
+    /**
+     * Removes node from nodemap, if present
+     * @param _id ID of node to remove
+     */
+    protected void removeNode(Integer _id) {
         nodeMap.remove(_id);
+
+        Integer pos = idPositions.remove(_id);
+
+        // move last ID into the vacated slot
+        if (pos != null) {
+            idCount--;
+
+            if (pos != idCount) {
+                idArray[pos] = idArray[idCount];
+                idPositions.put(idArray[pos], pos);
+            }
+        }
     }
 
     public void setAlphaOrder(PAlphaMap _alphaOrder) {
@@ -151,6 +179,12 @@ public abstract class DictionaryCollection {
 
         nodeMap.put(_id, _buffer);
 
+        if (idCount == idArray.length) {
+            idArray = Arrays.copyOf(idArray, idCount * 2);
+        }
+        idPositions.put(_id, idCount);
+        idArray[idCount++] = _id;
+
         // sets highest word ID, if current id is higher
         highestNodeId = _id > highestNodeId ? _id : highestNodeId;
 
@@ -173,22 +207,37 @@ public abstract class DictionaryCollection {
      * @return Either the number of nodes requested, or the total number in the collection (if not enough)
      */
     public List<DictNode> getRandomNodes(int numRandom, Integer exclude) {
-        List<DictNode> ret = new ArrayList<>();
-        List<DictNode> allValues = new ArrayList(nodeMap.values());
+        Integer excludePos = idPositions.get(exclude);
+        int available = excludePos == null ? idCount : idCount - 1;
         
+        // can't return more than exist in the collection
+        numRandom = numRandom > available ? available : numRandom;
+        numRandom = numRandom < 0 ? 0 : numRandom;
         
-        if (nodeMap.containsKey(exclude)) {
-            allValues.remove((DictNode)nodeMap.get(exclude));
+        // Floyd's algorithm: selects distinct positions in O(numRandom)
+        Set<Integer> positions = new HashSet<>();
+        for (int j = available - numRandom; j < available; j++) {
+            int pos = random.nextInt(j + 1);
+            
+            if (!positions.add(pos)) {
+                positions.add(j);
+            }
         }
         
-        // randommize order...
-        Collections.shuffle(allValues, new Random(System.nanoTime()));
+        List<DictNode> ret = new ArrayList<>();
+        for (int pos : positions) {
+            // skip over excluded node's slot
+            if (excludePos != null && pos >= excludePos) {
+                pos++;
+            }
+            
+            ret.add((DictNode)nodeMap.get(idArray[pos]));
+        }
         
-        // can't return more than exist in the collection
-        numRandom = numRandom > allValues.size() ? allValues.size() : numRandom;
-        // select from list to return
-        for (int i = 0; i < numRandom; i++) {
-            ret.add(allValues.get(i));
+        // randomize order...
+        for (int i = ret.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            ret.set(j, ret.set(i, ret.get(j)));
         }
         
         return ret;
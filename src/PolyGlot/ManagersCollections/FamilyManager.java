@@ -27,8 +27,8 @@ import PolyGlot.WebInterface;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  * This is the manager class for dictionary family entries
@@ -119,52 +119,42 @@ public class FamilyManager {
     }
     
     /**
-     * returns Element containing all family data to be saved to XML
-     * @param doc the document this is to be inserted into
-     * @return an element containing all family data
+     * writes all family data to XML stream
+     * @param writer stream to write to
+     * @throws XMLStreamException on write failure
      */
-    public Element writeToSaveXML(Document doc) {
-        return writeToSaveXML(doc, famRoot);
+    public void writeXML(XMLStreamWriter writer) throws XMLStreamException {
+        writeXML(writer, famRoot);
     }
     
     /**
      * this is the recursive function that completes the work of its overridden method
-     * @param doc the document this is to be inserted into
-     * @param curNode node to build element for
-     * @return an element containing all family data
+     * @param writer stream to write to
+     * @param curNode node to write family data of
+     * @throws XMLStreamException on write failure
      */
-    private Element writeToSaveXML(Document doc, FamNode curNode) {
-        Element curElement = doc.createElement(PGTUtil.famNodeXID);
+    private void writeXML(XMLStreamWriter writer, FamNode curNode) throws XMLStreamException {
+        writer.writeStartElement(PGTUtil.famNodeXID);
         
-        if (curNode == null) {
-            return curElement;
-        }
+        if (curNode != null) {
+            // save name
+            PGTUtil.writeXMLElement(writer, PGTUtil.famNameXID, curNode.getValue());
 
-        // save name
-        Element property = doc.createElement(PGTUtil.famNameXID);
-        property.appendChild(doc.createTextNode(curNode.getValue()));
-        curElement.appendChild(property);
-        
-        // save notes
-        property = doc.createElement(PGTUtil.famNotesXID);
-        property.appendChild(doc.createTextNode(WebInterface.archiveHTML(curNode.getNotes())));
-        curElement.appendChild(property);
-        
-        // save words
-        Iterator<ConWord> wordIt = curNode.getWords();
-        while (wordIt.hasNext()) {
-            ConWord curWord = wordIt.next();
-            
-            property = doc.createElement(PGTUtil.famWordXID);
-            property.appendChild(doc.createTextNode(curWord.getId().toString()));
-            curElement.appendChild(property);
-        }
-        
-        // save subnodes
-        for (FamNode curChild : curNode.getNodes()) {
-            curElement.appendChild(writeToSaveXML(doc, curChild));
+            // save notes
+            PGTUtil.writeXMLElement(writer, PGTUtil.famNotesXID, WebInterface.archiveHTML(curNode.getNotes()));
+
+            // save words
+            Iterator<ConWord> wordIt = curNode.getWords();
+            while (wordIt.hasNext()) {
+                PGTUtil.writeXMLElement(writer, PGTUtil.famWordXID, wordIt.next().getId().toString());
+            }
+
+            // save subnodes
+            for (FamNode curChild : curNode.getNodes()) {
+                writeXML(writer, curChild);
+            }
         }
         
-        return curElement;
+        writer.writeEndElement();
     }
 }
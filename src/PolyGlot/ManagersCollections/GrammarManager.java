@@ -27,8 +27,8 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  * Grammar manager for PolyGlot organizes and stores all grammar data
@@ -37,6 +37,7 @@ import org.w3c.dom.Element;
 public class GrammarManager {
     private final List<GrammarChapNode> chapters = new ArrayList<>();
     private final Map<Integer, byte[]> soundMap;
+    private final GrammarSearchIndex searchIndex = new GrammarSearchIndex();
     private GrammarChapNode buffer;
     
     public GrammarManager() {
@@ -102,6 +103,39 @@ public class GrammarManager {
      */
     public void removeChapter(GrammarChapNode remove) {
         chapters.remove(remove);
+
+        for (int i = 0; i < remove.getChildCount(); i++) {
+            searchIndex.removeSection((GrammarSectionNode) remove.getChildAt(i));
+        }
+    }
+
+    /**
+     * Searches names and text of all sections. Every word of the query must
+     * match the start of a word in a section for it to be returned.
+     *
+     * @param query text to search for
+     * @return matching sections, best matches first
+     */
+    public List<GrammarSearchIndex.Hit> search(String query) {
+        return searchIndex.search(query, chapters);
+    }
+
+    /**
+     * Informs index that a section's name or text has changed
+     *
+     * @param section changed section
+     */
+    public void sectionChanged(GrammarSectionNode section) {
+        searchIndex.sectionChanged(section);
+    }
+
+    /**
+     * Informs index that a section has been deleted
+     *
+     * @param section deleted section
+     */
+    public void sectionRemoved(GrammarSectionNode section) {
+        searchIndex.removeSection(section);
     }
     
     /**
@@ -155,50 +189,38 @@ public class GrammarManager {
     }
     
     /**
-     * Writes all Grammar information to XML document
-     * @param doc Document to write to
-     * @param rootElement root element of document
+     * Writes all Grammar information to XML stream
+     * @param writer stream to write to
+     * @throws XMLStreamException on write failure
      */
-    public void writeXML(Document doc, Element rootElement) {
+    public void writeXML(XMLStreamWriter writer) throws XMLStreamException {
         Iterator<GrammarChapNode> it = chapters.iterator();
-        Element grammarRoot = doc.createElement(PGTUtil.grammarSectionXID);
-        rootElement.appendChild(grammarRoot);
-        Element chapNode;
         GrammarChapNode curChap;
         
+        writer.writeStartElement(PGTUtil.grammarSectionXID);
+        
         while (it.hasNext()) {
             curChap = it.next();
 
-            chapNode = doc.createElement(PGTUtil.grammarChapterNodeXID);
-            grammarRoot.appendChild(chapNode);
-
-            Element chapElement = doc.createElement(PGTUtil.grammarChapterNameXID);
-            chapElement.appendChild(doc.createTextNode(curChap.getName()));
-            chapNode.appendChild(chapElement);
+            writer.writeStartElement(PGTUtil.grammarChapterNodeXID);
+            PGTUtil.writeXMLElement(writer, PGTUtil.grammarChapterNameXID, curChap.getName());
             
-            chapElement = doc.createElement(PGTUtil.grammarSectionsListXID);
+            writer.writeStartElement(PGTUtil.grammarSectionsListXID);
             
             for (int i = 0; i < curChap.getChildCount(); i++) {
                 GrammarSectionNode curSec = (GrammarSectionNode)curChap.getChildAt(i);
                 
-                Element secNode = doc.createElement(PGTUtil.grammarSectionNodeXID);
-                
-                Element secElement = doc.createElement(PGTUtil.grammarSectionNameXID);
-                secElement.appendChild(doc.createTextNode(curSec.getName()));
-                secNode.appendChild(secElement);
-                
-                secElement = doc.createElement(PGTUtil.grammarSectionRecordingXID);
-                secElement.appendChild(doc.createTextNode(curSec.getRecordingId().toString()));
-                secNode.appendChild(secElement);
-                
-                secElement = doc.createElement(PGTUtil.grammarSectionTextXID);
-                secElement.appendChild(doc.createTextNode(curSec.getSectionText()));
-                secNode.appendChild(secElement);
-                
-                chapElement.appendChild(secNode);
+                writer.writeStartElement(PGTUtil.grammarSectionNodeXID);
+                PGTUtil.writeXMLElement(writer, PGTUtil.grammarSectionNameXID, curSec.getName());
+                PGTUtil.writeXMLElement(writer, PGTUtil.grammarSectionRecordingXID, curSec.getRecordingId().toString());
+                PGTUtil.writeXMLElement(writer, PGTUtil.grammarSectionTextXID, curSec.getSectionText());
+                writer.writeEndElement();
             }
             
-            chapNode.appendChild(chapElement);
+            writer.writeEndElement();
+            writer.writeEndElement();
         }
+        
+        writer.writeEndElement();
     }
 }
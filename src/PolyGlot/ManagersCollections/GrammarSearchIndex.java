@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot.ManagersCollections;
+
+import PolyGlot.CustomControls.GrammarChapNode;
+import PolyGlot.CustomControls.GrammarSectionNode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Full text index of grammar sections. Section names and the plain text of
+ * section bodies (font and image markup removed) are split into lower case
+ * words (folded without regard to the default locale), each mapped to the
+ * sections containing it. Sections are reindexed lazily, on the first search
+ * after they change.
+ *
+ * @author draque.thompson
+ */
+public class GrammarSearchIndex {
+
+    // words in a section's name count this many times over words in its body
+    private static final int NAME_WEIGHT = 5;
+
+    private final TreeMap<String, Map<GrammarSectionNode, Integer>> postings = new TreeMap<>();
+    private final Map<GrammarSectionNode, Set<String>> sectionTerms = new HashMap<>();
+    private final Set<GrammarSectionNode> dirtySections = new HashSet<>();
+
+    /**
+     * Marks section for reindexing
+     *
+     * @param section section whose name or text has changed
+     */
+    void sectionChanged(GrammarSectionNode section) {
+        dirtySections.add(section);
+    }
+
+    /**
+     * Drops section from index
+     *
+     * @param section section deleted
+     */
+    void removeSection(GrammarSectionNode section) {
+        dirtySections.remove(section);
+        clearPostings(section);
+    }
+
+    /**
+     * Finds sections of given chapters containing every word of the query,
+     * each word matching the start of a word in the section. Best matches
+     * first.
+     *
+     * @param query text to search for
+     * @param chapters chapters to search within
+     * @return ranked hits, empty if query has no words
+     */
+    List<Hit> search(String query, List<GrammarChapNode> chapters) {
+        List<Hit> ret = new ArrayList<>();
+        Map<GrammarSectionNode, GrammarChapNode> live = new LinkedHashMap<>();
+
+        for (GrammarChapNode chapter : chapters) {
+            for (int i = 0; i < chapter.getChildCount(); i++) {
+                live.put((GrammarSectionNode) chapter.getChildAt(i), chapter);
+            }
+        }
+
+        refresh(live.keySet());
+
+        Map<GrammarSectionNode, Double> scores = null;
+        for (String token : tokenize(query)) {
+            Map<GrammarSectionNode, Double> tokenScores = scoreToken(token);
+
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+
+                for (Entry<GrammarSectionNode, Double> entry : scores.entrySet()) {
+                    entry.setValue(entry.getValue() + tokenScores.get(entry.getKey()));
+                }
+            }
+        }
+
+        if (scores != null) {
+            // collected in guide order, so that equal scores stay in it
+            for (Entry<GrammarSectionNode, GrammarChapNode> entry : live.entrySet()) {
+                Double score = scores.get(entry.getKey());
+
+                if (score != null) {
+                    ret.add(new Hit(entry.getKey(), entry.getValue(), score));
+                }
+            }
+
+            Collections.sort(ret, new Comparator<Hit>() {
+                @Override
+                public int compare(Hit a, Hit b) {
+                    return Double.compare(b.score, a.score);
+                }
+            });
+        }
+
+        return ret;
+    }
+
+    /**
+     * Finds the words of some text matched by a query, for highlighting
+     *
+     * @param text plain text to search
+     * @param query query as given to search
+     * @return start and end offsets of each matched word in text
+     */
+    public static List<int[]> findMatches(String text, String query) {
+        List<int[]> ret = new ArrayList<>();
+        List<String> tokens = tokenize(query);
+
+        if (tokens.isEmpty()) {
+            return ret;
+        }
+
+        int pos = 0;
+        while (pos < text.length()) {
+            int start = pos;
+
+            while (start < text.length() && !isWordChar(text.charAt(start))) {
+                start++;
+            }
+
+            int end = start;
+            while (end < text.length() && isWordChar(text.charAt(end))) {
+                end++;
+            }
+
+            if (end > start) {
+                String word = text.substring(start, end).toLowerCase(Locale.ROOT);
+
+                for (String token : tokens) {
+                    if (word.startsWith(token)) {
+                        ret.add(new int[]{start, end});
+                        break;
+                    }
+                }
+            }
+
+            pos = end;
+        }
+
+        return ret;
+    }
+
+    private Map<GrammarSectionNode, Double> scoreToken(String token) {
+        Map<GrammarSectionNode, Double> ret = new HashMap<>();
+        int numSections = sectionTerms.size();
+        Map<String, Map<GrammarSectionNode, Integer>> matches
+                = postings.subMap(token, token + Character.MAX_VALUE);
+
+        // tf-idf, with term frequency damped logarithmically
+        for (Map<GrammarSectionNode, Integer> termPostings : matches.values()) {
+            double idf = Math.log(1.0 + (double) numSections / termPostings.size());
+
+            for (Entry<GrammarSectionNode, Integer> posting : termPostings.entrySet()) {
+                double score = (1.0 + Math.log(posting.getValue())) * idf;
+                Double prior = ret.get(posting.getKey());
+                ret.put(posting.getKey(), prior == null ? score : prior + score);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Reindexes changed sections. Sections not yet in any chapter are left
+     * until they are.
+     *
+     * @param live sections currently in a chapter
+     */
+    private void refresh(Set<GrammarSectionNode> live) {
+        Iterator<GrammarSectionNode> it = dirtySections.iterator();
+
+        while (it.hasNext()) {
+            GrammarSectionNode section = it.next();
+
+            if (!live.contains(section)) {
+                continue;
+            }
+
+            it.remove();
+            clearPostings(section);
+
+            Map<String, Integer> counts = new HashMap<>();
+            countTerms(section.getName(), NAME_WEIGHT, counts);
+            countTerms(plainText(section.getSectionText()), 1, counts);
+
+            for (Entry<String, Integer> entry : counts.entrySet()) {
+                Map<GrammarSectionNode, Integer> termPostings = postings.get(entry.getKey());
+
+                if (termPostings == null) {
+                    termPostings = new HashMap<>();
+                    postings.put(entry.getKey(), termPostings);
+                }
+
+                termPostings.put(section, entry.getValue());
+            }
+
+            sectionTerms.put(section, counts.keySet());
+        }
+    }
+
+    private void clearPostings(GrammarSectionNode section) {
+        Set<String> terms = sectionTerms.remove(section);
+
+        if (terms != null) {
+            for (String term : terms) {
+                Map<GrammarSectionNode, Integer> termPostings = postings.get(term);
+                termPostings.remove(section);
+
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void countTerms(String text, int weight, Map<String, Integer> counts) {
+        for (String term : tokenize(text)) {
+            Integer count = counts.get(term);
+            counts.put(term, count == null ? weight : count + weight);
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> ret = new ArrayList<>();
+        int start = -1;
+
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && isWordChar(text.charAt(i));
+
+            if (wordChar && start == -1) {
+                start = i;
+            } else if (!wordChar && start != -1) {
+                ret.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+
+        return ret;
+    }
+
+    private static boolean isWordChar(char c) {
+        int type = Character.getType(c);
+
+        return Character.isLetterOrDigit(c)
+                || type == Character.NON_SPACING_MARK
+                || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    /**
+     * Strips font and image markup from stored section text
+     *
+     * @param sectionText text in storage format
+     * @return text as displayed
+     */
+    static String plainText(String sectionText) {
+        StringBuilder ret = new StringBuilder(sectionText.length());
+        int pos = 0;
+
+        while (pos < sectionText.length()) {
+            int tagStart = sectionText.indexOf('<', pos);
+
+            if (tagStart == -1) {
+                ret.append(sectionText, pos, sectionText.length());
+                break;
+            }
+
+            ret.append(sectionText, pos, tagStart);
+            int tagEnd = sectionText.indexOf('>', tagStart);
+
+            if (tagEnd != -1 && (sectionText.startsWith("<font", tagStart)
+                    || sectionText.startsWith("</font", tagStart))) {
+                pos = tagEnd + 1;
+            } else if (tagEnd != -1 && sectionText.startsWith("<img src=", tagStart)) {
+                // keep words either side of an image apart
+                ret.append(' ');
+                pos = tagEnd + 1;
+            } else {
+                ret.append('<');
+                pos = tagStart + 1;
+            }
+        }
+
+        return ret.toString();
+    }
+
+    /**
+     * A section matching a search
+     */
+    public static class Hit {
+
+        private final GrammarSectionNode section;
+        private final GrammarChapNode chapter;
+        private final double score;
+
+        Hit(GrammarSectionNode _section, GrammarChapNode _chapter, double _score) {
+            section = _section;
+            chapter = _chapter;
+            score = _score;
+        }
+
+        public GrammarSectionNode getSection() {
+            return section;
+        }
+
+        public GrammarChapNode getChapter() {
+            return chapter;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -21,18 +21,20 @@ package PolyGlot.ManagersCollections;
 
 import PolyGlot.Nodes.ConWord;
 import PolyGlot.DictCore;
+import PolyGlot.Nodes.DictNode;
 import PolyGlot.Nodes.LogoNode;
 import PolyGlot.PGTUtil;
 import PolyGlot.WebInterface;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  *
@@ -42,6 +44,7 @@ public class LogoCollection extends DictionaryCollection {
     private final Map<Integer, ArrayList<Integer>> logoToWord;
     private final Map<Integer, ArrayList<Integer>> wordToLogo;
     private final DictCore core;
+    private final LogoIndex index = new LogoIndex();
     
     /**
      * Adds relation between logograph and word
@@ -65,6 +68,10 @@ public class LogoCollection extends DictionaryCollection {
         logoToWord.get(logo.getId()).add(word.getId());
         wordToLogo.get(word.getId()).add(logo.getId());
         
+        if (!index.containsWord(word.getId())) {
+            index.setWord(word.getId(), word.getValue());
+        }
+        
         return true;
     }
     
@@ -76,6 +83,41 @@ public class LogoCollection extends DictionaryCollection {
     public void removeWordLogoRelation(ConWord word, LogoNode logo) {
         logoToWord.get(logo.getId()).remove(word.getId());
         wordToLogo.get(word.getId()).remove(logo.getId());
+        
+        if (wordToLogo.get(word.getId()).isEmpty()) {
+            index.removeWord(word.getId());
+        }
+    }
+    
+    /**
+     * Updates recorded value of word, if it is related to any logographs.
+     * Called whenever a word in the dictionary changes.
+     * @param word word which has changed
+     */
+    public void wordChanged(ConWord word) {
+        if (index.containsWord(word.getId())) {
+            index.setWord(word.getId(), word.getValue());
+        }
+    }
+    
+    /**
+     * Drops recorded value of deleted word, so that logographs related to it
+     * are no longer found by its value
+     * @param wordId ID of deleted word
+     */
+    public void wordDeleted(Integer wordId) {
+        index.removeWord(wordId);
+    }
+    
+    /**
+     * Updates lookup index for a logograph after its values have changed.
+     * Ignores logographs not held by this collection (buffers, etc.)
+     * @param logo logograph to reindex
+     */
+    public void updateLogoIndex(LogoNode logo) {
+        if (nodeMap.get(logo.getId()) == logo) {
+            index.setLogo(logo);
+        }
     }
     
     /**
@@ -95,6 +137,23 @@ public class LogoCollection extends DictionaryCollection {
         }
         
         super.deleteNodeById(_id);
+        index.removeLogo(_id);
+    }
+    
+    @Override
+    public void modifyNode(Integer _id, DictNode _modNode) throws Exception {
+        super.modifyNode(_id, _modNode);
+        ((LogoNode) _modNode).setParent(this);
+        index.setLogo((LogoNode) _modNode);
+    }
+    
+    @Override
+    protected Integer insert(Integer _id, DictNode _buffer) throws Exception {
+        Integer ret = super.insert(_id, _buffer);
+        ((LogoNode) _buffer).setParent(this);
+        index.setLogo((LogoNode) _buffer);
+        
+        return ret;
     }
     
     public LogoCollection(DictCore _core) {
@@ -118,7 +177,9 @@ public class LogoCollection extends DictionaryCollection {
     }
     
     /**
-     * Returns list of logoNodes that match given filters
+     * Returns list of logoNodes that match given filters. Reading, radical,
+     * stroke and related word filters are looked up in the index and
+     * intersected; only the logographs left are checked against the notes.
      * @param reading reading filter (logonode contains)
      * @param relWord related word filter
      * @param radical radical filter (by name)
@@ -131,61 +192,116 @@ public class LogoCollection extends DictionaryCollection {
             String radical, 
             int strokes, 
             String notes) {
-        List<LogoNode> retList = new ArrayList<>();
-        Iterator<LogoNode> it = getAllLogos().iterator();
         boolean ignoreCase = core.getPropertiesManager().isIgnoreCase();
+        BitSet candidates = null;
         
-        while (it.hasNext()) {
-            LogoNode curNode = it.next();
-
-            if (!reading.trim().equals("") && !curNode.containsReading(reading, ignoreCase)) {
-                continue;
-            } else if (!radical.trim().equals("") && !curNode.containsRadicalString(radical, ignoreCase)) {
-                continue;
-            } else if (strokes != 0 && strokes != curNode.getStrokes()) {
+        if (!reading.trim().equals("")) {
+            candidates = intersect(candidates, index.getByReading(reading));
+        }
+        if (!radical.trim().equals("")) {
+            candidates = intersect(candidates, index.getByRadicalName(radical));
+        }
+        if (strokes != 0) {
+            candidates = intersect(candidates, index.getByStrokes(strokes));
+        }
+        if (!relWord.trim().equals("")) {
+            candidates = intersect(candidates, getRelatedLogos(relWord, ignoreCase));
+        }
+        
+        List<LogoNode> retList = new ArrayList<>();
+        List<LogoNode> checkList = new ArrayList<>();
+        
+        if (candidates == null) {
+            for (Object curNode : nodeMap.values()) {
+                checkList.add((LogoNode) curNode);
+            }
+        } else {
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                checkList.add((LogoNode) nodeMap.get(i));
+            }
+        }
+        
+        for (LogoNode curNode : checkList) {
+            // index matches ignore case, so recheck where case matters
+            if (!ignoreCase && !reading.trim().equals("") && !curNode.containsReading(reading, false)) {
                 continue;
-            } else if (!relWord.trim().equals("") && !logoRelatedToWord(curNode, relWord)) {
+            } else if (!ignoreCase && !radical.trim().equals("") && !curNode.containsRadicalString(radical, false)) {
                 continue;
             } else if (!notes.trim().equals("") && 
-                    ((ignoreCase && !curNode.getNotes().toLowerCase().contains(notes.toLowerCase())) 
-                            || !curNode.getNotes().contains(notes))) {
+                    (ignoreCase ? !curNode.getNotes().toLowerCase().contains(notes.toLowerCase()) 
+                            : !curNode.getNotes().contains(notes))) {
                 continue;                
             }            
             
             retList.add(curNode);
         }
         
+        Collections.sort(retList);
+        
+        return retList;
+    }
+    
+    /**
+     * Returns logographs with any reading beginning with the given text
+     * @param prefix start of reading to search for (case insensitive)
+     * @return matching logographs, sorted
+     */
+    public List<LogoNode> getLogosByReadingPrefix(String prefix) {
+        List<LogoNode> retList = new ArrayList<>();
+        BitSet found = index.getByReadingPrefix(prefix);
+        
+        for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1)) {
+            retList.add((LogoNode) nodeMap.get(i));
+        }
+        
+        Collections.sort(retList);
+        
         return retList;
     }
     
     /**
-     * tests whether a logonode is related to a word via string search
-     * @param node logonode in question
+     * Gets IDs of all logographs related to a word with the given value
      * @param relWord string representation of word to be searched
-     * @return true if related, false otherwise
+     * @param ignoreCase whether to ignore case when matching the word
+     * @return IDs of related logographs
      */
-    private boolean logoRelatedToWord(LogoNode node, String relWord) {
-        boolean ret = false;
-        boolean ignoreCase = core.getPropertiesManager().isIgnoreCase();
+    private BitSet getRelatedLogos(String relWord, boolean ignoreCase) {
+        BitSet ret = new BitSet();
+        BitSet wordIds = index.getWordsByValue(relWord);
         
-        if (logoToWord.containsKey(node.getId())) {
-            Iterator<Integer> it = logoToWord.get(node.getId()).iterator();
+        for (int i = wordIds.nextSetBit(0); i >= 0; i = wordIds.nextSetBit(i + 1)) {
+            List<Integer> logoIds = wordToLogo.get(i);
             
-            while (it.hasNext()) {
+            if (logoIds == null) {
+                continue;
+            }
+            
+            if (!ignoreCase) {
                 try {
-                    ConWord curWord = core.getWordCollection().getNodeById(it.next());
-                    if ((ignoreCase && curWord.getValue().equalsIgnoreCase(relWord))
-                            || curWord.getValue().equals(relWord)) {
-                        ret = true;
-                        break;
+                    if (!core.getWordCollection().getNodeById(i).getValue().equals(relWord)) {
+                        continue;
                     }
-                } catch (Exception e) {/*do nothing*/}
+                } catch (Exception e) {
+                    continue;
+                }
+            }
+            
+            for (Integer logoId : logoIds) {
+                ret.set(logoId);
             }
         }
         
         return ret;
     }
     
+    private static BitSet intersect(BitSet candidates, BitSet found) {
+        if (candidates != null) {
+            found.and(candidates);
+        }
+        
+        return found;
+    }
+    
     /**
      * Gets list of all logographs for given word
      * @param conWord word to search on
@@ -254,82 +370,57 @@ public class LogoCollection extends DictionaryCollection {
     }
     
     /**
-     * Writes all word information to XML document
-     * @param doc Document to write to
-     * @param rootElement root element of document
+     * Writes all word information to XML stream
+     * @param writer stream to write to
+     * @throws XMLStreamException on write failure
      */
-    public void writeXML(Document doc, Element rootElement) {
-        Element logoRoot = doc.createElement(PGTUtil.logoRootNoteXID);
-        rootElement.appendChild(logoRoot);
+    public void writeXML(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(PGTUtil.logoRootNoteXID);
         
         // write all logographs to XML
         Iterator<LogoNode> it = getAllLogos().iterator();
-        Element logoCollection = doc.createElement(PGTUtil.logoGraphsCollectionXID);
-        logoRoot.appendChild(logoCollection);
+        writer.writeStartElement(PGTUtil.logoGraphsCollectionXID);
         while (it.hasNext()) {
-            Element logoGraph = doc.createElement(PGTUtil.logoGraphNodeXID);
-            Element node;
-            
             LogoNode curNode = it.next();
             
-            node = doc.createElement(PGTUtil.logoGraphIdXID);
-            node.appendChild(doc.createTextNode(curNode.getId().toString()));
-            logoGraph.appendChild(node);
-            
-            node = doc.createElement(PGTUtil.logoGraphValueXID);
-            node.appendChild(doc.createTextNode(curNode.getValue()));
-            logoGraph.appendChild(node);
-            
-            node = doc.createElement(PGTUtil.logoIsRadicalXID);
-            node.appendChild(doc.createTextNode(curNode.isRadical()? PGTUtil.True :PGTUtil.False));
-            logoGraph.appendChild(node);
-            
-            node = doc.createElement(PGTUtil.logoNotesXID);
-            node.appendChild(doc.createTextNode(WebInterface.archiveHTML(curNode.getNotes())));
-            logoGraph.appendChild(node);
-            
-            node = doc.createElement(PGTUtil.logoRadicalListXID);
-            node.appendChild(doc.createTextNode(curNode.getRadicalListString()));
-            logoGraph.appendChild(node);
-            
-            node = doc.createElement(PGTUtil.logoStrokesXID);
-            node.appendChild(doc.createTextNode(curNode.getStrokes().toString()));
-            logoGraph.appendChild(node);
+            writer.writeStartElement(PGTUtil.logoGraphNodeXID);
+            PGTUtil.writeXMLElement(writer, PGTUtil.logoGraphIdXID, curNode.getId().toString());
+            PGTUtil.writeXMLElement(writer, PGTUtil.logoGraphValueXID, curNode.getValue());
+            PGTUtil.writeXMLElement(writer, PGTUtil.logoIsRadicalXID, curNode.isRadical()? PGTUtil.True :PGTUtil.False);
+            PGTUtil.writeXMLElement(writer, PGTUtil.logoNotesXID, WebInterface.archiveHTML(curNode.getNotes()));
+            PGTUtil.writeXMLElement(writer, PGTUtil.logoRadicalListXID, curNode.getRadicalListString());
+            PGTUtil.writeXMLElement(writer, PGTUtil.logoStrokesXID, curNode.getStrokes().toString());
             
             Iterator<String> readings = curNode.getReadings().iterator();
             while (readings.hasNext()) {
-                String curReading = readings.next();
-                
-                node = doc.createElement(PGTUtil.logoReadingXID);
-                node.appendChild(doc.createTextNode(curReading));
-                logoGraph.appendChild(node);
+                PGTUtil.writeXMLElement(writer, PGTUtil.logoReadingXID, readings.next());
             }
             
-            logoCollection.appendChild(logoGraph);
+            writer.writeEndElement();
         }
+        writer.writeEndElement();
         
         // write all logo->word relations to XML (reverse will be inferred on load)
         Iterator<Entry<Integer, ArrayList<Integer>>> setIt = logoToWord.entrySet().iterator();
-        Element relationsCollection = doc.createElement(PGTUtil.logoRelationsCollectionXID);
-        logoRoot.appendChild(relationsCollection);
+        writer.writeStartElement(PGTUtil.logoRelationsCollectionXID);
         while (setIt.hasNext()) {
             Entry<Integer, ArrayList<Integer>> curEntry = setIt.next();
             Iterator<Integer> relIt = curEntry.getValue().iterator();
-            String logoId = curEntry.getKey().toString();
-            String wordIds = "";
+            StringBuilder wordIds = new StringBuilder();
             
             while (relIt.hasNext()) {
-                wordIds += ("," + relIt.next().toString());
+                wordIds.append(",").append(relIt.next().toString());
             }
             
             // only add if there is one more more relation
-            if (!wordIds.equals("")) {
-                Element node = doc.createElement(PGTUtil.logoWordRelationXID);
+            if (wordIds.length() != 0) {
                 // node is encoded with the logograph ID first, followed by all related words IDs
-                node.appendChild(doc.createTextNode(logoId + wordIds));
-                relationsCollection.appendChild(node);
+                PGTUtil.writeXMLElement(writer, PGTUtil.logoWordRelationXID, curEntry.getKey().toString() + wordIds);
             }
         }
+        writer.writeEndElement();
+        
+        writer.writeEndElement();
     }
     
     public LogoNode getBufferNode() {
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot.ManagersCollections;
+
+import PolyGlot.Nodes.LogoNode;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * Maintained lookup of logographs by reading, radical, stroke count and the
+ * values of their related words, held as bitmaps of logograph IDs so that
+ * filters combine by intersection. All strings are indexed case folded, so
+ * results match case insensitively: case sensitive callers must still verify
+ * each candidate.
+ *
+ * @author draque
+ */
+class LogoIndex {
+
+    private final TreeMap<String, BitSet> readings = new TreeMap<>();
+    private final Map<String, BitSet> names = new HashMap<>();
+    private final Map<Integer, BitSet> radicals = new HashMap<>();
+    private final Map<Integer, BitSet> strokes = new HashMap<>();
+    private final Map<Integer, LogoState> logos = new HashMap<>();
+    private final Map<String, BitSet> wordValues = new HashMap<>();
+    private final Map<Integer, String> words = new HashMap<>();
+
+    /**
+     * Records current name, readings, radicals and stroke count of logograph,
+     * replacing whatever was recorded for it before
+     *
+     * @param logo logograph to index
+     */
+    void setLogo(LogoNode logo) {
+        int logoId = logo.getId();
+        removeLogo(logoId);
+
+        LogoState state = new LogoState();
+        state.name = fold(logo.getValue());
+        state.strokes = logo.getStrokes();
+        add(names, state.name, logoId);
+        add(strokes, state.strokes, logoId);
+
+        for (String reading : logo.getReadings()) {
+            if (reading != null) {
+                String key = fold(reading);
+                state.readings.add(key);
+                add(readings, key, logoId);
+            }
+        }
+
+        for (LogoNode radical : logo.getRadicals()) {
+            if (radical != null) {
+                state.radicals.add(radical.getId());
+                add(radicals, radical.getId(), logoId);
+            }
+        }
+
+        logos.put(logoId, state);
+    }
+
+    /**
+     * Removes all entries of logograph
+     *
+     * @param logoId ID of logograph to remove
+     */
+    void removeLogo(int logoId) {
+        LogoState state = logos.remove(logoId);
+
+        if (state == null) {
+            return;
+        }
+
+        remove(names, state.name, logoId);
+        remove(strokes, state.strokes, logoId);
+
+        for (String reading : state.readings) {
+            remove(readings, reading, logoId);
+        }
+
+        for (Integer radicalId : state.radicals) {
+            remove(radicals, radicalId, logoId);
+        }
+    }
+
+    /**
+     * Records current value of a word related to one or more logographs
+     *
+     * @param wordId ID of word
+     * @param value value of word
+     */
+    void setWord(int wordId, String value) {
+        removeWord(wordId);
+
+        String key = fold(value);
+        words.put(wordId, key);
+        add(wordValues, key, wordId);
+    }
+
+    /**
+     * Removes recorded value of word
+     *
+     * @param wordId ID of word to remove
+     */
+    void removeWord(int wordId) {
+        String key = words.remove(wordId);
+
+        if (key != null) {
+            remove(wordValues, key, wordId);
+        }
+    }
+
+    /**
+     * @param wordId ID of word
+     * @return true if value of word is recorded
+     */
+    boolean containsWord(int wordId) {
+        return words.containsKey(wordId);
+    }
+
+    /**
+     * @param reading reading to match
+     * @return IDs of logographs with matching reading
+     */
+    BitSet getByReading(String reading) {
+        return copy(readings.get(fold(reading)));
+    }
+
+    /**
+     * @param prefix start of reading to match
+     * @return IDs of logographs with any reading beginning with prefix
+     */
+    BitSet getByReadingPrefix(String prefix) {
+        String key = fold(prefix);
+        BitSet ret = new BitSet();
+
+        for (Entry<String, BitSet> curEntry : readings.tailMap(key, true).entrySet()) {
+            if (!curEntry.getKey().startsWith(key)) {
+                break;
+            }
+
+            ret.or(curEntry.getValue());
+        }
+
+        return ret;
+    }
+
+    /**
+     * @param name name of radical to match
+     * @return IDs of logographs with a radical of matching name
+     */
+    BitSet getByRadicalName(String name) {
+        BitSet ret = new BitSet();
+        BitSet radicalIds = names.get(fold(name));
+
+        if (radicalIds != null) {
+            for (int i = radicalIds.nextSetBit(0); i >= 0; i = radicalIds.nextSetBit(i + 1)) {
+                BitSet postings = radicals.get(i);
+
+                if (postings != null) {
+                    ret.or(postings);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * @param strokeCount number of strokes to match
+     * @return IDs of logographs with stroke count
+     */
+    BitSet getByStrokes(int strokeCount) {
+        return copy(strokes.get(strokeCount));
+    }
+
+    /**
+     * @param value word value to match
+     * @return IDs of recorded words with matching value
+     */
+    BitSet getWordsByValue(String value) {
+        return copy(wordValues.get(fold(value)));
+    }
+
+    /**
+     * Folds case of each character the same way String.equalsIgnoreCase
+     * compares them, so that equal keys mean an equalsIgnoreCase match
+     *
+     * @param text text to fold
+     * @return folded text
+     */
+    static String fold(String text) {
+        char[] ret = text.toCharArray();
+
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = Character.toLowerCase(Character.toUpperCase(ret[i]));
+        }
+
+        return new String(ret);
+    }
+
+    private static BitSet copy(BitSet postings) {
+        return postings == null ? new BitSet() : (BitSet) postings.clone();
+    }
+
+    private static <K> void add(Map<K, BitSet> index, K key, int id) {
+        BitSet postings = index.get(key);
+
+        if (postings == null) {
+            postings = new BitSet();
+            index.put(key, postings);
+        }
+
+        postings.set(id);
+    }
+
+    private static <K> void remove(Map<K, BitSet> index, K key, int id) {
+        BitSet postings = index.get(key);
+
+        if (postings != null) {
+            postings.clear(id);
+
+            if (postings.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Values a logograph was last indexed under
+     */
+    private static class LogoState {
+
+        String name;
+        int strokes;
+        final List<String> readings = new ArrayList<>();
+        final List<Integer> radicals = new ArrayList<>();
+    }
+}
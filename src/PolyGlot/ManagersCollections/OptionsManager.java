@@ -37,6 +37,7 @@ import java.util.Map;
 public class OptionsManager {
 
     private boolean animateWindows = true;
+    private boolean deepSaveVerify = false;
     private List<String> lastFiles = new ArrayList<>();
     private final Map<String, Point> screenPos = new HashMap<>();
     private final Map<String, Dimension> screenSize = new HashMap<>();
@@ -179,4 +180,19 @@ public class OptionsManager {
     public void setAnimateWindows(boolean animateWindows) {
         this.animateWindows = animateWindows;
     }
+
+    /**
+     * @return whether saves are verified by fully reloading the written file
+     */
+    public boolean isDeepSaveVerify() {
+        return deepSaveVerify;
+    }
+
+    /**
+     * @param _deepSaveVerify whether saves are verified by fully reloading the
+     * written file rather than by checking archive structure only
+     */
+    public void setDeepSaveVerify(boolean _deepSaveVerify) {
+        deepSaveVerify = _deepSaveVerify;
+    }
 }
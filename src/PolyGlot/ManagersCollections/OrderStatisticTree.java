@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot.ManagersCollections;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sorted collection with positional access. Elements are held in a weight
+ * balanced binary tree in which every node records the size of its subtree,
+ * so adding, removing and finding the element at an index are all
+ * logarithmic, and a range of k elements is read in log n + k. Elements
+ * comparing equal are not allowed: callers must break ties.
+ *
+ * @author draque
+ * @param <E> type of element
+ */
+class OrderStatisticTree<E> {
+
+    // a subtree may be at most DELTA times the size of its sibling
+    private static final int DELTA = 3;
+    // decides between single and double rotation when rebalancing
+    private static final int RATIO = 2;
+    private final Comparator<? super E> comparator;
+    private Node<E> root = null;
+
+    OrderStatisticTree(Comparator<? super E> _comparator) {
+        comparator = _comparator;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    /**
+     * Replaces contents with given elements, which must already be sorted
+     *
+     * @param sorted elements in order
+     */
+    void setAll(List<E> sorted) {
+        root = build(sorted, 0, sorted.size());
+    }
+
+    /**
+     * Adds element, unless an equal element is already held
+     *
+     * @param value element to add
+     */
+    void add(E value) {
+        root = add(root, value);
+    }
+
+    /**
+     * Removes element equal to the one given, if held
+     *
+     * @param value element to remove
+     */
+    void remove(E value) {
+        root = remove(root, value);
+    }
+
+    /**
+     * @param index position of element
+     * @return element at index
+     */
+    E get(int index) {
+        if (index < 0 || index >= size(root)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size(root));
+        }
+
+        Node<E> node = root;
+
+        while (true) {
+            int leftSize = size(node.left);
+
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    /**
+     * Gets elements from one index up to (not including) another
+     *
+     * @param from index of first element
+     * @param to index past last element
+     * @return elements in order
+     */
+    List<E> getRange(int from, int to) {
+        List<E> ret = new ArrayList<>(Math.max(0, to - from));
+        collect(root, from, to, ret);
+
+        return ret;
+    }
+
+    private void collect(Node<E> node, int from, int to, List<E> ret) {
+        if (node == null || from >= to) {
+            return;
+        }
+
+        int leftSize = size(node.left);
+
+        if (from < leftSize) {
+            collect(node.left, from, to, ret);
+        }
+        if (from <= leftSize && to > leftSize) {
+            ret.add(node.value);
+        }
+        if (to > leftSize + 1) {
+            collect(node.right, from - leftSize - 1, to - leftSize - 1, ret);
+        }
+    }
+
+    private Node<E> build(List<E> sorted, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+
+        int mid = (from + to) >>> 1;
+        Node<E> ret = new Node<>(sorted.get(mid));
+        ret.left = build(sorted, from, mid);
+        ret.right = build(sorted, mid + 1, to);
+        ret.size = to - from;
+
+        return ret;
+    }
+
+    private Node<E> add(Node<E> node, E value) {
+        if (node == null) {
+            return new Node<>(value);
+        }
+
+        int comp = comparator.compare(value, node.value);
+
+        if (comp < 0) {
+            node.left = add(node.left, value);
+        } else if (comp > 0) {
+            node.right = add(node.right, value);
+        } else {
+            return node;
+        }
+
+        return balance(node);
+    }
+
+    private Node<E> remove(Node<E> node, E value) {
+        if (node == null) {
+            return null;
+        }
+
+        int comp = comparator.compare(value, node.value);
+
+        if (comp < 0) {
+            node.left = remove(node.left, value);
+        } else if (comp > 0) {
+            node.right = remove(node.right, value);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else {
+            // replace with first element of right subtree
+            Node<E> first = node.right;
+
+            while (first.left != null) {
+                first = first.left;
+            }
+
+            node.value = first.value;
+            node.right = remove(node.right, first.value);
+        }
+
+        return balance(node);
+    }
+
+    /**
+     * Restores weight balance of node after one of its subtrees has gained
+     * or lost a single element, and updates its size
+     */
+    private Node<E> balance(Node<E> node) {
+        int leftSize = size(node.left);
+        int rightSize = size(node.right);
+        Node<E> ret = node;
+
+        if (leftSize + rightSize > 1) {
+            if (rightSize > DELTA * leftSize) {
+                Node<E> right = node.right;
+
+                if (size(right.left) >= RATIO * size(right.right)) {
+                    node.right = rotateRight(right);
+                }
+
+                ret = rotateLeft(node);
+            } else if (leftSize > DELTA * rightSize) {
+                Node<E> left = node.left;
+
+                if (size(left.right) >= RATIO * size(left.left)) {
+                    node.left = rotateLeft(left);
+                }
+
+                ret = rotateRight(node);
+            }
+        }
+
+        resize(ret);
+
+        return ret;
+    }
+
+    private Node<E> rotateLeft(Node<E> node) {
+        Node<E> ret = node.right;
+        node.right = ret.left;
+        ret.left = node;
+        resize(node);
+        resize(ret);
+
+        return ret;
+    }
+
+    private Node<E> rotateRight(Node<E> node) {
+        Node<E> ret = node.left;
+        node.left = ret.right;
+        ret.right = node;
+        resize(node);
+        resize(ret);
+
+        return ret;
+    }
+
+    private static void resize(Node<?> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static class Node<E> {
+
+        E value;
+        Node<E> left = null;
+        Node<E> right = null;
+        int size = 1;
+
+        Node(E _value) {
+            value = _value;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot.ManagersCollections;
+
+import PolyGlot.Nodes.PronunciationNode;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiled form of a pronunciation list. Literal patterns are gathered into a
+ * prefix trie and regex patterns are compiled once, so breaking a word into
+ * pronunciation elements never recompiles a pattern. Results are memoized per
+ * word. An engine is immutable: when its list or settings change, the owning
+ * manager builds a new one (taking a fresh memo with it).
+ *
+ * @author draque
+ */
+class PronunciationEngine {
+
+    // upper bound on memoized words before the memo is reset
+    private static final int MEMO_LIMIT = 100000;
+    private static final String REGEX_CHARS = "\\^$.|?*+()[]{}";
+
+    private final PronunciationNode[] nodes;
+    private final String[] literals;
+    private final Pattern[] patterns;
+    private final PatternSyntaxException[] patternErrors;
+    private final boolean[] firstOnly;
+    private final boolean anyRegex;
+    private final boolean ignoreCase;
+    private final TrieNode trie = new TrieNode();
+    private final Map<String, List<PronunciationNode>> elementMemo = new ConcurrentHashMap<>();
+    private final Map<String, String> pronunciationMemo = new ConcurrentHashMap<>();
+
+    /**
+     * Compiles pronunciation list
+     *
+     * @param procs pronunciations in priority order
+     * @param disableRegex true if patterns are compared as plain text
+     * @param _ignoreCase true if plain text comparison ignores case
+     */
+    PronunciationEngine(List<PronunciationNode> procs, boolean disableRegex, boolean _ignoreCase) {
+        int size = procs.size();
+        boolean regexFound = false;
+
+        nodes = procs.toArray(new PronunciationNode[size]);
+        literals = new String[size];
+        patterns = new Pattern[size];
+        patternErrors = new PatternSyntaxException[size];
+        firstOnly = new boolean[size];
+        ignoreCase = disableRegex && _ignoreCase;
+
+        for (int i = 0; i < size; i++) {
+            String pattern = nodes[i].getValue();
+
+            if (disableRegex) {
+                literals[i] = ignoreCase ? lowerCase(pattern) : pattern;
+            } else {
+                if (pattern.startsWith("^")) {
+                    firstOnly[i] = true;
+                    pattern = pattern.substring(1);
+                }
+
+                if (isLiteral(pattern)) {
+                    literals[i] = pattern;
+                } else {
+                    regexFound = true;
+
+                    try {
+                        patterns[i] = Pattern.compile("^(" + pattern + ").*");
+                    } catch (PatternSyntaxException e) {
+                        patternErrors[i] = e;
+                    }
+                }
+            }
+
+            // empty patterns can never consume characters
+            if (literals[i] != null && literals[i].length() > 0) {
+                trie.add(literals[i], i);
+            }
+        }
+
+        anyRegex = regexFound;
+    }
+
+    /**
+     * Returns pronunciation string of word, elements separated by spaces
+     *
+     * @param base word to pronounce
+     * @return pronunciation, empty if no perfect match found
+     */
+    String getPronunciation(String base) {
+        String ret = pronunciationMemo.get(base);
+
+        if (ret == null) {
+            StringBuilder builder = new StringBuilder();
+
+            for (PronunciationNode curProc : getElements(base)) {
+                builder.append(curProc.getPronunciation()).append(" ");
+            }
+
+            ret = builder.toString();
+            remember(pronunciationMemo, base, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Breaks word into pronunciation elements. Earlier patterns take priority,
+     * falling through to later ones only where an earlier choice cannot
+     * complete the word.
+     *
+     * @param base word to break down
+     * @return elements of word. Empty if no perfect match found
+     */
+    List<PronunciationNode> getElements(String base) {
+        List<PronunciationNode> ret = elementMemo.get(base);
+
+        if (ret == null) {
+            ret = Collections.unmodifiableList(findElements(base));
+            remember(elementMemo, base, ret);
+        }
+
+        return ret;
+    }
+
+    private List<PronunciationNode> findElements(String base) {
+        List<PronunciationNode> ret = new ArrayList<>();
+        int length = base.length();
+
+        if (length == 0 || nodes.length == 0) {
+            return ret;
+        }
+
+        String text = ignoreCase ? lowerCase(base) : base;
+        Matcher[] matchers = new Matcher[nodes.length];
+        int[] choice = new int[length];
+        int[] next = new int[length];
+        boolean[] solved = new boolean[length];
+
+        if (solve(text, 0, true, matchers, choice, next, solved)) {
+            for (int pos = 0; pos < length; pos = next[pos]) {
+                ret.add(nodes[choice[pos]]);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Finds the first pattern at a position which leads to a complete match
+     * of the rest of the word. Positions past the first are solved only once.
+     */
+    private boolean solve(String text, int pos, boolean isFirst, Matcher[] matchers,
+            int[] choice, int[] next, boolean[] solved) {
+        if (!isFirst && solved[pos]) {
+            return choice[pos] != -1;
+        }
+
+        int length = text.length();
+        BitSet literalHits = trie.matchesAt(text, pos, nodes.length);
+        int found = -1;
+        int end = -1;
+        int i = anyRegex ? 0 : literalHits.nextSetBit(0);
+
+        while (i != -1 && i < nodes.length) {
+            int matchEnd = -1;
+
+            if (firstOnly[i] && !isFirst) {
+                // starting patterns only apply at the start of the word
+            } else if (literals[i] != null) {
+                if (literalHits.get(i)) {
+                    matchEnd = pos + literals[i].length();
+                }
+            } else {
+                if (patternErrors[i] != null) {
+                    throw patternErrors[i];
+                }
+
+                Matcher matcher = matchers[i];
+                if (matcher == null) {
+                    matcher = patterns[i].matcher(text);
+                    matchers[i] = matcher;
+                }
+                matcher.region(pos, length);
+
+                if (matcher.matches() && matcher.end(1) > pos) {
+                    matchEnd = matcher.end(1);
+                }
+            }
+
+            if (matchEnd != -1 && (matchEnd == length
+                    || solve(text, matchEnd, false, matchers, choice, next, solved))) {
+                found = i;
+                end = matchEnd;
+                break;
+            }
+
+            i = anyRegex ? i + 1 : literalHits.nextSetBit(i + 1);
+        }
+
+        // only the first position may differ by whether starting patterns apply
+        if (!isFirst || found != -1) {
+            choice[pos] = found;
+            next[pos] = end;
+        }
+        if (!isFirst) {
+            solved[pos] = true;
+        }
+
+        return found != -1;
+    }
+
+    private static <T> void remember(Map<String, T> memo, String key, T value) {
+        if (memo.size() >= MEMO_LIMIT) {
+            memo.clear();
+        }
+
+        memo.put(key, value);
+    }
+
+    private static boolean isLiteral(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if (REGEX_CHARS.indexOf(pattern.charAt(i)) != -1) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Lowercases character by character so that positions in the lowered
+     * string line up with the original
+     */
+    private static String lowerCase(String text) {
+        char[] chars = text.toCharArray();
+
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+
+        return new String(chars);
+    }
+
+    /**
+     * Prefix trie of literal patterns, each terminal recording the indices of
+     * the patterns ending there
+     */
+    private static class TrieNode {
+
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private final List<Integer> terminals = new ArrayList<>();
+
+        void add(String pattern, int index) {
+            TrieNode cur = this;
+
+            for (int i = 0; i < pattern.length(); i++) {
+                Character c = pattern.charAt(i);
+                TrieNode child = cur.children.get(c);
+
+                if (child == null) {
+                    child = new TrieNode();
+                    cur.children.put(c, child);
+                }
+
+                cur = child;
+            }
+
+            cur.terminals.add(index);
+        }
+
+        /**
+         * Gets indices of every literal pattern found at position of text
+         */
+        BitSet matchesAt(String text, int pos, int size) {
+            BitSet ret = new BitSet(size);
+            TrieNode cur = this;
+
+            for (int i = pos; i < text.length() && cur != null; i++) {
+                cur = cur.children.get(text.charAt(i));
+
+                if (cur != null) {
+                    for (Integer index : cur.terminals) {
+                        ret.set(index);
+                    }
+                }
+            }
+
+            return ret;
+        }
+    }
+}
@@ -25,10 +25,8 @@ import PolyGlot.Nodes.PronunciationNode;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  *
@@ -44,6 +42,23 @@ public class PronunciationMgr {
 
     private List<PronunciationNode> pronunciations = new ArrayList<>();
 
+    // incremented on every change to the pronunciation list
+    private int revision = 0;
+    private PronunciationEngine engine = null;
+    private int engineRevision = -1;
+    private boolean engineDisableRegex = false;
+    private boolean engineIgnoreCase = false;
+
+    /**
+     * Gets revision of pronunciation list. Any change to the list produces a
+     * new revision, so values generated at an older revision may be stale.
+     *
+     * @return current revision
+     */
+    public int getRevision() {
+        return revision;
+    }
+
     /**
      * Sets list of pronunciations
      *
@@ -51,6 +66,7 @@ public class PronunciationMgr {
      */
     public void setPronunciations(List<PronunciationNode> _pronunciations) {
         pronunciations = _pronunciations;
+        revision++;
     }
 
     /**
@@ -90,6 +106,7 @@ public class PronunciationMgr {
      */
     public void addAtPosition(int index, PronunciationNode newNode) {
         pronunciations.add(index, newNode);
+        revision++;
     }
 
     /**
@@ -101,6 +118,7 @@ public class PronunciationMgr {
     public void modifyProc(int index, PronunciationNode newNode) {
         pronunciations.remove(index);
         pronunciations.add(index, newNode);
+        revision++;
     }
 
     /**
@@ -118,6 +136,7 @@ public class PronunciationMgr {
 
         pronunciations.remove(index);
         pronunciations.add(index - 1, node);
+        revision++;
     }
 
     /**
@@ -135,6 +154,7 @@ public class PronunciationMgr {
 
         pronunciations.remove(index);
         pronunciations.add(index + 1, node);
+        revision++;
     }
 
     public void deletePronunciation(PronunciationNode remove) {
@@ -149,10 +169,12 @@ public class PronunciationMgr {
         }
 
         pronunciations = newProcs;
+        revision++;
     }
 
     public void addPronunciation(PronunciationNode newNode) {
         pronunciations.add(newNode);
+        revision++;
     }
 
     /**
@@ -163,137 +185,53 @@ public class PronunciationMgr {
      * returned
      */
     public String getPronunciation(String base) {
-        String ret = "";
-
-        Iterator<PronunciationNode> procCycle = getPronunciationElements(base, true).iterator();
-        while (procCycle.hasNext()) {
-            PronunciationNode curProc = procCycle.next();
-            ret += curProc.getPronunciation() + " ";
-        }
-
-        return ret;
+        return getEngine().getPronunciation(base);
     }
 
     /**
      * Returns pronunciation elements of word
      *
      * @param base word to find pronunciation elements of
-     * @return elements of pronunciation for word. Empty if no perfect match
-     * found
+     * @return elements of pronunciation for word (read only). Empty if no
+     * perfect match found
      */
     public List<PronunciationNode> getPronunciationElements(String base) {
-        return getPronunciationElements(base, true);
+        return getEngine().getElements(base);
     }
-    
+
     /**
-     * returns pronunciation objects of a given word
+     * Gets compiled form of the pronunciation list, rebuilding it if the list
+     * or the pattern settings have changed since it was last compiled
      *
-     * @param base word to find pronunciation objects of
-     * @param isFirst set to true if first iteration.
-     * @return pronunciation object list. If no perfect match found, empty
-     * string returned
+     * @return current engine
      */
-    private List<PronunciationNode> getPronunciationElements(String base, boolean isFirst) {
-        List<PronunciationNode> ret = new ArrayList<>();
-        Iterator<PronunciationNode> finder = getPronunciations().iterator();
-
-        // return blank for empty string
-        if (base.length() == 0 || !finder.hasNext()) {
-            return ret;
+    synchronized PronunciationEngine getEngine() {
+        boolean disableRegex = core.getPropertiesManager().isDisableProcRegex();
+        boolean ignoreCase = core.getPropertiesManager().isIgnoreCase();
+
+        if (engine == null || engineRevision != revision
+                || engineDisableRegex != disableRegex
+                || engineIgnoreCase != ignoreCase) {
+            engine = new PronunciationEngine(pronunciations, disableRegex, ignoreCase);
+            engineRevision = revision;
+            engineDisableRegex = disableRegex;
+            engineIgnoreCase = ignoreCase;
         }
 
-        while (finder.hasNext()) {
-            PronunciationNode curNode = finder.next();
-            String pattern = curNode.getValue();
-
-            // split logic here to use either string comparison or regex matching
-            if (core.getPropertiesManager().isDisableProcRegex()) {
-                // do not overstep string
-                if (pattern.length() > base.length()) {
-                    continue;
-                }
-
-                // capture string to compare based on pattern length
-                String comp = base.substring(0, curNode.getValue().length());
-                
-                if (core.getPropertiesManager().isIgnoreCase()) {
-                    comp = comp.toLowerCase();
-                    pattern = pattern.toLowerCase();
-                }
-                
-                if (comp.equals(pattern)) {
-                    List<PronunciationNode> temp
-                            = getPronunciationElements(base.substring(pattern.length(), base.length()), false);
-
-                    // if lengths are equal, success! return. If unequal and no further match found-failure
-                    if (pattern.length() == base.length() || !temp.isEmpty()) {
-                        ret.add(curNode);
-                        ret.addAll(temp);
-                        break;
-                    }
-                }
-            } else {
-                // skip if set as starting characters, but later in word
-                if (pattern.startsWith("^") && !isFirst) {
-                    continue;
-                }
-
-                // make pattern a starting pattern if not already, if it is already, allow it to accept following strings
-                if (!pattern.startsWith("^")) {
-                    pattern = "^(" + pattern + ").*";
-                } else {
-                    pattern = "^(" + pattern.substring(1) + ").*";
-                }
-
-                Pattern findString = Pattern.compile(pattern);
-                Matcher matcher = findString.matcher(base);
-
-                if (matcher.matches()) {
-                    String leadingChars = matcher.group(1);
-                    
-                    // if a user has entered an empty pattern... just continue.
-                    if (leadingChars.equals("")) {
-                        continue;
-                    }
-                    List<PronunciationNode> temp
-                            = getPronunciationElements(base.substring(leadingChars.length(), base.length()), false);
-
-                    // if lengths are equal, success! return. If unequal and no further match found-failure
-                    if (leadingChars.length() == base.length() || !temp.isEmpty()) {
-                        ret.add(curNode);
-                        ret.addAll(temp);
-                        break;
-                    }
-                }
-            }
-        }
-
-        return ret;
+        return engine;
     }
     
     /**
-     * Writes all pronunciation information to XML document
-     * @param doc Document to write to
-     * @param rootElement root element of document
+     * Writes all pronunciation information to XML stream
+     * @param writer stream to write to
+     * @throws XMLStreamException on write failure
      */
-    public void writeXML(Document doc, Element rootElement) {
-        Iterator<PronunciationNode> procGuide = getPronunciations().iterator();
-        Element wordNode;
-        Element wordValue;
-        
-        while (procGuide.hasNext()) {
-            PronunciationNode curNode = procGuide.next();
-
-            wordNode = doc.createElement(PGTUtil.proGuideXID);
-            rootElement.appendChild(wordNode);
-
-            wordValue = doc.createElement(PGTUtil.proGuideBaseXID);
-            wordValue.appendChild(doc.createTextNode(curNode.getValue()));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.proGuidePhonXID);
-            wordValue.appendChild(doc.createTextNode(curNode.getPronunciation()));
-            wordNode.appendChild(wordValue);
+    public void writeXML(XMLStreamWriter writer) throws XMLStreamException {
+        for (PronunciationNode curNode : getPronunciations()) {
+            writer.writeStartElement(PGTUtil.proGuideXID);
+            PGTUtil.writeXMLElement(writer, PGTUtil.proGuideBaseXID, curNode.getValue());
+            PGTUtil.writeXMLElement(writer, PGTUtil.proGuidePhonXID, curNode.getPronunciation());
+            writer.writeEndElement();
         }
     }
 }
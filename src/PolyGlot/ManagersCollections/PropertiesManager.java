@@ -30,8 +30,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import javax.swing.JTextField;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  *
@@ -457,106 +457,67 @@ public class PropertiesManager {
     }
 
     /**
-     * Writes all dictionary properties to XML document
+     * Writes all dictionary properties to XML stream
      *
-     * @param doc Document to write dictionary properties to
-     * @param rootElement root element of document
+     * @param writer stream to write dictionary properties to
+     * @throws XMLStreamException on write failure
      */
-    public void writeXML(Document doc, Element rootElement) {
-        Element wordValue;
-
+    public void writeXML(XMLStreamWriter writer) throws XMLStreamException {
         // store font for Conlang words
-        wordValue = doc.createElement(PGTUtil.fontConXID);
         Font curFont = getFontCon();
-        wordValue.appendChild(doc.createTextNode(curFont == null ? "" : curFont.getName()));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.fontConXID, curFont == null ? "" : curFont.getName());
 
         // store font style
-        wordValue = doc.createElement(PGTUtil.langPropFontStyleXID);
-        wordValue.appendChild(doc.createTextNode(getFontStyle().toString()));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropFontStyleXID, getFontStyle().toString());
 
         // store font for Local words
-        wordValue = doc.createElement(PGTUtil.langPropFontSizeXID);
-        wordValue.appendChild(doc.createTextNode(getFontSize().toString()));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropFontSizeXID, getFontSize().toString());
 
         // store name for conlang
-        wordValue = doc.createElement(PGTUtil.langPropLangNameXID);
-        wordValue.appendChild(doc.createTextNode(getLangName()));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropLangNameXID, getLangName());
 
         // store alpha order for conlang
-        wordValue = doc.createElement(PGTUtil.langPropAlphaOrderXID);
-        wordValue.appendChild(doc.createTextNode(getAlphaPlainText()));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropAlphaOrderXID, getAlphaPlainText());
 
         // store option for mandatory Types
-        wordValue = doc.createElement(PGTUtil.langPropTypeMandatoryXID);
-        wordValue.appendChild(doc.createTextNode(isTypesMandatory() ? PGTUtil.True : PGTUtil.False));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropTypeMandatoryXID, isTypesMandatory() ? PGTUtil.True : PGTUtil.False);
 
         // store option for mandatory Local word
-        wordValue = doc.createElement(PGTUtil.langPropLocalMandatoryXID);
-        wordValue.appendChild(doc.createTextNode(isLocalMandatory() ? PGTUtil.True : PGTUtil.False));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropLocalMandatoryXID, isLocalMandatory() ? PGTUtil.True : PGTUtil.False);
 
         // store option for unique local word
-        wordValue = doc.createElement(PGTUtil.langPropLocalUniquenessXID);
-        wordValue.appendChild(doc.createTextNode(isLocalUniqueness() ? PGTUtil.True : PGTUtil.False));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropLocalUniquenessXID, isLocalUniqueness() ? PGTUtil.True : PGTUtil.False);
 
         // store option for unique conwords
-        wordValue = doc.createElement(PGTUtil.langPropWordUniquenessXID);
-        wordValue.appendChild(doc.createTextNode(isWordUniqueness() ? PGTUtil.True : PGTUtil.False));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropWordUniquenessXID, isWordUniqueness() ? PGTUtil.True : PGTUtil.False);
 
         // store option for ignoring case
-        wordValue = doc.createElement(PGTUtil.langPropIgnoreCaseXID);
-        wordValue.appendChild(doc.createTextNode(isIgnoreCase() ? PGTUtil.True : PGTUtil.False));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropIgnoreCaseXID, isIgnoreCase() ? PGTUtil.True : PGTUtil.False);
 
         // store option for disabling regex or pronunciations
-        wordValue = doc.createElement(PGTUtil.langPropDisableProcRegexXID);
-        wordValue.appendChild(doc.createTextNode(isDisableProcRegex() ? PGTUtil.True : PGTUtil.False));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropDisableProcRegexXID, isDisableProcRegex() ? PGTUtil.True : PGTUtil.False);
 
         // store option for enforcing RTL in conlang
-        wordValue = doc.createElement(PGTUtil.langPropEnforceRTLXID);
-        wordValue.appendChild(doc.createTextNode(isEnforceRTL() ? PGTUtil.True : PGTUtil.False));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropEnforceRTLXID, isEnforceRTL() ? PGTUtil.True : PGTUtil.False);
 
         // store option for Author and copyright info
-        wordValue = doc.createElement(PGTUtil.langPropAuthCopyrightXID);
-        wordValue.appendChild(doc.createTextNode(copyrightAuthorInfo));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropAuthCopyrightXID, copyrightAuthorInfo);
 
         // store option local language name
-        wordValue = doc.createElement(PGTUtil.langPropLocalLangNameXID);
-        wordValue.appendChild(doc.createTextNode(localLangName));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropLocalLangNameXID, localLangName);
         
         // store kerning value (default 0)
-        wordValue = doc.createElement(PGTUtil.langPropKerningVal);
-        wordValue.appendChild(doc.createTextNode(kerningSpace.toString()));
-        rootElement.appendChild(wordValue);
+        PGTUtil.writeXMLElement(writer, PGTUtil.langPropKerningVal, kerningSpace.toString());
         
         // store all replacement pairs
-        wordValue = doc.createElement(PGTUtil.langPropCharRepContainerXID);
+        writer.writeStartElement(PGTUtil.langPropCharRepContainerXID);
         for (Entry<String, String> pair : getAllCharReplacements()) {
-            Element node = doc.createElement(PGTUtil.langPropCharRepNodeXID);
-            
-            Element val = doc.createElement(PGTUtil.langPropCharRepCharacterXID);
-            val.appendChild(doc.createTextNode(pair.getKey()));
-            node.appendChild(val);
-            
-            val = doc.createElement(PGTUtil.langPropCharRepValueXID);
-            val.appendChild(doc.createTextNode(pair.getValue()));
-            node.appendChild(val);
-            
-            wordValue.appendChild(node);
+            writer.writeStartElement(PGTUtil.langPropCharRepNodeXID);
+            PGTUtil.writeXMLElement(writer, PGTUtil.langPropCharRepCharacterXID, pair.getKey());
+            PGTUtil.writeXMLElement(writer, PGTUtil.langPropCharRepValueXID, pair.getValue());
+            writer.writeEndElement();
         }
-        rootElement.appendChild(wordValue);
+        writer.writeEndElement();
     }
 
     /**
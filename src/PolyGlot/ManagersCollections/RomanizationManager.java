@@ -23,8 +23,8 @@ import PolyGlot.DictCore;
 import PolyGlot.Nodes.PronunciationNode;
 import PolyGlot.PGTUtil;
 import java.util.List;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  * Records romanization values
@@ -39,34 +39,25 @@ public class RomanizationManager extends PronunciationMgr {
     }
     
     /**
-     * Writes all romanization information to XML document
-     * @param doc Document to write to
-     * @param rootElement root element of document
+     * Writes all romanization information to XML stream
+     * @param writer stream to write to
+     * @throws XMLStreamException on write failure
      */
     @Override
-    public void writeXML(Document doc, Element rootElement) {
+    public void writeXML(XMLStreamWriter writer) throws XMLStreamException {
         List<PronunciationNode> romGuide = getPronunciations();
         
-        Element guideNode = doc.createElement(PGTUtil.romGuideXID);
-        rootElement.appendChild(guideNode);
-        
-        Element enabledNode = doc.createElement(PGTUtil.romGuideEnabledXID);
-        enabledNode.appendChild(doc.createTextNode(enabled ? PGTUtil.True : PGTUtil.False));
-        guideNode.appendChild(enabledNode);
-        
+        writer.writeStartElement(PGTUtil.romGuideXID);
+        PGTUtil.writeXMLElement(writer, PGTUtil.romGuideEnabledXID, enabled ? PGTUtil.True : PGTUtil.False);
         
         for (PronunciationNode curNode : romGuide) {
-            Element romNode = doc.createElement(PGTUtil.romGuideNodeXID);
-            guideNode.appendChild(romNode);
-            
-            Element valueNode = doc.createElement(PGTUtil.romGuideBaseXID);
-            valueNode.appendChild(doc.createTextNode(curNode.getValue()));
-            romNode.appendChild(valueNode);
-            
-            Element procNode = doc.createElement(PGTUtil.romGuidePhonXID);
-            procNode.appendChild(doc.createTextNode(curNode.getPronunciation()));
-            romNode.appendChild(procNode);
+            writer.writeStartElement(PGTUtil.romGuideNodeXID);
+            PGTUtil.writeXMLElement(writer, PGTUtil.romGuideBaseXID, curNode.getValue());
+            PGTUtil.writeXMLElement(writer, PGTUtil.romGuidePhonXID, curNode.getPronunciation());
+            writer.writeEndElement();
         }
+        
+        writer.writeEndElement();
     }
 
     /**
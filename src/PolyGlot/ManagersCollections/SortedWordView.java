@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot.ManagersCollections;
+
+import PolyGlot.CustomControls.PAlphaMap;
+import PolyGlot.Nodes.ConWord;
+import PolyGlot.Nodes.DictNode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Always sorted view of the words in a collection, either in conlang order
+ * (respecting custom alphabetical order) or in local word order. Entries are
+ * kept in an order statistic tree, so that adding, removing or moving a word
+ * and finding the entry at a position all take log time. Entries record the
+ * value they were sorted under, so a word whose value changes can be found
+ * and moved without resorting everything. The view is only built when first
+ * read, so bulk loading words costs nothing, and is rebuilt in full if the
+ * alphabetical order changes.
+ *
+ * @author draque
+ */
+class SortedWordView {
+
+    private final boolean localOrder;
+    private final OrderStatisticTree<Entry> entries;
+    private final Map<Integer, List<Entry>> wordEntries = new HashMap<>();
+    private final Comparator<Entry> comparator;
+    private boolean built = false;
+    private PAlphaMap<?, ?> builtOrder = null;
+    private int builtOrderRevision = -1;
+
+    /**
+     * Creates view
+     *
+     * @param _localOrder true if ordered by local words, false if by conlang
+     * values
+     */
+    SortedWordView(boolean _localOrder) {
+        localOrder = _localOrder;
+        comparator = new Comparator<Entry>() {
+            @Override
+            public int compare(Entry a, Entry b) {
+                int ret = localOrder ? a.key.compareToIgnoreCase(b.key)
+                        : a.sortNode.compareTo(b.sortNode);
+
+                if (ret == 0) {
+                    ret = Integer.compare(a.word.getId(), b.word.getId());
+                }
+                if (ret == 0) {
+                    ret = Integer.compare(a.part, b.part);
+                }
+
+                return ret;
+            }
+        };
+        entries = new OrderStatisticTree<>(comparator);
+    }
+
+    /**
+     * Adds word to view (ignored until view is first read)
+     *
+     * @param word word to add
+     * @param order current alphabetical order
+     */
+    synchronized void add(ConWord word, PAlphaMap<?, ?> order) {
+        if (!isCurrent(order)) {
+            return;
+        }
+
+        for (Entry entry : createEntries(word, order)) {
+            entries.add(entry);
+        }
+    }
+
+    /**
+     * Removes word from view
+     *
+     * @param wordId id of word to remove
+     */
+    synchronized void remove(Integer wordId) {
+        List<Entry> oldEntries = wordEntries.remove(wordId);
+
+        if (!built || oldEntries == null) {
+            return;
+        }
+
+        for (Entry entry : oldEntries) {
+            entries.remove(entry);
+        }
+    }
+
+    /**
+     * Repositions word if the value it is sorted by has changed
+     *
+     * @param word word to update
+     * @param order current alphabetical order
+     */
+    synchronized void update(ConWord word, PAlphaMap<?, ?> order) {
+        if (!isCurrent(order)) {
+            return;
+        }
+
+        List<Entry> oldEntries = wordEntries.get(word.getId());
+
+        if (oldEntries != null && !oldEntries.isEmpty()
+                && oldEntries.get(0).word == word
+                && oldEntries.get(0).source.equals(getSortValue(word))) {
+            return;
+        }
+
+        remove(word.getId());
+        add(word, order);
+    }
+
+    /**
+     * Gets number of entries in view
+     *
+     * @param words all words of the collection
+     * @param order current alphabetical order
+     * @return entry count
+     */
+    synchronized int size(Collection<ConWord> words, PAlphaMap<?, ?> order) {
+        build(words, order);
+
+        return entries.size();
+    }
+
+    /**
+     * Gets a page of words in sorted order. Words with several comma
+     * separated local values appear once per local value in local order
+     * views, as copies carrying only that local value.
+     *
+     * @param words all words of the collection
+     * @param order current alphabetical order
+     * @param start index of first entry to return
+     * @param count maximum number of entries to return
+     * @return words in range
+     */
+    synchronized List<ConWord> getRange(Collection<ConWord> words, PAlphaMap<?, ?> order, int start, int count) {
+        build(words, order);
+
+        int from = Math.max(0, Math.min(start, entries.size()));
+        int to = (int) Math.min((long) from + Math.max(0, count), entries.size());
+        List<ConWord> ret = new ArrayList<>(to - from);
+
+        for (Entry entry : entries.getRange(from, to)) {
+            ret.add(entry.getDisplayWord());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Discards view contents. They will be rebuilt when next read.
+     */
+    synchronized void invalidate() {
+        built = false;
+        entries.clear();
+        wordEntries.clear();
+    }
+
+    private boolean isCurrent(PAlphaMap<?, ?> order) {
+        if (built && !localOrder && (order != builtOrder
+                || (order != null && order.getRevision() != builtOrderRevision))) {
+            invalidate();
+        }
+
+        return built;
+    }
+
+    private void build(Collection<ConWord> words, PAlphaMap<?, ?> order) {
+        if (isCurrent(order)) {
+            return;
+        }
+
+        List<Entry> sorted = new ArrayList<>();
+
+        for (ConWord word : words) {
+            sorted.addAll(createEntries(word, order));
+        }
+
+        Collections.sort(sorted, comparator);
+        entries.setAll(sorted);
+        builtOrder = order;
+        builtOrderRevision = order == null ? -1 : order.getRevision();
+        built = true;
+    }
+
+    private List<Entry> createEntries(ConWord word, PAlphaMap<?, ?> order) {
+        List<Entry> ret = new ArrayList<>();
+        String source = getSortValue(word);
+
+        if (localOrder && source.contains(",")) {
+            String[] allLocals = source.split(",");
+
+            for (int i = 0; i < allLocals.length; i++) {
+                ret.add(new Entry(word, source, allLocals[i].trim(), i, null));
+            }
+        } else if (localOrder) {
+            ret.add(new Entry(word, source, source, -1, null));
+        } else {
+            ret.add(new Entry(word, source, source, -1, createSortNode(word.getId(), source, order)));
+        }
+
+        wordEntries.put(word.getId(), ret);
+
+        return ret;
+    }
+
+    private static DictNode createSortNode(int wordId, String value, PAlphaMap<?, ?> order) {
+        SortKeyNode ret = new SortKeyNode();
+        ret.setValue(value);
+        ret.setId(wordId);
+
+        if (order != null) {
+            ret.setAlphaOrder(order);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Sorts words into conlang order by their values as they are when this is
+     * called, so that words edited on another thread meanwhile cannot upset
+     * the sort. Words with equal values keep their relative order.
+     *
+     * @param words words to sort
+     * @param order current alphabetical order
+     * @return new sorted list of the words
+     */
+    static List<ConWord> sortByValue(List<ConWord> words, PAlphaMap<?, ?> order) {
+        List<Entry> sorted = new ArrayList<>(words.size());
+        List<ConWord> ret = new ArrayList<>(words.size());
+
+        for (ConWord word : words) {
+            String value = word.getValue();
+            sorted.add(new Entry(word, value, value, -1, createSortNode(word.getId(), value, order)));
+        }
+
+        Collections.sort(sorted, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry a, Entry b) {
+                return a.sortNode.compareTo(b.sortNode);
+            }
+        });
+
+        for (Entry entry : sorted) {
+            ret.add(entry.word);
+        }
+
+        return ret;
+    }
+
+    private String getSortValue(ConWord word) {
+        return localOrder ? word.getLocalWord() : word.getValue();
+    }
+
+    /**
+     * Position of a word (or one of its local values) within the view
+     */
+    private static class Entry {
+
+        final ConWord word;
+        // full value at time of sorting
+        final String source;
+        // portion of value sorted on
+        final String key;
+        // index among comma separated local values, -1 if value not split
+        final int part;
+        final DictNode sortNode;
+
+        Entry(ConWord _word, String _source, String _key, int _part, DictNode _sortNode) {
+            word = _word;
+            source = _source;
+            key = _key;
+            part = _part;
+            sortNode = _sortNode;
+        }
+
+        ConWord getDisplayWord() {
+            ConWord ret = word;
+
+            if (part != -1) {
+                // temp word for purposes of dictionary creation (no parent)
+                ret = new ConWord();
+                ret.setCore(word.getCore());
+                ret.setEqual(word);
+                ret.setLocalWord(key);
+            }
+
+            return ret;
+        }
+    }
+
+    /**
+     * Holds a value as it was when sorted, so that a word's position may be
+     * found even after the word itself has changed
+     */
+    private static class SortKeyNode extends DictNode {
+
+        @Override
+        public void setEqual(DictNode _node) throws ClassCastException {
+            this.setValue(_node.getValue());
+            this.setId(_node.getId());
+        }
+    }
+}
@@ -32,8 +32,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  *
@@ -269,46 +269,23 @@ public class TypeCollection extends DictionaryCollection {
     }
     
     /**
-     * Writes all type information to XML document
-     * @param doc Document to write to
-     * @param rootElement root element of document
+     * Writes all type information to XML stream
+     * @param writer stream to write to
+     * @throws XMLStreamException on write failure
      */
-    public void writeXML(Document doc, Element rootElement) {
-        Element wordNode;
-        Element wordValue;
-        
+    public void writeXML(XMLStreamWriter writer) throws XMLStreamException {
         for (TypeNode curType : getNodes()) {
-            wordNode = doc.createElement(PGTUtil.typeXID);
-            rootElement.appendChild(wordNode);
-
-            wordValue = doc.createElement(PGTUtil.typeIdXID);
-            Integer wordId = curType.getId();
-            wordValue.appendChild(doc.createTextNode(wordId.toString()));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.typeNameXID);
-            wordValue.appendChild(doc.createTextNode(curType.getValue()));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.typeNotesXID);
-            wordValue.appendChild(doc.createTextNode(WebInterface.archiveHTML(curType.getNotes())));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.typeDefManXID);
-            wordValue.appendChild(doc.createTextNode(curType.isDefMandatory() ? PGTUtil.True : PGTUtil.False));
-            wordNode.appendChild(wordValue);
-
-            wordValue = doc.createElement(PGTUtil.typeProcManXID);
-            wordValue.appendChild(doc.createTextNode(curType.isProcMandatory() ? PGTUtil.True : PGTUtil.False));
-            wordNode.appendChild(wordValue);
-            
-            wordValue = doc.createElement(PGTUtil.typePatternXID);
-            wordValue.appendChild(doc.createTextNode(curType.getPattern()));
-            wordNode.appendChild(wordValue);
-            
-            wordValue = doc.createElement(PGTUtil.typeGlossXID);
-            wordValue.appendChild(doc.createTextNode(curType.getGloss()));
-            wordNode.appendChild(wordValue);
+            writer.writeStartElement(PGTUtil.typeXID);
+
+            PGTUtil.writeXMLElement(writer, PGTUtil.typeIdXID, curType.getId().toString());
+            PGTUtil.writeXMLElement(writer, PGTUtil.typeNameXID, curType.getValue());
+            PGTUtil.writeXMLElement(writer, PGTUtil.typeNotesXID, WebInterface.archiveHTML(curType.getNotes()));
+            PGTUtil.writeXMLElement(writer, PGTUtil.typeDefManXID, curType.isDefMandatory() ? PGTUtil.True : PGTUtil.False);
+            PGTUtil.writeXMLElement(writer, PGTUtil.typeProcManXID, curType.isProcMandatory() ? PGTUtil.True : PGTUtil.False);
+            PGTUtil.writeXMLElement(writer, PGTUtil.typePatternXID, curType.getPattern());
+            PGTUtil.writeXMLElement(writer, PGTUtil.typeGlossXID, curType.getGloss());
+
+            writer.writeEndElement();
         }
     }
 }
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot.ManagersCollections;
+
+import PolyGlot.DictCore;
+import PolyGlot.Nodes.ConWord;
+import PolyGlot.Nodes.DeclensionNode;
+import PolyGlot.Nodes.TypeNode;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Cached legality of every word, along with the set of words currently
+ * illegal. A word is rechecked only when something its legality depends on
+ * may have changed: its own values or declensions, the values of words it
+ * could clash with under uniqueness rules, the pattern and mandatory
+ * declensions of its type, or the language's legality settings. Changes to
+ * types and settings are detected by signature when the index is next read,
+ * as with DeclensionFormIndex.
+ *
+ * @author draque
+ */
+class WordLegalityIndex {
+
+    private final DictCore core;
+    private final Map<Integer, WordState> words = new HashMap<>();
+    private final Map<String, Set<Integer>> valueWords = new HashMap<>();
+    private final Map<String, Set<Integer>> localWords = new HashMap<>();
+    private final Map<Integer, Set<Integer>> typeWords = new HashMap<>();
+    private final Map<Integer, String> typeSignatures = new HashMap<>();
+    private final Set<Integer> dirtyWords = new HashSet<>();
+    private final Set<Integer> illegalWords = new HashSet<>();
+    private int settingsStamp = -1;
+
+    WordLegalityIndex(DictCore _core) {
+        core = _core;
+    }
+
+    /**
+     * Records current values of word, marking it (and any word sharing its
+     * old or new values) for recheck
+     *
+     * @param word word to record
+     */
+    synchronized void setWord(ConWord word) {
+        int wordId = word.getId();
+        WordState state = words.get(wordId);
+
+        if (state == null) {
+            state = new WordState();
+            words.put(wordId, state);
+        }
+
+        if (!word.getValue().equals(state.value)) {
+            moveWord(valueWords, wordId, state.value, word.getValue());
+            state.value = word.getValue();
+        }
+
+        if (!word.getLocalWord().equals(state.local)) {
+            moveWord(localWords, wordId, state.local, word.getLocalWord());
+            state.local = word.getLocalWord();
+        }
+
+        if (state.typeId != word.getWordTypeId()) {
+            removeFromType(wordId, state.typeId);
+            state.typeId = word.getWordTypeId();
+        }
+
+        addToType(wordId, state.typeId);
+        dirtyWords.add(wordId);
+    }
+
+    /**
+     * Removes word, marking words which shared its values for recheck
+     *
+     * @param wordId ID of word to remove
+     */
+    synchronized void removeWord(int wordId) {
+        WordState state = words.remove(wordId);
+
+        if (state != null) {
+            moveWord(valueWords, wordId, state.value, null);
+            moveWord(localWords, wordId, state.local, null);
+            removeFromType(wordId, state.typeId);
+        }
+
+        dirtyWords.remove(wordId);
+        illegalWords.remove(wordId);
+    }
+
+    /**
+     * Marks word for recheck (when its declensions have changed)
+     *
+     * @param wordId ID of word
+     */
+    synchronized void invalidateWord(int wordId) {
+        if (words.containsKey(wordId)) {
+            dirtyWords.add(wordId);
+        }
+    }
+
+    /**
+     * Tests legality of word, rechecking only words which may have changed
+     *
+     * @param wordId ID of word to test
+     * @return true if word is legal
+     */
+    synchronized boolean isLegal(int wordId) {
+        refresh(false);
+
+        if (dirtyWords.contains(wordId)) {
+            checkWord(wordId);
+        }
+
+        return !illegalWords.contains(wordId);
+    }
+
+    /**
+     * Gets IDs of all illegal words, rechecking only words which may have
+     * changed
+     *
+     * @return IDs of illegal words
+     */
+    synchronized Set<Integer> getIllegalWords() {
+        refresh(true);
+
+        return new HashSet<>(illegalWords);
+    }
+
+    /**
+     * Marks words for recheck wherever settings or type signatures have
+     * changed
+     *
+     * @param checkDirty whether to recheck all words marked
+     */
+    private void refresh(boolean checkDirty) {
+        int curStamp = getSettingsStamp();
+
+        if (curStamp != settingsStamp) {
+            dirtyWords.addAll(words.keySet());
+            settingsStamp = curStamp;
+        }
+
+        Map<Integer, String> curSignatures = new HashMap<>();
+
+        for (Entry<Integer, Set<Integer>> curEntry : typeWords.entrySet()) {
+            String signature = getTypeSignature(curEntry.getKey());
+
+            if (!signature.equals(typeSignatures.get(curEntry.getKey()))) {
+                dirtyWords.addAll(curEntry.getValue());
+            }
+
+            curSignatures.put(curEntry.getKey(), signature);
+        }
+
+        typeSignatures.clear();
+        typeSignatures.putAll(curSignatures);
+
+        if (checkDirty) {
+            for (Integer wordId : new HashSet<>(dirtyWords)) {
+                checkWord(wordId);
+            }
+        }
+    }
+
+    private void checkWord(int wordId) {
+        try {
+            ConWord word = core.getWordCollection().getNodeById(wordId);
+
+            if (core.getWordCollection().computeWordLegal(word)) {
+                illegalWords.remove(wordId);
+            } else {
+                illegalWords.add(wordId);
+            }
+        } catch (Exception e) {
+            // word no longer exists, or could not be tested: report as illegal
+            illegalWords.add(wordId);
+        }
+
+        dirtyWords.remove(wordId);
+    }
+
+    private void addToType(int wordId, int typeId) {
+        Set<Integer> typeSet = typeWords.get(typeId);
+
+        if (typeSet == null) {
+            typeSet = new HashSet<>();
+            typeWords.put(typeId, typeSet);
+        }
+
+        typeSet.add(wordId);
+    }
+
+    private void removeFromType(int wordId, int typeId) {
+        Set<Integer> typeSet = typeWords.get(typeId);
+
+        if (typeSet != null) {
+            typeSet.remove(wordId);
+
+            if (typeSet.isEmpty()) {
+                typeWords.remove(typeId);
+            }
+        }
+    }
+
+    private void moveWord(Map<String, Set<Integer>> map, int wordId, String oldValue, String newValue) {
+        if (oldValue != null) {
+            Set<Integer> oldPeers = map.get(oldValue);
+
+            if (oldPeers != null) {
+                oldPeers.remove(wordId);
+                dirtyWords.addAll(oldPeers);
+
+                if (oldPeers.isEmpty()) {
+                    map.remove(oldValue);
+                }
+            }
+        }
+
+        if (newValue != null) {
+            Set<Integer> newPeers = map.get(newValue);
+
+            if (newPeers == null) {
+                newPeers = new HashSet<>();
+                map.put(newValue, newPeers);
+            }
+
+            dirtyWords.addAll(newPeers);
+            newPeers.add(wordId);
+        }
+    }
+
+    /**
+     * Gets value representing all settings legality depends on
+     */
+    private int getSettingsStamp() {
+        PropertiesManager propMan = core.getPropertiesManager();
+
+        return (propMan.isTypesMandatory() ? 1 : 0)
+                + (propMan.isLocalMandatory() ? 2 : 0)
+                + (propMan.isWordUniqueness() ? 4 : 0)
+                + (propMan.isLocalUniqueness() ? 8 : 0);
+    }
+
+    /**
+     * Gets signature of everything about a type which word legality depends
+     * on: its existence, pattern, and non-suppressed mandatory declensions
+     */
+    private String getTypeSignature(int typeId) {
+        TypeNode type = core.getTypes().getNodeById(typeId);
+
+        if (type == null) {
+            return "";
+        }
+
+        DeclensionManager decMan = core.getDeclensionManager();
+        StringBuilder ret = new StringBuilder(type.getPattern()).append('\n');
+
+        for (DeclensionNode curMand : decMan.getMandDims(typeId)) {
+            if (!decMan.isCombinedDeclSurpressed(curMand.getCombinedDimId())) {
+                ret.append(curMand.getCombinedDimId()).append('\n');
+            }
+        }
+
+        return ret.toString();
+    }
+
+    /**
+     * Values of word as last recorded
+     */
+    private static class WordState {
+
+        String value = null;
+        String local = null;
+        int typeId = 0;
+    }
+}
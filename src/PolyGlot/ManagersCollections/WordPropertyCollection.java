@@ -27,11 +27,13 @@ import PolyGlot.PGTUtil;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.Random;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import java.util.Set;
+import java.util.SplittableRandom;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  *
@@ -39,7 +41,8 @@ import org.w3c.dom.Element;
  */
 public class WordPropertyCollection extends DictionaryCollection {
 
-    private List<List<PEntry<Integer, Integer>>> comboCache = null;
+    private ComboSpace comboCache = null;
+    private final SplittableRandom random = new SplittableRandom();
 
     public WordPropertyCollection() {
         bufferNode = new WordProperty();
@@ -92,70 +95,58 @@ public class WordPropertyCollection extends DictionaryCollection {
     }
 
     /**
-     * Writes all word properties information to XML document
+     * Writes all word properties information to XML stream
      *
-     * @param doc Document to write to
-     * @param rootElement root element of document
+     * @param writer stream to write to
+     * @throws XMLStreamException on write failure
      */
-    public void writeXML(Document doc, Element rootElement) {
+    public void writeXML(XMLStreamWriter writer) throws XMLStreamException {
         // element containing all properties
-        Element wordProperties = doc.createElement(PGTUtil.ClassesNodeXID);
+        writer.writeStartElement(PGTUtil.ClassesNodeXID);
 
         // creates each property
         for (WordProperty wordProp : (Collection<WordProperty>) nodeMap.values()) {
             // property element
-            Element propElement = doc.createElement(PGTUtil.ClassXID);
+            writer.writeStartElement(PGTUtil.ClassXID);
 
             // ID element
-            Element propProp = doc.createElement(PGTUtil.ClassIdXID);
-            propProp.appendChild(doc.createTextNode(wordProp.getId().toString()));
-            propElement.appendChild(propProp);
+            PGTUtil.writeXMLElement(writer, PGTUtil.ClassIdXID, wordProp.getId().toString());
 
             // Name element
-            propProp = doc.createElement(PGTUtil.ClassNameXID);
-            propProp.appendChild(doc.createTextNode(wordProp.getValue()));
-            propElement.appendChild(propProp);
+            PGTUtil.writeXMLElement(writer, PGTUtil.ClassNameXID, wordProp.getValue());
             
             // Is Text Override
-            propProp = doc.createElement(PGTUtil.ClassIsFreetextXID);
-            propProp.appendChild(doc.createTextNode(wordProp.isFreeText() ? PGTUtil.True : PGTUtil.False));
-            propElement.appendChild(propProp);
+            PGTUtil.writeXMLElement(writer, PGTUtil.ClassIsFreetextXID, wordProp.isFreeText() ? PGTUtil.True : PGTUtil.False);
 
             // generates element with all type IDs of types this property applies to
-            String applyTypes = "";
+            StringBuilder applyTypes = new StringBuilder();
             for (Integer typeId : wordProp.getApplyTypes()) {
-                if (!applyTypes.equals("")) {
-                    applyTypes += ",";
+                if (applyTypes.length() != 0) {
+                    applyTypes.append(",");
                 }
 
-                applyTypes += typeId.toString();
+                applyTypes.append(typeId.toString());
             }
-            propProp = doc.createElement(PGTUtil.ClassApplyTypesXID);
-            propProp.appendChild(doc.createTextNode(applyTypes));
-            propElement.appendChild(propProp);
+            PGTUtil.writeXMLElement(writer, PGTUtil.ClassApplyTypesXID, applyTypes.toString());
 
             // element for collection of values of property
-            propProp = doc.createElement(PGTUtil.ClassValuesCollectionXID);
+            writer.writeStartElement(PGTUtil.ClassValuesCollectionXID);
             for (WordPropValueNode curValue : wordProp.getValues()) {
-                Element valueNode = doc.createElement(PGTUtil.ClassValueNodeXID);
+                writer.writeStartElement(PGTUtil.ClassValueNodeXID);
 
-                Element value = doc.createElement(PGTUtil.ClassValueIdXID);
-                value.appendChild(doc.createTextNode(curValue.getId().toString()));
-                valueNode.appendChild(value);
+                PGTUtil.writeXMLElement(writer, PGTUtil.ClassValueIdXID, curValue.getId().toString());
 
                 // value string
-                value = doc.createElement(PGTUtil.ClassValueNameXID);
-                value.appendChild(doc.createTextNode(curValue.getValue()));
-                valueNode.appendChild(value);
+                PGTUtil.writeXMLElement(writer, PGTUtil.ClassValueNameXID, curValue.getValue());
 
-                propProp.appendChild(valueNode);
+                writer.writeEndElement();
             }
-            propElement.appendChild(propProp);
+            writer.writeEndElement();
 
-            wordProperties.appendChild(propElement);
+            writer.writeEndElement();
         }
 
-        rootElement.appendChild(wordProperties);
+        writer.writeEndElement();
     }
 
     /**
@@ -182,21 +173,42 @@ public class WordPropertyCollection extends DictionaryCollection {
      */
     public List<List<PEntry<Integer, Integer>>> getRandomPropertyCombinations(int numRandom, ConWord excludeWord) {
         List<List<PEntry<Integer, Integer>>> ret = new ArrayList<>();
-        int offset = 0;
+        ComboSpace space = comboCache == null ? new ComboSpace(getProperties()) : comboCache;
+        List<Entry<Integer, Integer>> exclude = excludeWord == null ? null
+                : new ArrayList<>(excludeWord.getClassValues());
 
-        Collections.shuffle(comboCache, new Random(System.nanoTime()));
+        // at most one combination can match the excluded one, so one extra
+        // is drawn to cover for it
+        long numDraw = Math.min((long) numRandom + (exclude == null ? 0 : 1), space.size);
 
-        if (comboCache != null && comboCache.size() > 0) {
-            for (int i = 0; (i - offset) < numRandom && i + offset < comboCache.size(); i++) {
-                if (propCombEqual(comboCache.get(i + offset), new ArrayList(excludeWord.getClassValues()))) {
-                    offset++;
-                    continue;
-                }
+        // Floyd's algorithm: selects distinct combination indices in O(numDraw)
+        Set<Long> indices = new HashSet<>();
+        for (long j = space.size - numDraw; j < space.size; j++) {
+            long index = random.nextLong(j + 1);
+
+            if (!indices.add(index)) {
+                indices.add(j);
+            }
+        }
 
-                ret.add(comboCache.get(i + offset));
+        for (long index : indices) {
+            List<PEntry<Integer, Integer>> combo = space.get(index);
+
+            if (exclude == null || !propCombEqual(combo, exclude)) {
+                ret.add(combo);
             }
         }
 
+        // randomize order...
+        for (int i = ret.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            ret.set(j, ret.set(i, ret.get(j)));
+        }
+
+        while (ret.size() > numRandom) {
+            ret.remove(ret.size() - 1);
+        }
+
         return ret;
     }
 
@@ -204,11 +216,12 @@ public class WordPropertyCollection extends DictionaryCollection {
         boolean ret = true;
 
         if (a.size() == b.size()) {
-            for (Entry aEntry : a) {
+            for (Entry<Integer, Integer> aEntry : a) {
                 boolean aRet = false;
 
-                for (Entry bEntry : b) {
-                    if (aEntry.equals(bEntry)) {
+                for (Entry<Integer, Integer> bEntry : b) {
+                    if (aEntry.getKey().equals(bEntry.getKey())
+                            && aEntry.getValue().equals(bEntry.getValue())) {
                         aRet = true;
                         break;
                     }
@@ -224,31 +237,24 @@ public class WordPropertyCollection extends DictionaryCollection {
     }
 
     /**
-     * builds cache of every word property combination
+     * builds cache of every word property combination. Combinations are not
+     * stored, but generated from their index on request
      */
     public void buildComboCache() {
-        comboCache = new ArrayList<>();
-
-        if (!nodeMap.isEmpty()) {
-            buildComboCacheInternal(0, new ArrayList(nodeMap.values()),
-                    new ArrayList<PEntry<Integer, Integer>>());
-        }
+        comboCache = new ComboSpace(getProperties());
     }
 
-    private void buildComboCacheInternal(int depth, List<WordProperty> props, List<PEntry<Integer, Integer>> curList) {
-        WordProperty curProp = props.get(depth);
-
-        for (WordPropValueNode curVal : curProp.getValues()) {
-            ArrayList<PEntry<Integer, Integer>> newList = new ArrayList(curList);
-            newList.add(new PEntry(curProp.getId(), curVal.getId()));
+    /**
+     * @return all word properties, in collection order
+     */
+    private List<WordProperty> getProperties() {
+        List<WordProperty> ret = new ArrayList<>();
 
-            // if at max depth, cease recursion
-            if (depth == props.size() - 1) {
-                comboCache.add(newList);
-            } else {
-                buildComboCacheInternal(depth + 1, props, newList);
-            }
+        for (Object curNode : nodeMap.values()) {
+            ret.add((WordProperty) curNode);
         }
+
+        return ret;
     }
 
     /**
@@ -282,4 +288,60 @@ public class WordPropertyCollection extends DictionaryCollection {
 
         return ret;
     }
+
+    /**
+     * Every combination of one value from each word property, numbered in
+     * mixed radix: each property is a digit with as many states as it has
+     * values. Any combination can be decoded from its index alone.
+     */
+    private static class ComboSpace {
+
+        private final int[] propIds;
+        private final int[][] valueIds;
+        private final long size;
+
+        ComboSpace(Collection<WordProperty> props) {
+            propIds = new int[props.size()];
+            valueIds = new int[props.size()][];
+            long count = props.isEmpty() ? 0 : 1;
+            int i = 0;
+
+            for (WordProperty prop : props) {
+                Collection<WordPropValueNode> values = prop.getValues();
+                propIds[i] = prop.getId();
+                valueIds[i] = new int[values.size()];
+
+                int j = 0;
+                for (WordPropValueNode value : values) {
+                    valueIds[i][j++] = value.getId();
+                }
+
+                // beyond this, only the first Long.MAX_VALUE are reachable
+                count = values.isEmpty() ? 0
+                        : count > Long.MAX_VALUE / values.size() ? Long.MAX_VALUE
+                        : count * values.size();
+                i++;
+            }
+
+            size = count;
+        }
+
+        /**
+         * @param index index of combination, less than size
+         * @return pairs of property ID and value ID making up combination
+         */
+        List<PEntry<Integer, Integer>> get(long index) {
+            List<PEntry<Integer, Integer>> ret = new ArrayList<>();
+
+            // last property is the least significant digit
+            for (int i = propIds.length - 1; i >= 0; i--) {
+                int radix = valueIds[i].length;
+                ret.add(new PEntry<>(propIds[i], valueIds[i][(int) (index % radix)]));
+                index /= radix;
+            }
+
+            Collections.reverse(ret);
+            return ret;
+        }
+    }
 }
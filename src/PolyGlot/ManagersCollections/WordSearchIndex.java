@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot.ManagersCollections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Maintained trigram index over the searchable text fields of words, plus a
+ * bitmap of word IDs per type. Results are candidate sets only: callers must
+ * still verify each candidate against the actual filter logic. All text is
+ * indexed in lower case so that candidates are a superset of both case
+ * sensitive and insensitive matches. Safe to query from a filtering thread
+ * while words are edited.
+ *
+ * @author draque.thompson
+ */
+public class WordSearchIndex {
+
+    public enum Field {
+        VALUE, LOCAL, PRONUNCIATION, DEFINITION
+    }
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<Field, Map<String, Postings>> postings = new HashMap<>();
+    private final Map<Field, Map<Integer, String>> indexedText = new HashMap<>();
+    private final Map<Integer, BitSet> typeMap = new HashMap<>();
+    private final Map<Integer, Integer> wordTypes = new HashMap<>();
+
+    public WordSearchIndex() {
+        for (Field field : Field.values()) {
+            postings.put(field, new HashMap<String, Postings>());
+            indexedText.put(field, new HashMap<Integer, String>());
+        }
+    }
+
+    /**
+     * Sets the indexed text of a field for a word. Does nothing if the text
+     * has not changed since it was last indexed.
+     *
+     * @param field field to index text under
+     * @param wordId ID of word text belongs to
+     * @param text raw text to index
+     */
+    public synchronized void setText(Field field, int wordId, String text) {
+        String lower = text.toLowerCase();
+        Map<Integer, String> fieldText = indexedText.get(field);
+        String oldText = fieldText.get(wordId);
+
+        if (lower.equals(oldText)) {
+            return;
+        }
+
+        Map<String, Postings> fieldPostings = postings.get(field);
+
+        if (oldText != null) {
+            for (String gram : getGrams(oldText)) {
+                Postings gramPostings = fieldPostings.get(gram);
+
+                if (gramPostings != null) {
+                    gramPostings.remove(wordId);
+
+                    if (gramPostings.size() == 0) {
+                        fieldPostings.remove(gram);
+                    }
+                }
+            }
+        }
+
+        for (String gram : getGrams(lower)) {
+            Postings gramPostings = fieldPostings.get(gram);
+
+            if (gramPostings == null) {
+                gramPostings = new Postings();
+                fieldPostings.put(gram, gramPostings);
+            }
+
+            gramPostings.add(wordId);
+        }
+
+        fieldText.put(wordId, lower);
+    }
+
+    /**
+     * Gets lower cased text currently indexed for a word's field
+     *
+     * @param field field to fetch
+     * @param wordId ID of word
+     * @return indexed text, null if word not indexed
+     */
+    public synchronized String getText(Field field, int wordId) {
+        return indexedText.get(field).get(wordId);
+    }
+
+    /**
+     * Records the type of a word in the type bitmap
+     *
+     * @param wordId ID of word
+     * @param typeId ID of word's type (0 for none)
+     */
+    public synchronized void setType(int wordId, int typeId) {
+        Integer oldType = wordTypes.get(wordId);
+
+        if (oldType != null) {
+            if (oldType == typeId) {
+                return;
+            }
+
+            BitSet oldBits = typeMap.get(oldType);
+            oldBits.clear(wordId);
+
+            if (oldBits.isEmpty()) {
+                typeMap.remove(oldType);
+            }
+        }
+
+        BitSet typeBits = typeMap.get(typeId);
+
+        if (typeBits == null) {
+            typeBits = new BitSet();
+            typeMap.put(typeId, typeBits);
+        }
+
+        typeBits.set(wordId);
+        wordTypes.put(wordId, typeId);
+    }
+
+    /**
+     * Removes all traces of a word from the index
+     *
+     * @param wordId ID of word to remove
+     */
+    public synchronized void remove(int wordId) {
+        for (Field field : Field.values()) {
+            clearText(field, wordId);
+        }
+
+        Integer oldType = wordTypes.remove(wordId);
+
+        if (oldType != null) {
+            BitSet oldBits = typeMap.get(oldType);
+            oldBits.clear(wordId);
+
+            if (oldBits.isEmpty()) {
+                typeMap.remove(oldType);
+            }
+        }
+    }
+
+    /**
+     * Wipes all indexed values of a single field
+     *
+     * @param field field to wipe
+     */
+    public synchronized void clearField(Field field) {
+        postings.get(field).clear();
+        indexedText.get(field).clear();
+    }
+
+    /**
+     * Gets IDs of all words of a given type
+     *
+     * @param typeId type to fetch words of
+     * @return copy of bitmap of word IDs (empty if none)
+     */
+    public synchronized BitSet getTypeWords(int typeId) {
+        BitSet ret = typeMap.get(typeId);
+
+        return ret == null ? new BitSet() : (BitSet) ret.clone();
+    }
+
+    /**
+     * Gets IDs of all types which currently have words indexed against them
+     *
+     * @return set of type IDs
+     */
+    public synchronized Set<Integer> getIndexedTypes() {
+        return new HashSet<>(typeMap.keySet());
+    }
+
+    /**
+     * Returns IDs of all words which might contain the given text within the
+     * given field. Result is a superset of actual matches.
+     *
+     * @param field field to search
+     * @param search text to search for
+     * @return bitmap of candidate word IDs, null if search cannot be narrowed
+     */
+    public synchronized BitSet getCandidates(Field field, String search) {
+        String lower = search.toLowerCase();
+        BitSet ret = new BitSet();
+
+        if (lower.isEmpty()) {
+            return null;
+        }
+
+        if (lower.length() < GRAM_LENGTH) {
+            // too short to have grams: test indexed text directly
+            for (Entry<Integer, String> curEntry : indexedText.get(field).entrySet()) {
+                if (curEntry.getValue().contains(lower)) {
+                    ret.set(curEntry.getKey());
+                }
+            }
+
+            return ret;
+        }
+
+        Map<String, Postings> fieldPostings = postings.get(field);
+        List<Postings> required = new ArrayList<>();
+
+        for (String gram : getGrams(lower)) {
+            Postings gramPostings = fieldPostings.get(gram);
+
+            // a missing gram means nothing can match
+            if (gramPostings == null) {
+                return ret;
+            }
+
+            required.add(gramPostings);
+        }
+
+        // walk the shortest list, probing the others
+        Postings shortest = required.get(0);
+        for (Postings curPostings : required) {
+            if (curPostings.size() < shortest.size()) {
+                shortest = curPostings;
+            }
+        }
+
+        for (int i = 0; i < shortest.size(); i++) {
+            int wordId = shortest.get(i);
+            boolean inAll = true;
+
+            for (Postings curPostings : required) {
+                if (curPostings != shortest && !curPostings.contains(wordId)) {
+                    inAll = false;
+                    break;
+                }
+            }
+
+            if (inAll) {
+                ret.set(wordId);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Intersects two candidate sets, where null represents an unrestricted set
+     *
+     * @param a first set (modified if not null)
+     * @param b second set
+     * @return intersection of sets
+     */
+    public static BitSet intersect(BitSet a, BitSet b) {
+        if (a == null) {
+            return b;
+        } else if (b != null) {
+            a.and(b);
+        }
+
+        return a;
+    }
+
+    /**
+     * Unions two candidate sets, where null represents an unrestricted set
+     *
+     * @param a first set (modified if not null)
+     * @param b second set
+     * @return union of sets
+     */
+    public static BitSet union(BitSet a, BitSet b) {
+        if (a == null || b == null) {
+            return null;
+        }
+
+        a.or(b);
+
+        return a;
+    }
+
+    private void clearText(Field field, int wordId) {
+        String oldText = indexedText.get(field).remove(wordId);
+
+        if (oldText == null) {
+            return;
+        }
+
+        Map<String, Postings> fieldPostings = postings.get(field);
+
+        for (String gram : getGrams(oldText)) {
+            Postings gramPostings = fieldPostings.get(gram);
+
+            if (gramPostings != null) {
+                gramPostings.remove(wordId);
+
+                if (gramPostings.size() == 0) {
+                    fieldPostings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets distinct grams of a string
+     *
+     * @param text text to break up
+     * @return set of grams
+     */
+    private static Set<String> getGrams(String text) {
+        Set<String> ret = new HashSet<>();
+
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            ret.add(text.substring(i, i + GRAM_LENGTH));
+        }
+
+        return ret;
+    }
+
+    /**
+     * Sorted, growable list of word IDs. Far smaller than a set of boxed
+     * integers, which matters for definition text.
+     */
+    private static class Postings {
+
+        private int[] ids = new int[4];
+        private int size = 0;
+
+        public int size() {
+            return size;
+        }
+
+        public int get(int index) {
+            return ids[index];
+        }
+
+        public boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        public void add(int id) {
+            int pos = size == 0 || ids[size - 1] < id
+                    ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+
+            if (pos >= 0) {
+                return;
+            }
+
+            pos = -(pos + 1);
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        public void remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+
+            if (pos < 0) {
+                return;
+            }
+
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+        }
+    }
+}
@@ -0,0 +1,603 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot.ManagersCollections;
+
+import PolyGlot.DictCore;
+import PolyGlot.Nodes.ConWord;
+import PolyGlot.Nodes.PronunciationNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Running statistics over the words of a collection, kept current as words
+ * are inserted, changed and deleted so that reports never need to revisit
+ * the whole lexicon. Each word's last counted value is recorded so that its
+ * contribution can be taken back out exactly when it changes. Phoneme
+ * counts depend on pronunciation rules, so they are only tracked once first
+ * requested, and are recounted whenever the rules have changed since. Large
+ * recounts are split across a fork/join pool, each task counting into its
+ * own tables, which are summed once all tasks finish. Each character also
+ * keeps the rank at which it first appears (lowest word ID, then position in
+ * that word), so that characters are reported in the order the lexicon
+ * first uses them.
+ *
+ * @author draque
+ */
+class WordStatistics {
+
+    private static final int RECOUNT_CHUNK_SIZE = 2048;
+    private final DictCore core;
+    private final Map<Integer, WordEntry> words = new HashMap<>();
+    private final CountMap starts = new CountMap();
+    private final CountMap ends = new CountMap();
+    private final CountMap chars = new CountMap(true);
+    private final CountMap charCombos2 = new CountMap();
+    private final CountMap charCombos3 = new CountMap();
+    private final CountMap types = new CountMap();
+    private CountMap phonemes = new CountMap();
+    private CountMap phonemeCombos2 = new CountMap();
+    // shared by recount tasks, so ids need no remapping when counts are summed
+    private final Map<String, Integer> phonemeIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextPhonemeId = new AtomicInteger();
+    private int phonemeStamp = -1; // pronunciation state phonemes were counted under
+
+    WordStatistics(DictCore _core) {
+        core = _core;
+    }
+
+    /**
+     * Counts word, replacing its prior contribution if already counted
+     *
+     * @param word word to count
+     */
+    synchronized void setWord(ConWord word) {
+        WordEntry oldEntry = words.get(word.getId());
+        String value = word.getValue();
+        int typeId = word.getWordTypeId();
+
+        if (oldEntry != null && oldEntry.value.equals(value) && oldEntry.typeId == typeId) {
+            return;
+        }
+
+        if (oldEntry != null) {
+            countWord(oldEntry, -1);
+        }
+
+        WordEntry newEntry = new WordEntry(word.getId(), value, typeId);
+
+        if (phonemeStamp != -1) {
+            newEntry.phonemes = getPhonemes(value);
+        }
+
+        words.put(word.getId(), newEntry);
+        countWord(newEntry, 1);
+    }
+
+    /**
+     * Removes word from counts
+     *
+     * @param wordId id of word to remove
+     */
+    synchronized void remove(int wordId) {
+        WordEntry oldEntry = words.remove(wordId);
+
+        if (oldEntry != null) {
+            countWord(oldEntry, -1);
+        }
+    }
+
+    /**
+     * Recounts phonemes of all words if pronunciation state has changed since
+     * last counted (or if never counted)
+     *
+     * @param stamp value representing current pronunciation state
+     */
+    synchronized void refreshPhonemes(int stamp) {
+        if (stamp == phonemeStamp) {
+            return;
+        }
+
+        List<WordEntry> entries = new ArrayList<>(words.values());
+        PhonemeCountTask task = new PhonemeCountTask(entries, 0, entries.size());
+
+        phonemeIds.clear();
+        nextPhonemeId.set(0);
+
+        if (entries.size() > RECOUNT_CHUNK_SIZE) {
+            ForkJoinPool.commonPool().invoke(task);
+        } else {
+            task.compute();
+        }
+
+        phonemes = task.phonemeCounts;
+        phonemeCombos2 = task.comboCounts;
+        phonemeStamp = stamp;
+    }
+
+    synchronized int getWordCount() {
+        return words.size();
+    }
+
+    synchronized int getStartCount(char c) {
+        return starts.get(c);
+    }
+
+    synchronized int getEndCount(char c) {
+        return ends.get(c);
+    }
+
+    synchronized int getCharCount(char c) {
+        return chars.get(c);
+    }
+
+    synchronized int getCharCombo2Count(char first, char second) {
+        return charCombos2.get(combo(first, second));
+    }
+
+    synchronized int getCharCombo3Count(char first, char second, char third) {
+        return charCombos3.get(combo(combo(first, second), third));
+    }
+
+    /**
+     * @return highest count of any two character combination
+     */
+    synchronized int getHighestCharCombo2Count() {
+        return charCombos2.getMaxCount();
+    }
+
+    /**
+     * @return every character appearing in any word, in order of first
+     * appearance (by word ID, then position within word)
+     */
+    synchronized char[] getCountedChars() {
+        if (chars.hasStaleRanks()) {
+            // the word a character was first seen in has gone: find the next
+            for (WordEntry entry : words.values()) {
+                for (int i = 0; i < entry.value.length(); i++) {
+                    chars.offerRank(entry.value.charAt(i), rank(entry.id, i));
+                }
+            }
+
+            chars.clearStaleRanks();
+        }
+
+        long[] keys = chars.getKeysByRank();
+        char[] ret = new char[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            ret[i] = (char) keys[i];
+        }
+
+        return ret;
+    }
+
+    synchronized int getTypeCount(int typeId) {
+        return types.get(typeId);
+    }
+
+    /**
+     * @return id of every type at least one word has, in id order
+     */
+    synchronized int[] getCountedTypes() {
+        long[] keys = types.getKeys();
+        int[] ret = new int[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            ret[i] = (int) keys[i];
+        }
+
+        Arrays.sort(ret);
+
+        return ret;
+    }
+
+    /**
+     * Only current as of last refreshPhonemes()
+     *
+     * @param phoneme phoneme to count
+     * @return occurrences of phoneme across all words
+     */
+    synchronized int getPhonemeCount(String phoneme) {
+        Integer id = phonemeIds.get(phoneme);
+
+        return id == null ? 0 : phonemes.get(id);
+    }
+
+    /**
+     * Only current as of last refreshPhonemes()
+     *
+     * @param first first phoneme of pair
+     * @param second phoneme following first
+     * @return occurrences of pair across all words
+     */
+    synchronized int getPhonemeCombo2Count(String first, String second) {
+        Integer firstId = phonemeIds.get(first);
+        Integer secondId = phonemeIds.get(second);
+
+        return firstId == null || secondId == null ? 0
+                : phonemeCombos2.get(((long) firstId << 32) | secondId);
+    }
+
+    private void countWord(WordEntry entry, int delta) {
+        String value = entry.value;
+        int length = value.length();
+
+        if (length > 0) {
+            starts.add(value.charAt(0), delta);
+            ends.add(value.charAt(length - 1), delta);
+        }
+
+        for (int i = 0; i < length; i++) {
+            chars.add(value.charAt(i), delta, rank(entry.id, i));
+
+            if (i + 1 < length) {
+                long combo2 = combo(value.charAt(i), value.charAt(i + 1));
+                charCombos2.add(combo2, delta);
+
+                if (i + 2 < length) {
+                    charCombos3.add(combo(combo2, value.charAt(i + 2)), delta);
+                }
+            }
+        }
+
+        types.add(entry.typeId, delta);
+
+        if (entry.phonemes != null) {
+            countPhonemes(entry.phonemes, delta);
+        }
+    }
+
+    private void countPhonemes(int[] wordPhonemes, int delta) {
+        countPhonemes(wordPhonemes, delta, phonemes, phonemeCombos2);
+    }
+
+    private static void countPhonemes(int[] wordPhonemes, int delta,
+            CountMap phonemeCounts, CountMap comboCounts) {
+        for (int i = 0; i < wordPhonemes.length; i++) {
+            phonemeCounts.add(wordPhonemes[i], delta);
+
+            if (i + 1 < wordPhonemes.length) {
+                comboCounts.add(((long) wordPhonemes[i] << 32) | wordPhonemes[i + 1], delta);
+            }
+        }
+    }
+
+    private int[] getPhonemes(String value) {
+        List<PronunciationNode> elements = core.getPronunciationMgr().getPronunciationElements(value);
+        int[] ret = new int[elements.size()];
+
+        for (int i = 0; i < ret.length; i++) {
+            String phoneme = elements.get(i).getPronunciation();
+            Integer id = phonemeIds.get(phoneme);
+
+            if (id == null) {
+                Integer newId = nextPhonemeId.getAndIncrement();
+                id = phonemeIds.putIfAbsent(phoneme, newId);
+                id = id == null ? newId : id;
+            }
+
+            ret[i] = id;
+        }
+
+        return ret;
+    }
+
+    private static long rank(int wordId, int position) {
+        return ((long) wordId << 32) | position;
+    }
+
+    private static long combo(long prefix, char next) {
+        return (prefix << 16) | next;
+    }
+
+    /**
+     * Tokenizes and counts phonemes of a range of entries, splitting ranges
+     * larger than RECOUNT_CHUNK_SIZE in two
+     */
+    private class PhonemeCountTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final List<WordEntry> entries;
+        private final int start;
+        private final int end;
+        private CountMap phonemeCounts;
+        private CountMap comboCounts;
+
+        PhonemeCountTask(List<WordEntry> _entries, int _start, int _end) {
+            entries = _entries;
+            start = _start;
+            end = _end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > RECOUNT_CHUNK_SIZE) {
+                int mid = (start + end) >>> 1;
+                PhonemeCountTask left = new PhonemeCountTask(entries, start, mid);
+                PhonemeCountTask right = new PhonemeCountTask(entries, mid, end);
+
+                invokeAll(left, right);
+
+                phonemeCounts = left.phonemeCounts;
+                phonemeCounts.addAll(right.phonemeCounts);
+                comboCounts = left.comboCounts;
+                comboCounts.addAll(right.comboCounts);
+            } else {
+                phonemeCounts = new CountMap();
+                comboCounts = new CountMap();
+
+                for (WordEntry entry : entries.subList(start, end)) {
+                    entry.phonemes = getPhonemes(entry.value);
+                    countPhonemes(entry.phonemes, 1, phonemeCounts, comboCounts);
+                }
+            }
+        }
+    }
+
+    /**
+     * Value and type of word as last counted
+     */
+    private static class WordEntry {
+
+        final int id;
+        final String value;
+        final int typeId;
+        int[] phonemes = null;
+
+        WordEntry(int _id, String _value, int _typeId) {
+            id = _id;
+            value = _value;
+            typeId = _typeId;
+        }
+    }
+
+    /**
+     * Counts keyed by primitive long, using open addressing so that counting
+     * allocates nothing per key. Keys whose count falls to zero are removed.
+     * Optionally keeps the lowest rank each key was counted under. When the
+     * count holding a key's lowest rank is taken back out, the ranks are
+     * marked stale until the caller offers every remaining rank again.
+     */
+    private static class CountMap {
+
+        private long[] keys = new long[16];
+        private int[] counts = new int[16]; // zero marks an empty slot
+        private long[] ranks;
+        private int size = 0;
+        private boolean staleRanks = false;
+
+        CountMap() {
+            this(false);
+        }
+
+        CountMap(boolean tracksRanks) {
+            ranks = tracksRanks ? new long[16] : null;
+        }
+
+        int get(long key) {
+            int mask = keys.length - 1;
+
+            for (int i = slot(key, mask); counts[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return counts[i];
+                }
+            }
+
+            return 0;
+        }
+
+        void add(long key, int delta) {
+            add(key, delta, Long.MAX_VALUE);
+        }
+
+        /**
+         * Adds to count of key, counted under rank. Ranks are ignored unless
+         * this map tracks them.
+         */
+        void add(long key, int delta, long rank) {
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+
+            while (counts[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+
+            if (counts[i] != 0) {
+                counts[i] += delta;
+
+                if (counts[i] <= 0) {
+                    delete(i);
+                } else if (ranks != null) {
+                    if (delta > 0) {
+                        ranks[i] = Math.min(ranks[i], rank);
+                    } else if (ranks[i] == rank) {
+                        ranks[i] = Long.MAX_VALUE;
+                        staleRanks = true;
+                    }
+                }
+            } else if (delta > 0) {
+                keys[i] = key;
+                counts[i] = delta;
+                if (ranks != null) {
+                    ranks[i] = rank;
+                }
+                size++;
+
+                if (size * 2 > keys.length) {
+                    resize(keys.length * 2);
+                }
+            }
+        }
+
+        /**
+         * Adds all counts of another map to this one
+         */
+        void addAll(CountMap other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.keys[i], other.counts[i],
+                            other.ranks == null ? Long.MAX_VALUE : other.ranks[i]);
+                }
+            }
+
+            staleRanks |= other.staleRanks;
+        }
+
+        boolean hasStaleRanks() {
+            return staleRanks;
+        }
+
+        void clearStaleRanks() {
+            staleRanks = false;
+        }
+
+        /**
+         * Lowers rank of key to given rank if lower. Does nothing if key is
+         * not counted.
+         */
+        void offerRank(long key, long rank) {
+            int mask = keys.length - 1;
+
+            for (int i = slot(key, mask); counts[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    ranks[i] = Math.min(ranks[i], rank);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return all keys, ordered by rank
+         */
+        long[] getKeysByRank() {
+            long[][] ranked = new long[size][];
+            int pos = 0;
+
+            for (int i = 0; i < keys.length; i++) {
+                if (counts[i] != 0) {
+                    ranked[pos++] = new long[]{ranks[i], keys[i]};
+                }
+            }
+
+            Arrays.sort(ranked, new Comparator<long[]>() {
+                @Override
+                public int compare(long[] a, long[] b) {
+                    return a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]);
+                }
+            });
+
+            long[] ret = new long[size];
+
+            for (int i = 0; i < size; i++) {
+                ret[i] = ranked[i][1];
+            }
+
+            return ret;
+        }
+
+        int getMaxCount() {
+            int ret = 0;
+
+            for (int count : counts) {
+                ret = Math.max(ret, count);
+            }
+
+            return ret;
+        }
+
+        long[] getKeys() {
+            long[] ret = new long[size];
+            int pos = 0;
+
+            for (int i = 0; i < keys.length; i++) {
+                if (counts[i] != 0) {
+                    ret[pos++] = keys[i];
+                }
+            }
+
+            return ret;
+        }
+
+        /**
+         * Empties slot, shifting back any later entries of the same probe run
+         * that could no longer be found past the gap
+         */
+        private void delete(int i) {
+            int mask = keys.length - 1;
+            int j = i;
+
+            counts[i] = 0;
+            size--;
+
+            while (true) {
+                j = (j + 1) & mask;
+
+                if (counts[j] == 0) {
+                    return;
+                }
+
+                int home = slot(keys[j], mask);
+                boolean movable = j > i ? (home <= i || home > j) : (home <= i && home > j);
+
+                if (movable) {
+                    keys[i] = keys[j];
+                    counts[i] = counts[j];
+                    if (ranks != null) {
+                        ranks[i] = ranks[j];
+                    }
+                    counts[j] = 0;
+                    i = j;
+                }
+            }
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            long[] oldRanks = ranks;
+
+            keys = new long[capacity];
+            counts = new int[capacity];
+            ranks = oldRanks == null ? null : new long[capacity];
+            size = 0;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldCounts[i] != 0) {
+                    add(oldKeys[i], oldCounts[i],
+                            oldRanks == null ? Long.MAX_VALUE : oldRanks[i]);
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+
+            return (int) (hash >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot.Nodes;
+
+import PolyGlot.CustomControls.PAlphaMap;
+
+/**
+ * Sort key of a node value under a custom alphabet. The value is broken once
+ * into the alphabet positions of its leading clusters, so comparing two keys
+ * never needs to search for prefixes again. Ordering is identical to walking
+ * the clusters of both values directly.
+ *
+ * @author draque
+ */
+final class AlphaCollationKey {
+
+    private final String source;
+    private final PAlphaMap<?, ?> order;
+    private final int orderRevision;
+    // alphabet position of each cluster; final entry -1 if the rest is unmatched
+    private final int[] alphas;
+    // start of the text remaining before each cluster
+    private final int[] starts;
+    // end of the trimmed value, which bounds all text after the first cluster
+    private final int trimmedEnd;
+
+    /**
+     * Builds sort key for a value
+     *
+     * @param _source value to build key from
+     * @param _order alphabetical order to build key under
+     */
+    AlphaCollationKey(String _source, PAlphaMap<?, ?> _order) {
+        source = _source;
+        order = _order;
+        orderRevision = _order.getRevision();
+
+        int end = source.length();
+        while (end > 0 && source.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        trimmedEnd = end;
+
+        int longest = order.getLongestEntry();
+        int[] alphaBuf = new int[source.length() + 1];
+        int[] startBuf = new int[source.length() + 1];
+        int count = 0;
+        int pos = 0;
+
+        while (!isEmptyAt(count, pos)) {
+            int regionEnd = count == 0 ? source.length() : trimmedEnd;
+            int regionLen = regionEnd - pos;
+            int alpha = -1;
+            int preLen = 0;
+
+            for (int i = regionLen > longest ? longest : regionLen; i >= 0; i--) {
+                String prefix = source.substring(pos, pos + i);
+
+                if (order.containsKey(prefix)) {
+                    alpha = (int) order.get(prefix);
+                    preLen = i;
+                    break;
+                }
+            }
+
+            alphaBuf[count] = alpha;
+            startBuf[count] = pos;
+            count++;
+
+            // unmatched remainders (or clusters which consume nothing) end the key
+            if (alpha == -1 || preLen == 0) {
+                break;
+            }
+
+            // text following a cluster is trimmed before it is examined
+            pos += preLen;
+            while (pos < trimmedEnd && source.charAt(pos) <= ' ') {
+                pos++;
+            }
+        }
+
+        alphas = new int[count];
+        starts = new int[count];
+        System.arraycopy(alphaBuf, 0, alphas, 0, count);
+        System.arraycopy(startBuf, 0, starts, 0, count);
+    }
+
+    /**
+     * Tests whether key is still valid for a value and alphabet
+     *
+     * @param _source current value
+     * @param _order current alphabetical order
+     * @return true if key may be used
+     */
+    boolean isCurrent(String _source, PAlphaMap<?, ?> _order) {
+        return source == _source && order == _order
+                && orderRevision == _order.getRevision();
+    }
+
+    /**
+     * Compares this key with another built under the same alphabet
+     *
+     * @param comp key to compare with
+     * @return negative if this sorts before comp, positive if after, else 0
+     */
+    int compareTo(AlphaCollationKey comp) {
+        int ret = 0;
+
+        for (int step = 0;; step++) {
+            int meStart = getStart(step);
+            int meEnd = getEnd(step);
+            int compStart = comp.getStart(step);
+            int compEnd = comp.getEnd(step);
+            int meLen = meEnd - meStart;
+            int compLen = compEnd - compStart;
+
+            if (meLen == compLen
+                    && source.regionMatches(meStart, comp.source, compStart, meLen)) {
+                ret = 0;
+                break;
+            } else if (compLen == 0) {
+                ret = 1;
+                break;
+            } else if (meLen == 0) {
+                ret = -1;
+                break;
+            }
+
+            int meAlpha = step < alphas.length ? alphas[step] : -1;
+            int compAlpha = step < comp.alphas.length ? comp.alphas[step] : -1;
+
+            if (meAlpha == -1 || compAlpha == -1) {
+                // unmatched clusters fall back to system alpha order
+                String me = source.substring(meStart, meEnd);
+                ret = me.compareToIgnoreCase(comp.source.substring(compStart, compEnd));
+                break;
+            } else if (compAlpha > meAlpha) {
+                ret = -1;
+                break;
+            } else if (compAlpha < meAlpha) {
+                ret = 1;
+                break;
+            }
+        }
+
+        return ret;
+    }
+
+    private boolean isEmptyAt(int step, int pos) {
+        return step == 0 ? source.isEmpty() : pos >= trimmedEnd;
+    }
+
+    private int getStart(int step) {
+        return step < starts.length ? starts[step] : trimmedEnd;
+    }
+
+    private int getEnd(int step) {
+        return step == 0 ? source.length() : Math.max(getStart(step), trimmedEnd);
+    }
+}
@@ -68,13 +68,7 @@ public class ConWord extends DictNode {
      * @return 
      */
     public boolean isWordLegal() {
-        ConWord checkValue = parent.testWordLegality(this);
-        
-        return checkValue.getValue().equals("") &&
-                checkValue.getDefinition().equals("") &&
-                checkValue.getLocalWord().equals("") &&
-                checkValue.getPronunciation().equals("") &&
-                checkValue.typeError.equals("");
+        return parent.isWordLegal(this);
     }
 
     public boolean isRulesOverrride() {
@@ -223,6 +217,7 @@ public class ConWord extends DictNode {
     
     public void setProcOverride(boolean _procOverride) {
         procOverride = _procOverride;
+        updateIndex();
     }
     
     public String getLocalWord() {
@@ -240,6 +235,7 @@ public class ConWord extends DictNode {
         }
         
         this.localWord = _localWord.trim();
+        updateIndex();
     }
     
     @Override
@@ -253,6 +249,7 @@ public class ConWord extends DictNode {
             }
         }        
         super.setValue(_value.replace(PGTUtil.RTLMarker, "").replace(PGTUtil.LTRMarker, ""));
+        updateIndex();
     }
 
     /**
@@ -275,6 +272,7 @@ public class ConWord extends DictNode {
 
     public void setWordTypeId(int _typeId) {
         typeId = _typeId;
+        updateIndex();
     }
     
     public Integer getWordTypeId() {
@@ -301,6 +299,7 @@ public class ConWord extends DictNode {
 
     public void setDefinition(String definition) {
         this.definition = definition;
+        updateIndex();
     }
 
     /**
@@ -323,6 +322,17 @@ public class ConWord extends DictNode {
 
     public void setPronunciation(String pronunciation) {
         this.pronunciation = pronunciation;
+        updateIndex();
+    }
+    
+    /**
+     * Informs parent collection that searchable values of this word have
+     * changed, so that its search index stays current
+     */
+    private void updateIndex() {
+        if (parent != null) {
+            parent.updateWordIndex(this);
+        }
     }
     
     /**
@@ -377,23 +387,4 @@ public class ConWord extends DictNode {
     public Integer getClassValue(int classId) {
         return classValues.containsKey(classId) ? classValues.get(classId) : -1;
     }
-    
-    /**
-     * Respects default alpha order and orders by localword (if any) if parent
-     * value set for this.
-     * @param _compare
-     * @return 
-     */
-    @Override
-    public int compareTo(DictNode _compare) {
-        int ret;
-        
-        if (parent != null && parent.isLocalOrder()) {
-            ret = this.getLocalWord().compareToIgnoreCase(((ConWord)_compare).getLocalWord());
-        } else {
-            ret = super.compareTo(_compare);
-        }
-        
-        return ret;
-    }
 }
@@ -28,6 +28,9 @@ import java.util.List;
  * @author draque
  */
 public class DeclensionGenRule implements Comparable<DeclensionGenRule> {
+    // incremented on any change to any rule which might alter generated forms
+    private static volatile int revision = 0;
+    
     private int typeId;
     private int index;
     private String combinationId;
@@ -44,6 +47,20 @@ public class DeclensionGenRule implements Comparable<DeclensionGenRule> {
         return transBuffer;
     }
     
+    /**
+     * Gets global revision of declension rules. Whenever any rule is altered
+     * in a way which changes the forms it generates, this value changes, and
+     * anything compiled from rules at an older revision should be discarded.
+     * @return current revision
+     */
+    public static int getRevision() {
+        return revision;
+    }
+    
+    private static void markChanged() {
+        revision++;
+    }
+    
     /**
      * Inserts current transform buffer, then sets to blank
      */
@@ -71,6 +88,7 @@ public class DeclensionGenRule implements Comparable<DeclensionGenRule> {
             copyTo.setEqual(copyFrom);
             transformations.add(copyTo);
         }
+        markChanged();
     }
     
     /**
@@ -94,6 +112,7 @@ public class DeclensionGenRule implements Comparable<DeclensionGenRule> {
      */
     public void addTransform(DeclensionGenTransform trans) {
         transformations.add(trans);
+        markChanged();
     }
     
     /**
@@ -109,6 +128,7 @@ public class DeclensionGenRule implements Comparable<DeclensionGenRule> {
      */
     public void wipeTransforms() {
         transformations = new ArrayList<>();
+        markChanged();
     }
     
     public String getName() {
@@ -125,6 +145,7 @@ public class DeclensionGenRule implements Comparable<DeclensionGenRule> {
     
     public void setTypeId(int _typeId) {
         typeId = _typeId;
+        markChanged();
     }
     
     public String getCombinationId() {
@@ -133,6 +154,7 @@ public class DeclensionGenRule implements Comparable<DeclensionGenRule> {
     
     public void setCombinationId(String _combinationId) {
         combinationId = _combinationId;
+        markChanged();
     }
         
     public String getRegex() {
@@ -141,6 +163,7 @@ public class DeclensionGenRule implements Comparable<DeclensionGenRule> {
     
     public void setRegex(String _regex) {
         regex = _regex;
+        markChanged();
     }
     
     @Override
@@ -153,7 +176,11 @@ public class DeclensionGenRule implements Comparable<DeclensionGenRule> {
     }
 
     public void setIndex(int index) {
-        this.index = index;
+        // index changes alter rule order, but are frequently set to existing value
+        if (this.index != index) {
+            this.index = index;
+            markChanged();
+        }
     }
     
     /**
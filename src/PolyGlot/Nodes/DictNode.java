@@ -38,6 +38,9 @@ public abstract class DictNode implements Comparable<DictNode> {
     // used for alphabetic ordering of nodes
     //private Map<Character, Integer> alphaOrder = new HashMap<>();
     private PAlphaMap<String, Integer> alphaOrder = new PAlphaMap<>();
+    
+    // sort key of value under alphaOrder, built on first comparison
+    private volatile AlphaCollationKey collationKey = null;
 
     /**
      * Sets a node equal to the argument node
@@ -56,6 +59,7 @@ public abstract class DictNode implements Comparable<DictNode> {
 
     public void setAlphaOrder(PAlphaMap _alphaOrder) {
         alphaOrder = _alphaOrder;
+        collationKey = null;
     }
 
     public String getValue() {
@@ -64,6 +68,30 @@ public abstract class DictNode implements Comparable<DictNode> {
 
     public void setValue(String conWord) {
         this.value = conWord.trim();
+        collationKey = null;
+    }
+
+    /**
+     * Gets sort key of this node's value under the given alphabetical order.
+     * Keys built under the node's own order are cached until its value or
+     * the order changes.
+     *
+     * @param _order alphabetical order to build key under
+     * @return sort key
+     */
+    AlphaCollationKey getCollationKey(PAlphaMap<?, ?> _order) {
+        AlphaCollationKey ret = collationKey;
+        String curValue = getValue();
+
+        if (ret == null || !ret.isCurrent(curValue, _order)) {
+            ret = new AlphaCollationKey(curValue, _order);
+
+            if (_order == alphaOrder) {
+                collationKey = ret;
+            }
+        }
+
+        return ret;
     }
 
     /**
@@ -96,58 +124,7 @@ public abstract class DictNode implements Comparable<DictNode> {
                 ret = this.getValue().compareToIgnoreCase(_compare.getValue());
             } else {
                 // compare values based on largest front facing clusters found in alphabet order
-                int longest = alphaOrder.getLongestEntry();
-                int meLen = me.length();
-                int compLen = comp.length();
-                int meAlpha = -1;
-                int compAlpha = -1;
-
-                for (int i = meLen > longest ? longest : meLen; i >= 0; i--) {
-                    String mePrefix = me.substring(0, i);
-
-                    if (alphaOrder.containsKey(mePrefix)) {
-                        meAlpha = (int) alphaOrder.get(mePrefix);
-                        break;
-                    }
-                }
-
-                if (meAlpha == -1) {
-                    // no prefixed pattern found for this value: default to system alpha order
-                    ret = this.getValue().compareToIgnoreCase(_compare.getValue());
-                } else {
-                    int preLen = 0;
-
-                    for (int i = compLen > longest ? longest : compLen; i >= 0; i--) {
-                        String compPrefix = comp.substring(0, i);
-
-                        if (alphaOrder.containsKey(compPrefix)) {
-                            compAlpha = (int) alphaOrder.get(compPrefix);
-                            preLen = compPrefix.length(); // record length for substring truncation if current patterns are equal
-                            break;
-                        }
-                    }
-
-                    if (compAlpha == -1) { 
-                        // no prefixed pattern found for comp value: default to system alpha order
-                        ret = this.getValue().compareToIgnoreCase(_compare.getValue());
-                    } else if (compAlpha > meAlpha) {
-                        ret = BEFORE;
-                    } else if (compAlpha < meAlpha) {
-                        ret = AFTER;
-                    } else {
-                        // two patterns are the same. Truncate and check subpatterns
-                        ConWord compChild = new ConWord();
-                        ConWord thisChild = new ConWord();
-
-                        compChild.setAlphaOrder(alphaOrder);
-                        thisChild.setAlphaOrder(alphaOrder);
-
-                        compChild.setValue(_compare.getValue().substring(preLen));
-                        thisChild.setValue(this.getValue().substring(preLen));
-
-                        ret = thisChild.compareTo(compChild);
-                    }
-                }
+                ret = getCollationKey(alphaOrder).compareTo(_compare.getCollationKey(alphaOrder));
             }
         }
 
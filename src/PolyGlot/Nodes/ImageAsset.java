@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot.Nodes;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+/**
+ * Image held by a node. Images loaded from file are kept PNG encoded and only
+ * decoded when first displayed. Decoded rasters live in a shared LRU cache
+ * bounded by pixel count, so large logographic sets do not all stay
+ * resident. Images set directly are held as given until first encoded (on
+ * save), after which they are treated like loaded images.
+ *
+ * @author draque
+ */
+final class ImageAsset {
+
+    // roughly 64MB of 32 bit rasters
+    private static final long CACHE_PIXEL_LIMIT = 16L * 1024 * 1024;
+    private static final Map<ImageAsset, BufferedImage> DECODED = new LinkedHashMap<>(64, 0.75f, true);
+    private static long cachedPixels = 0;
+
+    private byte[] encoded;
+    private BufferedImage image;
+
+    private ImageAsset(byte[] _encoded, BufferedImage _image) {
+        encoded = _encoded;
+        image = _image;
+    }
+
+    /**
+     * @param _encoded PNG encoded image, as stored in archive
+     * @return asset decoding given bytes on demand
+     */
+    static ImageAsset fromEncoded(byte[] _encoded) {
+        return new ImageAsset(_encoded, null);
+    }
+
+    /**
+     * @param _image raster to hold
+     * @return asset holding given raster
+     */
+    static ImageAsset fromImage(BufferedImage _image) {
+        return new ImageAsset(null, _image);
+    }
+
+    /**
+     * Gets image, decoding it if not currently cached
+     *
+     * @return image, null if image could not be decoded
+     */
+    BufferedImage getImage() {
+        byte[] curEncoded;
+
+        synchronized (this) {
+            if (image != null) {
+                return image;
+            }
+
+            curEncoded = encoded;
+        }
+
+        BufferedImage ret = getCached(this);
+
+        if (ret == null) {
+            try {
+                ret = ImageIO.read(new ByteArrayInputStream(curEncoded));
+            } catch (IOException e) {
+                ret = null;
+            }
+
+            if (ret != null) {
+                putCached(this, ret);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets PNG encoding of image. Images loaded from file are returned as read,
+     * without being decoded or re-encoded.
+     *
+     * @return PNG bytes of image
+     * @throws IOException if image cannot be encoded
+     */
+    synchronized byte[] getEncoded() throws IOException {
+        if (encoded == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            encoded = out.toByteArray();
+
+            // raster may now be dropped and re-decoded if needed again
+            putCached(this, image);
+            image = null;
+        }
+
+        return encoded;
+    }
+
+    private static synchronized BufferedImage getCached(ImageAsset asset) {
+        return DECODED.get(asset);
+    }
+
+    private static synchronized void putCached(ImageAsset asset, BufferedImage decoded) {
+        BufferedImage replaced = DECODED.put(asset, decoded);
+
+        if (replaced != null) {
+            cachedPixels -= pixelCount(replaced);
+        }
+
+        cachedPixels += pixelCount(decoded);
+
+        // evict least recently used, always keeping newest entry
+        Iterator<BufferedImage> it = DECODED.values().iterator();
+        while (cachedPixels > CACHE_PIXEL_LIMIT && DECODED.size() > 1) {
+            cachedPixels -= pixelCount(it.next());
+            it.remove();
+        }
+    }
+
+    private static long pixelCount(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight();
+    }
+}
@@ -23,14 +23,13 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import javax.imageio.ImageIO;
 
 /**
  *
  * @author Draque
  */
 public class ImageNode extends DictNode {
-    private BufferedImage image = null;
+    private ImageAsset image = null;
     private File tmpFile = null;
     
     /**
@@ -47,22 +46,49 @@ public class ImageNode extends DictNode {
         }
         ImageNode tmpNode = (ImageNode)_node;
         
-        image = tmpNode.getImage();
+        image = tmpNode.image;
         id = tmpNode.getId();
     }
 
     /**
-     * @return the image
+     * @return the image, decoded on demand
      */
     public BufferedImage getImage() {
-        return image;
+        return image == null ? null : image.getImage();
     }
 
     /**
      * @param _image the image to set
      */
     public void setImage(BufferedImage _image) {
-        image = _image;
+        image = _image == null ? null : ImageAsset.fromImage(_image);
+        tmpFile = null;
+    }
+
+    /**
+     * Gets image as PNG bytes. Images loaded from file are returned exactly as
+     * read, without decoding or re-encoding.
+     *
+     * @return PNG encoded image
+     * @throws IOException if no image set or image cannot be encoded
+     */
+    public byte[] getImageBytes() throws IOException {
+        if (image == null) {
+            throw new IOException("Image not instantiated.");
+        }
+
+        return image.getEncoded();
+    }
+
+    /**
+     * Sets image from PNG bytes, which are decoded only when the image is
+     * first requested
+     *
+     * @param _bytes PNG encoded image
+     */
+    public void setImageBytes(byte[] _bytes) {
+        image = ImageAsset.fromEncoded(_bytes);
+        tmpFile = null;
     }
     
     /**
@@ -83,7 +109,9 @@ public class ImageNode extends DictNode {
         // create tmp file if none exists
         if (tmpFile == null || !tmpFile.exists()) {
             tmpFile = File.createTempFile(id.toString() + "_polyGlotImage", ".png");
-            ImageIO.write(image, "PNG", new FileOutputStream(tmpFile));
+            try (FileOutputStream out = new FileOutputStream(tmpFile)) {
+                out.write(image.getEncoded());
+            }
         }
         
         return tmpFile.getAbsolutePath();
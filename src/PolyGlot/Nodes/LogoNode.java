@@ -19,9 +19,11 @@
  */
 package PolyGlot.Nodes;
 
+import PolyGlot.ManagersCollections.LogoCollection;
 import PolyGlot.PGTUtil;
 import java.awt.Graphics;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -36,14 +38,41 @@ public class LogoNode extends DictNode {
 
     private int strokes = 0;
     private String notes = "";
-    private BufferedImage logoGraph;
+    private ImageAsset logoGraph = null;
     private boolean isRadical = false;
     private String tmpRads = "";
     private String tmpReadingBuffer = "";
     protected List<LogoNode> radicals = new ArrayList<>();
     protected List<String> readings = new ArrayList<>();
+    private LogoCollection parent;
 
-    public LogoNode() {
+    public void setParent(LogoCollection _parent) {
+        parent = _parent;
+    }
+
+    /**
+     * Informs parent collection that searchable values of this logograph have
+     * changed, so that its lookup index stays current
+     */
+    private void updateIndex() {
+        if (parent != null) {
+            parent.updateLogoIndex(this);
+        }
+    }
+
+    @Override
+    public void setValue(String _value) {
+        super.setValue(_value);
+        updateIndex();
+    }
+
+    /**
+     * Gets blank logograph image. Only drawn on demand: nodes loaded from file
+     * have their own images set directly after creation.
+     *
+     * @return blank image
+     */
+    private BufferedImage getBlankImage() {
         ImageIcon loadBlank = new ImageIcon(getClass().getResource(PGTUtil.emptyLogoImage));
         BufferedImage image = new BufferedImage(
                 loadBlank.getIconWidth(),
@@ -55,15 +84,47 @@ public class LogoNode extends DictNode {
         loadBlank.paintIcon(null, g, 0, 0);
         g.dispose();
 
-        logoGraph = image;
+        return image;
     }
 
+    /**
+     * @return logograph image, decoded on demand
+     */
     public BufferedImage getLogoGraph() {
-        return logoGraph;
+        if (logoGraph == null) {
+            logoGraph = ImageAsset.fromImage(getBlankImage());
+        }
+
+        return logoGraph.getImage();
     }
 
     public void setLogoGraph(BufferedImage _logoGraph) {
-        logoGraph = _logoGraph;
+        logoGraph = _logoGraph == null ? null : ImageAsset.fromImage(_logoGraph);
+    }
+
+    /**
+     * Gets logograph as PNG bytes. Images loaded from file are returned exactly
+     * as read, without decoding or re-encoding.
+     *
+     * @return PNG encoded logograph
+     * @throws IOException if image cannot be encoded
+     */
+    public byte[] getLogoGraphBytes() throws IOException {
+        if (logoGraph == null) {
+            logoGraph = ImageAsset.fromImage(getBlankImage());
+        }
+
+        return logoGraph.getEncoded();
+    }
+
+    /**
+     * Sets logograph from PNG bytes, which are decoded only when the image is
+     * first requested
+     *
+     * @param _bytes PNG encoded logograph
+     */
+    public void setLogoGraphBytes(byte[] _bytes) {
+        logoGraph = ImageAsset.fromEncoded(_bytes);
     }
 
     public boolean isRadical() {
@@ -76,6 +137,7 @@ public class LogoNode extends DictNode {
 
     public void setStrokes(int _strokes) {
         strokes = _strokes;
+        updateIndex();
     }
 
     public Integer getStrokes() {
@@ -93,12 +155,14 @@ public class LogoNode extends DictNode {
     public void addRadical(LogoNode radicalId) {
         if (!radicals.contains(radicalId)) {
             radicals.add(radicalId);
+            updateIndex();
         }
     }
 
     public void removeRadical(LogoNode radicalId) {
         if (radicals.contains(radicalId)) {
             radicals.remove(radicalId);
+            updateIndex();
         }
     }
 
@@ -108,22 +172,26 @@ public class LogoNode extends DictNode {
 
     public void setRadicals(List<LogoNode> _radicals) {
         radicals = _radicals;
+        updateIndex();
     }
 
     public void addReading(String reading) {
         if (!readings.contains(reading)) {
             readings.add(reading);
+            updateIndex();
         }
     }
 
     public void removeReading(String reading) {
         if (readings.contains(reading)) {
             readings.remove(reading);
+            updateIndex();
         }
     }
 
     public void setReadings(List<String> _readings) {
         readings = _readings;
+        updateIndex();
     }
 
     public List<String> getReadings() {
@@ -279,7 +347,7 @@ public class LogoNode extends DictNode {
         LogoNode setNode = (LogoNode) _node;
         radicals = setNode.radicals;
         readings = setNode.readings;
-        logoGraph = setNode.getLogoGraph();
+        logoGraph = setNode.logoGraph;
         notes = setNode.getNotes();
         value = setNode.value;
         strokes = setNode.getStrokes();
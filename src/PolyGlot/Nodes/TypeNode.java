@@ -20,6 +20,8 @@
 
 package PolyGlot.Nodes;
 
+import java.util.regex.Pattern;
+
 /**
  *
  * @author draque
@@ -30,6 +32,7 @@ public class TypeNode extends DictNode {
     private String gloss = "";
     private boolean procMandatory = false;
     private boolean defMandatory = false;    
+    private Pattern compiledPattern = null;
     
     public void setPattern(String _regexPattern) {
         regexPattern = _regexPattern;
@@ -39,6 +42,27 @@ public class TypeNode extends DictNode {
         return regexPattern;
     }
     
+    /**
+     * Gets compiled form of pattern, compiling only when pattern has changed
+     * since last compiled
+     * @return compiled pattern, null if type has no pattern
+     * @throws java.util.regex.PatternSyntaxException if pattern is invalid
+     */
+    public Pattern getCompiledPattern() {
+        if (regexPattern.isEmpty()) {
+            return null;
+        }
+        
+        Pattern ret = compiledPattern;
+        
+        if (ret == null || !ret.pattern().equals(regexPattern)) {
+            ret = Pattern.compile(regexPattern);
+            compiledPattern = ret;
+        }
+        
+        return ret;
+    }
+    
     public String getNotes(){
         return notes;
     }
@@ -67,11 +67,14 @@ import java.awt.image.BufferedImage;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import org.apache.commons.lang3.StringEscapeUtils;
 
 /**
@@ -105,6 +108,10 @@ public class PExportToPDF {
     private final PdfFont conFont;
     private final PdfFont unicodeFont;
     private final PdfFont unicodeFontItalic;
+    private final Map<String, PdfFont> standardFonts = new HashMap<>();
+    private static final int ENTRY_PREP_CHUNK_SIZE = 256;
+    private EntryPrepTask entryPrep = null;
+    private Map<Integer, EntryData> entryData = null;
     private final int conFontSize;
     private boolean printLocalCon = false;
     private boolean printConLocal = false;
@@ -155,6 +162,18 @@ public class PExportToPDF {
      */
     public void print() throws FileNotFoundException, IOException, Exception {
         PdfDocument pdf = new PdfDocument(new PdfWriter(targetFile));
+        standardFonts.clear();
+        entryData = null;
+        entryPrep = null;
+
+        // entry data for dictionaries is prepared in the background while
+        // the rest of the document is laid out
+        if (printConLocal || printLocalCon) {
+            List<ConWord> words = core.getWordCollection().getWordNodes();
+            entryPrep = new EntryPrepTask(words, new EntryData[words.size()], 0, words.size());
+            ForkJoinPool.commonPool().execute(entryPrep);
+        }
+
         document = new Document(pdf);
         DocumentRenderer defRender = new DocumentRenderer(document, false);
         document.setRenderer(defRender);
@@ -246,7 +265,7 @@ public class PExportToPDF {
                 Div curChap = (Div) curEntry.getKey();
                 Text header = new Text((String) chapTitles.get((String) curEntry.getValue()) + "\n")
                         .setFontSize(20);
-                header.setFont(PdfFontFactory.createFont(FontConstants.HELVETICA_BOLD));
+                header.setFont(getStandardFont(FontConstants.HELVETICA_BOLD));
                 header.setTextAlignment(TextAlignment.CENTER);
                 document.add(new AreaBreak(AreaBreakType.NEXT_PAGE));
                 // dictionary sections are 2 column style
@@ -297,7 +316,7 @@ public class PExportToPDF {
         // Drop page number information into place
         if (printPageNumber && canvas != null) {
             canvas.beginText();
-            canvas.setFontAndSize(PdfFontFactory.createFont(FontConstants.HELVETICA), 12);
+            canvas.setFontAndSize(getStandardFont(FontConstants.HELVETICA), 12);
             canvas.moveText(pageNumberX, pageNumberY);
             canvas.showText(Integer.toString(pdf.getNumberOfPages()));
             canvas.endText();
@@ -322,6 +341,74 @@ public class PExportToPDF {
         }
     }
 
+    /**
+     * Gets one of the standard PDF fonts. Each is created only once per
+     * document, rather than once per use.
+     *
+     * @param fontName name of font (from FontConstants)
+     * @return font
+     * @throws IOException if font cannot be created
+     */
+    private PdfFont getStandardFont(String fontName) throws IOException {
+        PdfFont ret = standardFonts.get(fontName);
+
+        if (ret == null) {
+            ret = PdfFontFactory.createFont(fontName);
+            standardFonts.put(fontName, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Lays out and draws everything added to the document so far, then writes
+     * out all finished pages from firstPage on, freeing their content. The
+     * page still being filled is kept open.
+     *
+     * @param firstPage first page which may be written out
+     * @return first page not yet written out
+     */
+    private int flushFinishedPages(int firstPage) {
+        PdfDocument pdf = document.getPdfDocument();
+        int ret = firstPage;
+        document.flush();
+
+        for (; ret < pdf.getNumberOfPages(); ret++) {
+            pdf.getPage(ret).flush();
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets prepared entry data for word, waiting on background preparation
+     * the first time it is called
+     *
+     * @param curWord word to get data of
+     * @return entry data
+     */
+    private EntryData getEntryData(ConWord curWord) {
+        if (entryData == null) {
+            entryData = new HashMap<>();
+
+            if (entryPrep != null) {
+                entryPrep.join();
+                for (EntryData data : entryPrep.results) {
+                    entryData.put(data.id, data);
+                }
+            }
+        }
+
+        EntryData ret = entryData.get(curWord.getId());
+
+        if (ret == null) {
+            ret = new EntryData(curWord);
+            entryData.put(ret.id, ret);
+        }
+
+        return ret;
+    }
+
     /**
      * Gets map of types to their glosses (just type name if no gloss) and
      * returns it. This prevents the necessity of looking up each gloss name for
@@ -353,6 +440,8 @@ public class PExportToPDF {
         String curLetter = "";
         Div curLetterSec = new Div();
         Iterator<ConWord> allWords = core.getWordCollection().getWordNodes().iterator();
+        // page holding the chapter header is left open
+        int firstPage = document.getPdfDocument().getNumberOfPages() + 1;
         curLetterSec.add(new Paragraph(new Text("\n")));
         curLetterSec.setProperty(Property.DESTINATION, anchorPoint);
 
@@ -367,6 +456,7 @@ public class PExportToPDF {
                 if (!curLetter.equals("")) {
                     document.add(curLetterSec);
                     document.add(new AreaBreak(AreaBreakType.NEXT_AREA));
+                    firstPage = flushFinishedPages(firstPage);
                     curLetterSec = new Div();
                 }
                 curLetter = curWord.getValue().substring(0, 1);
@@ -381,64 +471,43 @@ public class PExportToPDF {
                 dictEntry.add(new Text("\n"));
             }
 
-            String wordVal = PGTUtil.stripRTL(curWord.getValue());
-            if (core.getPropertiesManager().isEnforceRTL()) {
-                // PDFs do not respect RTL character
-                wordVal = new StringBuilder(wordVal).reverse().toString();
-            }
-            Text varChunk = new Text(wordVal);
+            EntryData data = getEntryData(curWord);
+            Text varChunk = new Text(data.wordVal);
             varChunk.setFont(conFont);
             varChunk.setFontSize(conFontSize + offsetSize);
             dictEntry.add(varChunk);
 
             varChunk = new Text(" - ");
-            varChunk.setFont(PdfFontFactory.createFont(FontConstants.TIMES_BOLD));
+            varChunk.setFont(getStandardFont(FontConstants.TIMES_BOLD));
             dictEntry.add(varChunk.setFontSize(defFontSize));
 
             // Add word type (if one exists)
-            if (glossKey.containsKey(curWord.getWordTypeId())) {
-                varChunk = new Text(glossKey.get(curWord.getWordTypeId()));
+            if (data.gloss != null) {
+                varChunk = new Text(data.gloss);
                 varChunk.setFont(unicodeFont);
                 dictEntry.add(varChunk.setFontSize(defFontSize));
                 varChunk = new Text(" - ");
-                varChunk.setFont(PdfFontFactory.createFont(FontConstants.TIMES_BOLD));
+                varChunk.setFont(getStandardFont(FontConstants.TIMES_BOLD));
                 dictEntry.add(varChunk.setFontSize(defFontSize));
             }
 
-            if (!curWord.getPronunciation().equals("")) {
-                varChunk = new Text("/" + curWord.getPronunciation() + "/");
+            if (!data.pronunciation.equals("")) {
+                varChunk = new Text("/" + data.pronunciation + "/");
                 varChunk.setFont(unicodeFont);
                 varChunk.setFontSize(defFontSize);
                 dictEntry.add(varChunk);
                 varChunk = new Text(" - ");
-                varChunk.setFont(PdfFontFactory.createFont(FontConstants.TIMES_BOLD));
+                varChunk.setFont(getStandardFont(FontConstants.TIMES_BOLD));
                 dictEntry.add(varChunk.setFontSize(defFontSize));
             }
 
             // adds values 
-            if (!curWord.getClassValues().isEmpty()) {
-                String wordClasses = "";
-                for (Entry<Integer, Integer> curEntry : curWord.getClassValues()) {
-                    WordProperty prop;
-                    WordPropValueNode value;
-
-                    try {
-                        prop = (WordProperty) core.getWordPropertiesCollection()
-                                .getNodeById(curEntry.getKey());
-                        value = prop.getValueById(curEntry.getValue());
-                    } catch (Exception e) {
-                        log += "\nProblem printing classes for word (" + curWord.getValue() 
-                                + "): " + e.getLocalizedMessage();
-                        continue;
-                    }
-
-                    if (!wordClasses.equals("")) {
-                        wordClasses += ", ";
-                    }
-
-                    wordClasses += value.getValue();
+            if (data.wordClasses != null) {
+                for (String error : data.classErrors) {
+                    log += "\nProblem printing classes for word (" + curWord.getValue() 
+                            + "): " + error;
                 }
-                varChunk = new Text(wordClasses);
+                varChunk = new Text(data.wordClasses);
                 varChunk.setFont(unicodeFont);
                 dictEntry.add(varChunk.setFontSize(defFontSize));
 
@@ -447,24 +516,23 @@ public class PExportToPDF {
                 dictEntry.add(varChunk.setFontSize(defFontSize));
             }
             
-            if (!curWord.getClassTextValues().isEmpty()) {
+            if (!data.classTexts.isEmpty()) {
                 varChunk = null;
                 
-                for (Entry<Integer, String> curEntry : curWord.getClassTextValues()) {
+                for (String[] classText : data.classTexts) {
                     if (varChunk != null) {
                         dictEntry.add(new Text(", "));
                     }
-                    try {
-                        WordProperty prop = (WordProperty)core.getWordPropertiesCollection().getNodeById(curEntry.getKey());
-                        varChunk = new Text(prop.getValue());
+                    if (classText[0] == null) {
+                        log += "\nProblem printing classes for word (" + curWord.getValue() 
+                                + "): " + classText[1];
+                    } else {
+                        varChunk = new Text(classText[0]);
                         varChunk.setFont(unicodeFontItalic);
                         dictEntry.add(varChunk);
-                        varChunk = new Text(" : " + curEntry.getValue());
+                        varChunk = new Text(" : " + classText[1]);
                         varChunk.setFont(unicodeFont);
                         dictEntry.add(varChunk);
-                    } catch (Exception e) {
-                        log += "\nProblem printing classes for word (" + curWord.getValue() 
-                                + "): " + e.getLocalizedMessage();
                     }
                 }
                 
@@ -472,30 +540,23 @@ public class PExportToPDF {
             }
             
             // write romanization value for word if active and word has one
-            if (core.getRomManager().isEnabled()) {
-                String romStr = core.getRomManager().getPronunciation(curWord.getValue());
-                
-                if (!romStr.isEmpty()) {
-                    dictEntry.add(new Text("\nRoman: ").setFont(unicodeFont));
-                    dictEntry.add(new Text(romStr + "\n").setFont(unicodeFontItalic));
-                }
+            if (!data.romanization.isEmpty()) {
+                dictEntry.add(new Text("\nRoman: ").setFont(unicodeFont));
+                dictEntry.add(new Text(data.romanization + "\n").setFont(unicodeFontItalic));
+            }
+
+            if (data.error != null) {
+                throw data.error;
             }
 
-            List<Object> defList = WebInterface.getElementsHTMLBody(curWord.getDefinition(), core);
-            if (!defList.isEmpty()) {
+            if (!data.definition.isEmpty()) {
                 dictEntry.add(new Text("\n"));
-                for (Object o : defList) {
+                for (Object o : data.definition) {
                     if (o instanceof String) {
-                        // remove HTML from text and add newline (each text object in list is a line)
-                        String cleanedText = StringEscapeUtils.unescapeHtml4((String) o) + "\n";
-                        dictEntry.add(new Text(cleanedText).setFontSize(defFontSize).setFont(unicodeFont));
-                    } else if (o instanceof BufferedImage) {
-                        // must convert buffered image to bytes because WHY DOES iTEXT 7 NOT DO THIS ITSELF.
-                        byte[] bytes = IOHandler.getBufferedImageByteArray((BufferedImage) o);
-                        Image pdfImage = new Image(ImageDataFactory.create(bytes));
-                        dictEntry.add(pdfImage);
+                        dictEntry.add(new Text((String) o).setFontSize(defFontSize).setFont(unicodeFont));
                     } else {
-                        // Do nothing: May be expanded for further logic later
+                        Image pdfImage = new Image(ImageDataFactory.create((byte[]) o));
+                        dictEntry.add(pdfImage);
                     }
                 }
             }
@@ -534,6 +595,8 @@ public class PExportToPDF {
         String curLetter = "";
         Div curLetterSec = new Div();
         Iterator<ConWord> allWords = core.getWordCollection().getNodeIteratorLocalOrder();
+        // page holding the chapter header is left open
+        int firstPage = document.getPdfDocument().getNumberOfPages() + 1;
         curLetterSec.add(new Paragraph(new Text("\n")));
         curLetterSec.setProperty(Property.DESTINATION, anchorPoint);
 
@@ -553,6 +616,7 @@ public class PExportToPDF {
                 if (!curLetter.equals("")) {
                     document.add(curLetterSec);
                     document.add(new AreaBreak(AreaBreakType.NEXT_AREA));
+                    firstPage = flushFinishedPages(firstPage);
                     curLetterSec = new Div();
                 }
                 curLetter = curWord.getLocalWord().substring(0, 1);
@@ -568,118 +632,89 @@ public class PExportToPDF {
             dictEntry.add(new Text(curWord.getLocalWord() + "\n\n")
                     .setFontSize(defFontSize + offsetSize));
             
-            String wordVal = PGTUtil.stripRTL(curWord.getValue());
-            if (core.getPropertiesManager().isEnforceRTL()) {
-                // PDF Does not respect RTL characters...
-                wordVal = new StringBuilder(wordVal).reverse().toString();
-            }
-            varChunk = new Text(wordVal);
+            EntryData data = getEntryData(curWord);
+            varChunk = new Text(data.wordVal);
             varChunk.setFont(conFont);
             varChunk.setFontSize(conFontSize - offsetSize);
             dictEntry.add(varChunk);
 
             varChunk = new Text(" - ");
-            varChunk.setFont(PdfFontFactory.createFont(FontConstants.TIMES_BOLD));
+            varChunk.setFont(getStandardFont(FontConstants.TIMES_BOLD));
             dictEntry.add(varChunk.setFontSize(defFontSize));
 
             // Add word type (if one exists)
-            if (glossKey.containsKey(curWord.getWordTypeId())) {
-                varChunk = new Text(glossKey.get(curWord.getWordTypeId()));
+            if (data.gloss != null) {
+                varChunk = new Text(data.gloss);
                 varChunk.setFont(unicodeFont);
                 dictEntry.add(varChunk.setFontSize(defFontSize));
                 varChunk = new Text(" - ");
-                varChunk.setFont(PdfFontFactory.createFont(FontConstants.TIMES_BOLD));
+                varChunk.setFont(getStandardFont(FontConstants.TIMES_BOLD));
                 dictEntry.add(varChunk.setFontSize(defFontSize));
             }
 
-            if (!curWord.getPronunciation().equals("")) {
-                varChunk = new Text("/" + curWord.getPronunciation() + "/");
+            if (!data.pronunciation.equals("")) {
+                varChunk = new Text("/" + data.pronunciation + "/");
                 varChunk.setFont(unicodeFont);
                 varChunk.setFontSize(defFontSize);
                 dictEntry.add(varChunk);
                 varChunk = new Text(" - ");
-                varChunk.setFont(PdfFontFactory.createFont(FontConstants.TIMES_BOLD));
+                varChunk.setFont(getStandardFont(FontConstants.TIMES_BOLD));
                 dictEntry.add(varChunk.setFontSize(defFontSize));
             }
 
             // adds values 
-            if (!curWord.getClassValues().isEmpty()) {
-                String wordClasses = "";
-                for (Entry<Integer, Integer> curEntry : curWord.getClassValues()) {
-                    WordProperty prop;
-                    WordPropValueNode value;
-
-                    try {
-                        prop = (WordProperty) core.getWordPropertiesCollection()
-                                .getNodeById(curEntry.getKey());
-                        value = prop.getValueById(curEntry.getValue());
-                    } catch (Exception e) {
-                        log += "\nProblem printing classes for word: " + curWord.getValue();
-                        continue;
-                    }
-
-                    if (!wordClasses.equals("")) {
-                        wordClasses += ", ";
-                    }
-
-                    wordClasses += value.getValue();
+            if (data.wordClasses != null) {
+                for (String error : data.classErrors) {
+                    log += "\nProblem printing classes for word: " + curWord.getValue();
                 }
-                varChunk = new Text(wordClasses);
+                varChunk = new Text(data.wordClasses);
                 varChunk.setFont(unicodeFont);
                 dictEntry.add(varChunk.setFontSize(defFontSize));
 
                 varChunk = new Text(" - ");
-                varChunk.setFont(PdfFontFactory.createFont(FontConstants.TIMES_BOLD));
+                varChunk.setFont(getStandardFont(FontConstants.TIMES_BOLD));
                 dictEntry.add(varChunk.setFontSize(defFontSize));
             }
             
-            if (!curWord.getClassTextValues().isEmpty()) {
+            if (!data.classTexts.isEmpty()) {
                 varChunk = null;
                 
-                for (Entry<Integer, String> curEntry : curWord.getClassTextValues()) {
+                for (String[] classText : data.classTexts) {
                     if (varChunk != null) {
                         dictEntry.add(new Text(", "));
                     }
-                    try {
-                        WordProperty prop = (WordProperty)core.getWordPropertiesCollection().getNodeById(curEntry.getKey());
-                        varChunk = new Text(prop.getValue());
+                    if (classText[0] == null) {
+                        log += "\nProblem printing classes for word (" + curWord.getValue() 
+                                + "): " + classText[1];
+                    } else {
+                        varChunk = new Text(classText[0]);
                         varChunk.setFont(unicodeFontItalic);
                         dictEntry.add(varChunk);
-                        varChunk = new Text(" : " + curEntry.getValue());
+                        varChunk = new Text(" : " + classText[1]);
                         varChunk.setFont(unicodeFont);
                         dictEntry.add(varChunk);
-                    } catch (Exception e) {
-                        log += "\nProblem printing classes for word (" + curWord.getValue() 
-                                + "): " + e.getLocalizedMessage();
                     }
                 }
             }
             
             // write romanization value for word if active and word has one
-            if (core.getRomManager().isEnabled()) {
-                String romStr = core.getRomManager().getPronunciation(curWord.getValue());
-                
-                if (!romStr.isEmpty()) {
-                    dictEntry.add(new Text("\nRoman: ").setFont(unicodeFont));
-                    dictEntry.add(new Text(romStr).setFont(unicodeFontItalic));
-                }
+            if (!data.romanization.isEmpty()) {
+                dictEntry.add(new Text("\nRoman: ").setFont(unicodeFont));
+                dictEntry.add(new Text(data.romanization).setFont(unicodeFontItalic));
+            }
+
+            if (data.error != null) {
+                throw data.error;
             }
 
-            List<Object> defList = WebInterface.getElementsHTMLBody(curWord.getDefinition(), core);
-            if (!defList.isEmpty()) {
+            if (!data.definition.isEmpty()) {
                 dictEntry.add(new Text("\n"));
-                for (Object o : defList) {
+                for (Object o : data.definition) {
                     if (o instanceof String) {
-                        // remove HTML from text and add newline (each text object in list is a line)
-                        String cleanedText = StringEscapeUtils.unescapeHtml4((String) o) + "\n";
-                        dictEntry.add(new Text(cleanedText).setFontSize(defFontSize).setFont(unicodeFont));
-                    } else if (o instanceof BufferedImage) {
-                        // must convert buffered image to bytes because WHY DOES iTEXT 7 NOT DO THIS ITSELF.
-                        byte[] bytes = IOHandler.getBufferedImageByteArray((BufferedImage) o);
-                        Image pdfImage = new Image(ImageDataFactory.create(bytes));
-                        dictEntry.add(pdfImage);
+                        dictEntry.add(new Text((String) o).setFontSize(defFontSize).setFont(unicodeFont));
                     } else {
-                        // Do nothing: May be expanded for further logic later
+                        Image pdfImage = new Image(ImageDataFactory.create((byte[]) o));
+                        dictEntry.add(pdfImage);
                     }
                 }
             }
@@ -707,8 +742,8 @@ public class PExportToPDF {
         boolean usesRegEx = false;
 
         Table table = new Table(2);
-        table.addCell(new Paragraph("Character(s)").setFont(PdfFontFactory.createFont(FontConstants.COURIER_BOLD)));
-        table.addCell(new Paragraph("Pronunciation").setFont(PdfFontFactory.createFont(FontConstants.COURIER_BOLD)));
+        table.addCell(new Paragraph("Character(s)").setFont(getStandardFont(FontConstants.COURIER_BOLD)));
+        table.addCell(new Paragraph("Pronunciation").setFont(getStandardFont(FontConstants.COURIER_BOLD)));
 
         Iterator<PronunciationNode> orthIt = core.getPronunciationMgr().getPronunciations().iterator();
 
@@ -755,8 +790,8 @@ public class PExportToPDF {
 
         for (GrammarChapNode chap : gramList) {
             String chapName = chap.getName();
-            ret.add(new Paragraph(chapName).setFont(PdfFontFactory
-                    .createFont(FontConstants.COURIER_BOLD)).setFontSize(20));
+            ret.add(new Paragraph(chapName).setFont(
+                    getStandardFont(FontConstants.COURIER_BOLD)).setFontSize(20));
 
             Div chapDiv = new Div();
 
@@ -766,8 +801,8 @@ public class PExportToPDF {
                 Paragraph newSec = new Paragraph();
                 newSec.setMarginLeft(30);
                 GrammarSectionNode curSec = (GrammarSectionNode) chap.getChildAt(i);
-                newSec.add(new Text(curSec.getName()).setFont(PdfFontFactory
-                        .createFont(FontConstants.COURIER_OBLIQUE)).setFontSize(18));
+                newSec.add(new Text(curSec.getName()).setFont(
+                        getStandardFont(FontConstants.COURIER_OBLIQUE)).setFontSize(18));
                 newSec.add(new Text("\n"));
                 // populate text ensuring that conlang font is maintained where appropriate
                 for (Entry<String, PFontInfo> entry : FormattedTextHelper.getSectionTextFontSpecifec(curSec.getSectionText(), core)) {
@@ -779,7 +814,7 @@ public class PExportToPDF {
                             text = text.replace("<img src=\"", "").replace("\">", "");
                             int imgId = Integer.parseInt(text);
                             ImageNode imageNode = (ImageNode)core.getImageCollection().getNodeById(imgId);
-                            byte[] bytes = IOHandler.getBufferedImageByteArray(imageNode.getImage());
+                            byte[] bytes = imageNode.getImageBytes();
                             Image pdfImage = new Image(ImageDataFactory.create(bytes));
                             newSec.add(pdfImage);
                         } catch (Exception e) {
@@ -825,8 +860,8 @@ public class PExportToPDF {
         Div ret = new Div();
         ret.setProperty(Property.DESTINATION, anchorPoint);
         Table table = new Table(2);
-        table.addCell(new Paragraph("Part of Speech").setFont(PdfFontFactory.createFont(FontConstants.COURIER_BOLD)));
-        table.addCell(new Paragraph("Gloss").setFont(PdfFontFactory.createFont(FontConstants.COURIER_BOLD)));
+        table.addCell(new Paragraph("Part of Speech").setFont(getStandardFont(FontConstants.COURIER_BOLD)));
+        table.addCell(new Paragraph("Gloss").setFont(getStandardFont(FontConstants.COURIER_BOLD)));
 
         for (TypeNode curType : core.getTypes().getNodes()) {
             table.addCell(curType.getValue());
@@ -980,6 +1015,134 @@ public class PExportToPDF {
         this.printGlossKey = printGlossKey;
     }
 
+    /**
+     * Everything printed for a word in the dictionaries which does not depend
+     * on the PDF document, worked out ahead of layout. Not modified once built.
+     */
+    private class EntryData {
+
+        final Integer id;
+        final String wordVal;
+        final String gloss;
+        final String pronunciation;
+        final String wordClasses;
+        final List<String> classErrors;
+        final List<String[]> classTexts;
+        final String romanization;
+        final List<Object> definition;
+        final IOException error;
+
+        EntryData(ConWord curWord) {
+            id = curWord.getId();
+
+            String val = PGTUtil.stripRTL(curWord.getValue());
+            if (core.getPropertiesManager().isEnforceRTL()) {
+                // PDFs do not respect RTL character
+                val = new StringBuilder(val).reverse().toString();
+            }
+            wordVal = val;
+
+            gloss = glossKey.get(curWord.getWordTypeId());
+            pronunciation = curWord.getPronunciation();
+
+            List<String> errors = new ArrayList<>();
+            if (curWord.getClassValues().isEmpty()) {
+                wordClasses = null;
+            } else {
+                String classes = "";
+                for (Entry<Integer, Integer> curEntry : curWord.getClassValues()) {
+                    WordPropValueNode value;
+
+                    try {
+                        WordProperty prop = (WordProperty) core.getWordPropertiesCollection()
+                                .getNodeById(curEntry.getKey());
+                        value = prop.getValueById(curEntry.getValue());
+                    } catch (Exception e) {
+                        errors.add(e.getLocalizedMessage());
+                        continue;
+                    }
+
+                    if (!classes.equals("")) {
+                        classes += ", ";
+                    }
+
+                    classes += value.getValue();
+                }
+                wordClasses = classes;
+            }
+            classErrors = Collections.unmodifiableList(errors);
+
+            List<String[]> texts = new ArrayList<>();
+            for (Entry<Integer, String> curEntry : curWord.getClassTextValues()) {
+                try {
+                    WordProperty prop = (WordProperty) core.getWordPropertiesCollection()
+                            .getNodeById(curEntry.getKey());
+                    texts.add(new String[]{prop.getValue(), curEntry.getValue()});
+                } catch (Exception e) {
+                    texts.add(new String[]{null, e.getLocalizedMessage()});
+                }
+            }
+            classTexts = Collections.unmodifiableList(texts);
+
+            romanization = core.getRomManager().isEnabled()
+                    ? core.getRomManager().getPronunciation(curWord.getValue()) : "";
+
+            List<Object> defList = new ArrayList<>();
+            IOException defError = null;
+            try {
+                for (Object o : WebInterface.getElementsHTMLBody(curWord.getDefinition(), core)) {
+                    if (o instanceof String) {
+                        // remove HTML from text and add newline (each text object in list is a line)
+                        defList.add(StringEscapeUtils.unescapeHtml4((String) o) + "\n");
+                    } else if (o instanceof BufferedImage) {
+                        // must convert buffered image to bytes because WHY DOES iTEXT 7 NOT DO THIS ITSELF.
+                        defList.add(IOHandler.getBufferedImageByteArray((BufferedImage) o));
+                    } else {
+                        // Do nothing: May be expanded for further logic later
+                    }
+                }
+            } catch (IOException e) {
+                defError = e;
+            }
+            definition = Collections.unmodifiableList(defList);
+            error = defError;
+        }
+    }
+
+    /**
+     * Builds entry data for a range of words, splitting ranges larger than
+     * ENTRY_PREP_CHUNK_SIZE in two
+     */
+    private class EntryPrepTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<ConWord> words;
+        private final EntryData[] results;
+        private final int start;
+        private final int end;
+
+        EntryPrepTask(List<ConWord> _words, EntryData[] _results, int _start, int _end) {
+            words = _words;
+            results = _results;
+            start = _start;
+            end = _end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > ENTRY_PREP_CHUNK_SIZE) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new EntryPrepTask(words, results, start, mid),
+                        new EntryPrepTask(words, results, mid, end));
+            } else {
+                for (int i = start; i < end; i++) {
+                    results[i] = new EntryData(words.get(i));
+                }
+            }
+        }
+    }
+
     /**
      * This is code that allows for easily adding page numbers.
      */
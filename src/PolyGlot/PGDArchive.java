@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.xml.stream.XMLStreamException;
+import org.apache.poi.util.IOUtils;
+
+/**
+ * A PolyGlot archive opened for loading. The archive is opened once, and all
+ * binary assets within it (images, logographs, grammar recordings and the
+ * conlang font) begin reading on a worker pool as soon as it is opened, so
+ * that they are ready (or close to it) by the time the dictionary XML has
+ * been parsed. Images are handed over still PNG encoded; nodes decode them
+ * only when first displayed.
+ *
+ * @author draque
+ */
+public class PGDArchive implements AutoCloseable {
+
+    private final ZipFile zipFile;
+    private final ExecutorService pool;
+    private final Map<Integer, Future<byte[]>> images = new HashMap<>();
+    private final Map<Integer, Future<byte[]>> logographs = new HashMap<>();
+    private final Map<Integer, Future<byte[]>> sounds = new HashMap<>();
+    private Future<byte[]> font = null;
+
+    /**
+     * Opens archive and begins reading its assets
+     *
+     * @param _fileName path of archive
+     * @throws IOException if file cannot be opened as an archive
+     */
+    public PGDArchive(String _fileName) throws IOException {
+        zipFile = new ZipFile(_fileName);
+        pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread ret = new Thread(r, "PolyGlot archive loader");
+                ret.setDaemon(true);
+                return ret;
+            }
+        });
+
+        try {
+            startReading();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void startReading() throws IOException {
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+        while (entries.hasMoreElements()) {
+            final ZipEntry entry = entries.nextElement();
+            String name = entry.getName();
+
+            if (entry.isDirectory()) {
+                continue;
+            }
+
+            if (name.equals(PGTUtil.fontFileName)) {
+                font = submitRead(entry);
+            } else if (name.startsWith(PGTUtil.imagesSavePath)) {
+                images.put(getAssetId(name, PGTUtil.imagesSavePath, ".png"), submitRead(entry));
+            } else if (name.startsWith(PGTUtil.logoGraphSavePath)) {
+                logographs.put(getAssetId(name, PGTUtil.logoGraphSavePath, ".png"), submitRead(entry));
+            } else if (name.startsWith(PGTUtil.grammarSoundSavePath)) {
+                sounds.put(getAssetId(name, PGTUtil.grammarSoundSavePath, ".raw"), submitRead(entry));
+            }
+        }
+    }
+
+    private Future<byte[]> submitRead(final ZipEntry entry) {
+        return pool.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws Exception {
+                return readEntry(entry);
+            }
+        });
+    }
+
+    private byte[] readEntry(ZipEntry entry) throws IOException {
+        try (InputStream stream = zipFile.getInputStream(entry)) {
+            return IOUtils.toByteArray(stream);
+        }
+    }
+
+    private static int getAssetId(String name, String path, String extension) throws IOException {
+        String id = name.substring(path.length()).replace(extension, "");
+
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            throw new IOException("Unrecognized archive entry: " + name);
+        }
+    }
+
+    /**
+     * Reads version of PolyGlot the dictionary was saved with. Only reads as
+     * far into the dictionary XML as the version element.
+     *
+     * @return version string, "0" if none recorded (pre 0.6)
+     * @throws IOException on read error
+     */
+    public String getVersion() throws IOException {
+        try (InputStream ioStream = getDictionaryStream()) {
+            return CustHandlerFactory.readVersion(ioStream);
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Opens stream of dictionary XML. Caller must close.
+     *
+     * @return stream of dictionary XML
+     * @throws IOException if archive contains no dictionary
+     */
+    public InputStream getDictionaryStream() throws IOException {
+        ZipEntry xmlEntry = zipFile.getEntry(PGTUtil.dictFileName);
+
+        if (xmlEntry == null) {
+            throw new IOException("Archive contains no dictionary: " + zipFile.getName());
+        }
+
+        return zipFile.getInputStream(xmlEntry);
+    }
+
+    /**
+     * Gets all images stored in archive, waiting for any still reading
+     *
+     * @return PNG encoded images by ID
+     * @throws IOException if any image could not be read
+     */
+    public Map<Integer, byte[]> getImages() throws IOException {
+        Map<Integer, byte[]> ret = new HashMap<>();
+
+        for (Map.Entry<Integer, Future<byte[]>> entry : images.entrySet()) {
+            ret.put(entry.getKey(), await(entry.getValue()));
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets logograph image, waiting if still reading
+     *
+     * @param logoId ID of logograph
+     * @return PNG encoded image of logograph
+     * @throws IOException if not present in archive or unreadable
+     */
+    public byte[] getLogograph(Integer logoId) throws IOException {
+        Future<byte[]> ret = logographs.get(logoId);
+
+        if (ret == null) {
+            throw new IOException("No image in archive for logograph " + logoId);
+        }
+
+        return await(ret);
+    }
+
+    /**
+     * Gets grammar recording, waiting if still reading
+     *
+     * @param recordingId ID of recording
+     * @return raw recording
+     * @throws IOException if not present in archive or unreadable
+     */
+    public byte[] getSound(Integer recordingId) throws IOException {
+        Future<byte[]> ret = sounds.get(recordingId);
+
+        if (ret == null) {
+            throw new IOException("No recording in archive with ID " + recordingId);
+        }
+
+        return await(ret);
+    }
+
+    /**
+     * Gets bytes of font stored in archive, waiting if still reading
+     *
+     * @return font file contents, null if archive has no font
+     * @throws IOException if font unreadable
+     */
+    public byte[] getFont() throws IOException {
+        return font == null ? null : await(font);
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Archive loading interrupted.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw new IOException(cause == null ? e.getLocalizedMessage() : cause.getLocalizedMessage(), cause);
+        }
+    }
+
+    /**
+     * Stops any reading still under way and closes archive
+     *
+     * @throws IOException on failure to close archive
+     */
+    @Override
+    public void close() throws IOException {
+        pool.shutdownNow();
+        zipFile.close();
+    }
+}
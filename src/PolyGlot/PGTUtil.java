@@ -24,6 +24,8 @@ import PolyGlot.Screens.*;
 import java.awt.Color;
 import java.awt.Image;
 import javax.swing.ImageIcon;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  * This contains various constant vales in PolyGlot
@@ -189,6 +191,7 @@ public class PGTUtil {
     public static final String optionsScreensSize = "ScreenSizes";
     public static final String optionsScreensOpen = "ScreensUp";
     public static final String optionsAutoResize = "OptionsResize";
+    public static final String optionsDeepSaveVerify = "OptionsDeepSaveVerify";
 
     // string constants
     public static final String dictFileName = "PGDictionary.xml";
@@ -298,4 +301,51 @@ public class PGTUtil {
     public static String stripRTL(String strip) {
         return strip.replace(RTLMarker, "").replace(LTRMarker, "");
     }
+
+    /**
+     * Writes an element containing only text to an XML stream
+     * @param writer stream to write to
+     * @param name element name
+     * @param text text of element (null written as empty)
+     * @throws XMLStreamException on write failure
+     */
+    public static void writeXMLElement(XMLStreamWriter writer, String name, String text) throws XMLStreamException {
+        if (text == null || text.isEmpty()) {
+            writer.writeEmptyElement(name);
+        } else {
+            writer.writeStartElement(name);
+            writeXMLText(writer, text);
+            writer.writeEndElement();
+        }
+    }
+
+    /**
+     * Writes text to an XML stream. Carriage returns are written as character
+     * references so that they survive being read back (as they did when
+     * saved through the DOM transformer).
+     * @param writer stream to write to
+     * @param text text to write (null written as empty)
+     * @throws XMLStreamException on write failure
+     */
+    public static void writeXMLText(XMLStreamWriter writer, String text) throws XMLStreamException {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+
+        int start = 0;
+        int cr = text.indexOf('\r');
+
+        while (cr != -1) {
+            if (cr > start) {
+                writer.writeCharacters(text.substring(start, cr));
+            }
+            writer.writeEntityRef("#13");
+            start = cr + 1;
+            cr = text.indexOf('\r', start);
+        }
+
+        if (start < text.length()) {
+            writer.writeCharacters(start == 0 ? text : text.substring(start));
+        }
+    }
 }
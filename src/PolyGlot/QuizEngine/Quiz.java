@@ -113,7 +113,7 @@ public class Quiz extends DictionaryCollection {
             QuizQuestion question = e.getValue();
             
             if (question.getAnswered() == QuizQuestion.Answered.Correct) {
-                nodeMap.remove(e.getKey());
+                removeNode(e.getKey());
             } else {
                 question.setAnswered(QuizQuestion.Answered.Unanswered);
                 question.setUserAnswer(null);
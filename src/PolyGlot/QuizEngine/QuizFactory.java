@@ -127,11 +127,14 @@ public class QuizFactory {
             wordList = core.getWordCollection().filteredList(filter);
         }
 
-        Collections.shuffle(wordList, new Random(System.nanoTime()));
-
         // make certain the number of questions never exceeds the number of words available
         numQuestions = wordList.size() < numQuestions ? wordList.size() : numQuestions;
         Random randGen = new Random();
+
+        // only the words quizzed on need shuffling into place
+        for (int i = 0; i < numQuestions; i++) {
+            Collections.swap(wordList, i, i + randGen.nextInt(wordList.size() - i));
+        }
         
         // make certain word properties have all combos built before making quiz
         core.getWordPropertiesCollection().buildComboCache();
@@ -353,7 +353,7 @@ public class ScrDictMenu extends PFrame implements ApplicationListener {
     private boolean saveOrCancelTest() {
         // if there's a current dictionary loaded, prompt user to save before creating new
         if (core != null
-                && !core.getWordCollection().getWordNodes().isEmpty()) {
+                && core.getWordCollection().getWordCount() != 0) {
             Integer saveFirst = localYesNoCancel("Save First?",
                     "Save current dictionary before performing action?");
 
@@ -409,8 +409,7 @@ public class ScrDictMenu extends PFrame implements ApplicationListener {
         try {
             core.writeFile(_fileName);
             cleanSave = true;
-        } catch (IOException | ParserConfigurationException |
-                TransformerException e) {
+        } catch (IOException e) {
             parent.setCleanSave(false);
             localError("Save Error", "Unable to save to file: "
                     + curFileName + "\n\n" + e.getMessage());
@@ -814,7 +813,7 @@ public class ScrDictMenu extends PFrame implements ApplicationListener {
     private void exportToExcel() {
         JFileChooser chooser = new JFileChooser();
         chooser.setDialogTitle("Export Dictionary to Excel");
-        FileNameExtensionFilter filter = new FileNameExtensionFilter("Excel Files", "xls");
+        FileNameExtensionFilter filter = new FileNameExtensionFilter("Excel Files", "xls", "xlsx");
         chooser.setFileFilter(filter);
         chooser.setApproveButtonText("Save");
         chooser.setCurrentDirectory(new File("."));
@@ -34,6 +34,7 @@ import PolyGlot.CustomControls.PGDocument;
 import PolyGlot.CustomControls.PGrammarPane;
 import PolyGlot.CustomControls.PTextField;
 import PolyGlot.ExternalCode.GlyphVectorPainter;
+import PolyGlot.ManagersCollections.GrammarSearchIndex;
 import PolyGlot.PTree;
 import PolyGlot.SoundRecorder;
 import java.awt.Color;
@@ -46,7 +47,10 @@ import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.io.IOException;
-import java.util.Enumeration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import javax.sound.sampled.LineUnavailableException;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -63,6 +67,8 @@ import javax.swing.event.DocumentListener;
 import javax.swing.event.TreeSelectionEvent;
 import javax.swing.event.TreeSelectionListener;
 import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultHighlighter;
+import javax.swing.text.Highlighter;
 import javax.swing.text.SimpleAttributeSet;
 import javax.swing.text.StyleConstants;
 import javax.swing.text.StyledDocument;
@@ -82,6 +88,11 @@ public class ScrGrammarGuide extends PFrame {
     private final String defTime;
     private SoundRecorder soundRecorder;
     private boolean isUpdating;
+    private final List<Object> searchHighlights = new ArrayList<>();
+    // chapters shown in search results, mapped to the real chapters they mirror
+    private final Map<GrammarChapNode, GrammarChapNode> searchChapters = new HashMap<>();
+    private final Highlighter.HighlightPainter searchPainter
+            = new DefaultHighlighter.DefaultHighlightPainter(Color.yellow);
     private final ImageIcon playButtonUp;
     private final ImageIcon playButtonDown;
     private final ImageIcon recordButtonUp;
@@ -952,6 +963,7 @@ public class ScrGrammarGuide extends PFrame {
             try {
                 FormattedTextHelper.restoreFromString(secNode.getSectionText(),
                         txtSection, core);
+                highlightSearchHits();
             } catch (BadLocationException e) {
                 InfoBox.error("Section Load Error", "Unable to load section text: "
                         + e.getLocalizedMessage(), this);
@@ -1003,12 +1015,23 @@ public class ScrGrammarGuide extends PFrame {
         if (selection instanceof GrammarSectionNode) {
             GrammarSectionNode curNode = (GrammarSectionNode) selection;
             GrammarChapNode parent = (GrammarChapNode) curNode.getParent();
+            GrammarChapNode owner = searchChapters.get(parent);
+
+            if (owner != null) {
+                // filtered: the section must leave the chapter that owns it
+                owner.doRemove(curNode);
+                populateFromSearch();
+                return;
+            }
+
             parent.doRemove(curNode);
             treChapList.expandPath(new TreePath(model.getPathToRoot(parent)));
             treChapList.setSelectionPath(new TreePath(model.getPathToRoot(parent)));
         } else if (selection instanceof GrammarChapNode) {
-            ((GrammarChapNode) root).doRemove((GrammarChapNode) selection);
-            core.getGrammarManager().removeChapter((GrammarChapNode) selection);
+            GrammarChapNode chapter = (GrammarChapNode) selection;
+            GrammarChapNode owner = searchChapters.get(chapter);
+            ((GrammarChapNode) root).doRemove(chapter);
+            core.getGrammarManager().removeChapter(owner == null ? chapter : owner);
         }
 
         model.reload(root);
@@ -1120,6 +1143,7 @@ public class ScrGrammarGuide extends PFrame {
         DefaultMutableTreeNode rootNode = new GrammarChapNode("Root Node", core.getGrammarManager());
         DefaultTreeModel treeModel = new DefaultTreeModel(rootNode);
         treChapList.setModel(treeModel);
+        searchChapters.clear();
 
         for (GrammarChapNode curChap : core.getGrammarManager().getChapters()) {
             rootNode.add(curChap);
@@ -1129,6 +1153,30 @@ public class ScrGrammarGuide extends PFrame {
         treChapList.setLargeModel(true);
     }
 
+    /**
+     * Highlights words of the displayed section matching the current search
+     *
+     * @throws BadLocationException on highlighting error
+     */
+    private void highlightSearchHits() throws BadLocationException {
+        Highlighter highlighter = txtSection.getHighlighter();
+
+        for (Object tag : searchHighlights) {
+            highlighter.removeHighlight(tag);
+        }
+        searchHighlights.clear();
+
+        if (((PTextField) txtSearch).isDefaultText()) {
+            return;
+        }
+
+        String text = txtSection.getDocument().getText(0, txtSection.getDocument().getLength());
+
+        for (int[] match : GrammarSearchIndex.findMatches(text, txtSearch.getText())) {
+            searchHighlights.add(highlighter.addHighlight(match[0], match[1], searchPainter));
+        }
+    }
+
     /**
      * Populates all grammar chapters and sections that match search value
      */
@@ -1143,19 +1191,22 @@ public class ScrGrammarGuide extends PFrame {
 
         DefaultTreeModel treeModel = new DefaultTreeModel(rootNode);
         treChapList.setModel(treeModel);
-        for (GrammarChapNode curChap : core.getGrammarManager().getChapters()) {
-            GrammarChapNode srcChap = new GrammarChapNode(core.getGrammarManager());
-            srcChap.setName(curChap.getName());
-
-            Enumeration sections = curChap.children(txtSearch.getText());
-            while (sections.hasMoreElements()) {
-                GrammarSectionNode curSec = (GrammarSectionNode) sections.nextElement();
-                srcChap.add(curSec);
-            }
-
-            if (srcChap.children().hasMoreElements()) {
+        Map<GrammarChapNode, GrammarChapNode> srcChaps = new HashMap<>();
+        searchChapters.clear();
+
+        // chapters ordered by their best hit, sections by rank
+        for (GrammarSearchIndex.Hit hit : core.getGrammarManager().search(txtSearch.getText())) {
+            GrammarChapNode srcChap = srcChaps.get(hit.getChapter());
+
+            if (srcChap == null) {
+                srcChap = new GrammarChapNode(core.getGrammarManager());
+                srcChap.setName(hit.getChapter().getName());
+                srcChaps.put(hit.getChapter(), srcChap);
+                searchChapters.put(srcChap, hit.getChapter());
                 rootNode.add(srcChap);
             }
+
+            srcChap.add(hit.getSection());
         }
         treeModel.reload(rootNode);
     }
@@ -21,6 +21,7 @@ package PolyGlot.Screens;
 
 import PolyGlot.Nodes.ConWord;
 import PolyGlot.DictCore;
+import PolyGlot.FilterService;
 import PolyGlot.CustomControls.InfoBox;
 import PolyGlot.CustomControls.PButton;
 import PolyGlot.CustomControls.PCheckBox;
@@ -117,7 +118,7 @@ public final class ScrLexicon extends PFrame {
     private boolean curPopulating = false;
     private boolean namePopulating = false;
     private boolean forceUpdate = false;
-    private Thread filterThread = null;
+    private final FilterService<ConWord> filterService = new FilterService<>(500);
     private final ScrMainMenu menuParent;
     private final PTextField txtRom;
 
@@ -626,37 +627,81 @@ public final class ScrLexicon extends PFrame {
     }
 
     /**
-     * Runs filter on timed thread to avoid overabundance of filters and prevent
-     * filtering overlaps. Run this instead of filterLexicon().
+     * Runs filter on background worker, after a short wait for further user
+     * input. Any filter already waiting or running is cancelled, so only the
+     * latest filter's results are shown. Run this instead of filterLexicon().
      */
     private void runFilter() {
-        if (filterThread != null
-                && filterThread.isAlive()) {
-            filterThread.interrupt();
-        }
+        filterService.submit(new FilterService.Search<ConWord>() {
+            private DefaultListModel<ConWord> listModel = null;
 
-        filterThread = new Thread(new Runnable() {
             @Override
-            public void run() {
-                try {
-                    Thread.sleep(500); // wait for interrupt from user...
-                    if (txtConWord.getText().isEmpty()
-                            && lstLexicon.getSelectedIndex() != -1) {
-                        return; // prevents freezing scenario with if new word made beore thread continues
+            public List<ConWord> search() throws Exception {
+                final ConWord[] filter = new ConWord[1];
+
+                // fields are read (and current word saved) on the Swing thread
+                SwingUtilities.invokeAndWait(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (curPopulating || (txtConWord.getText().isEmpty()
+                                && lstLexicon.getSelectedIndex() != -1)) {
+                            return; // prevents freezing scenario with if new word made beore thread continues
+                        }
+
+                        filter[0] = buildFilter();
+
+                        if (!isBlankFilter(filter[0])) {
+                            ConWord curWord = (ConWord) lstLexicon.getSelectedValue();
+                            if (curWord != null) {
+                                saveValuesTo(curWord);
+                            }
+                        }
                     }
-                    filterLexicon();
+                });
+
+                if (filter[0] == null) {
+                    return null;
+                } else if (isBlankFilter(filter[0])) {
+                    return core.getWordCollection().getWordNodes();
+                }
+
+                return core.getWordCollection().filteredList(filter[0]);
+            }
+
+            @Override
+            public void showPage(List<ConWord> page, boolean first) {
+                if (first) {
+                    boolean localPopulating = curPopulating;
+                    curPopulating = true;
+                    listModel = new DefaultListModel<>();
+                    addToModel(page);
+                    lstLexicon.setModel(listModel);
+                    curPopulating = localPopulating;
+
                     lstLexicon.setSelectedIndex(0);
                     lstLexicon.ensureIndexIsVisible(0);
                     populateProperties();
-                    Thread.sleep(50); // wait for other elements to paint first...
-                    jPanel1.repaint();
-                } catch (InterruptedException e) {
-                    // do nothing: interruption is due to additional user input
+                } else if (lstLexicon.getModel() == listModel) {
+                    addToModel(page);
+                }
+            }
+
+            private void addToModel(List<ConWord> page) {
+                for (ConWord curWord : page) {
+                    listModel.addElement(curWord);
                 }
             }
-        });
 
-        filterThread.start();
+            @Override
+            public void finished() {
+                jPanel1.repaint();
+            }
+
+            @Override
+            public void failed(Exception e) {
+                InfoBox.error("Filter Error", "Unable to apply filter.\n\n" + e.getMessage(), ScrLexicon.this);
+            }
+        });
     }
 
     /**
@@ -668,14 +713,9 @@ public final class ScrLexicon extends PFrame {
             return;
         }
 
-        int filterType = cmbTypeSrc.getValue().equals(defTypeValue)
-                ? 0 : ((TypeNode) cmbTypeSrc.getValue()).getId();
+        ConWord filter = buildFilter();
 
-        if (txtConSrc.getText().equals("")
-                && txtDefSrc.getText().equals("")
-                && txtLocalSrc.getText().equals("")
-                && txtProcSrc.getText().equals("")
-                && filterType == 0) {
+        if (isBlankFilter(filter)) {
             populateLexicon();
             lstLexicon.setSelectedIndex(0);
             lstLexicon.ensureIndexIsVisible(0);
@@ -690,14 +730,6 @@ public final class ScrLexicon extends PFrame {
             }
         }
 
-        ConWord filter = new ConWord();
-
-        filter.setValue(txtConSrc.getText().trim());
-        filter.setDefinition(txtDefSrc.getText().trim());
-        filter.setLocalWord(txtLocalSrc.getText().trim());
-        filter.setWordTypeId(filterType);
-        filter.setPronunciation(txtProcSrc.getText().trim());
-
         // save word before applying filter
         ConWord curWord = (ConWord) lstLexicon.getSelectedValue();
         if (curWord != null) {
@@ -714,6 +746,37 @@ public final class ScrLexicon extends PFrame {
         lstLexicon.ensureIndexIsVisible(0);
     }
 
+    /**
+     * Builds filter from values of search fields
+     *
+     * @return word holding filter values
+     */
+    private ConWord buildFilter() {
+        ConWord filter = new ConWord();
+        int filterType = cmbTypeSrc.getValue().equals(defTypeValue)
+                ? 0 : ((TypeNode) cmbTypeSrc.getValue()).getId();
+
+        filter.setValue(txtConSrc.getText().trim());
+        filter.setDefinition(txtDefSrc.getText().trim());
+        filter.setLocalWord(txtLocalSrc.getText().trim());
+        filter.setWordTypeId(filterType);
+        filter.setPronunciation(txtProcSrc.getText().trim());
+
+        return filter;
+    }
+
+    /**
+     * @param filter filter to test
+     * @return true if filter would match every word
+     */
+    private static boolean isBlankFilter(ConWord filter) {
+        return filter.getValue().equals("")
+                && filter.getDefinition().equals("")
+                && filter.getLocalWord().equals("")
+                && filter.getPronunciation().equals("")
+                && filter.getWordTypeId() == 0;
+    }
+
     /**
      * Clears lexicon's search/filter
      */
@@ -1024,6 +1087,7 @@ public final class ScrLexicon extends PFrame {
                 saveValuesTo(curWord);
             }
 
+            filterService.shutdown();
             killAllChildren();
             super.dispose();
         }
@@ -1371,6 +1435,9 @@ public final class ScrLexicon extends PFrame {
         boolean localPopulating = curPopulating;
         curPopulating = true;
 
+        // results of any filter still running would replace these
+        filterService.cancel();
+
         try {
             DefaultListModel listModel = new DefaultListModel();
 
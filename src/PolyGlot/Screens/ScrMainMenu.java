@@ -301,7 +301,7 @@ public class ScrMainMenu extends PFrame implements ApplicationListener {
     private boolean saveOrCancelTest() {
         // if there's a current dictionary loaded, prompt user to save before creating new
         if (core != null
-                && !core.getWordCollection().getWordNodes().isEmpty()) {
+                && core.getWordCollection().getWordCount() != 0) {
             Integer saveFirst = InfoBox.yesNoCancel("Save First?", 
                     "Save current dictionary before performing action?", this);
 
@@ -355,8 +355,7 @@ public class ScrMainMenu extends PFrame implements ApplicationListener {
         try {
             core.writeFile(_fileName);
             cleanSave = true;
-        } catch (IOException | ParserConfigurationException |
-                TransformerException e) {
+        } catch (IOException e) {
             InfoBox.error("Save Error", "Unable to save to file: "
                     + curFileName + "\n\n" + e.getMessage(), this);
         }
@@ -597,7 +596,7 @@ public class ScrMainMenu extends PFrame implements ApplicationListener {
     private void exportToExcel() {
         JFileChooser chooser = new JFileChooser();
         chooser.setDialogTitle("Export Dictionary to Excel");
-        FileNameExtensionFilter filter = new FileNameExtensionFilter("Excel Files", "xls");
+        FileNameExtensionFilter filter = new FileNameExtensionFilter("Excel Files", "xls", "xlsx");
         chooser.setFileFilter(filter);
         chooser.setApproveButtonText("Save");
         chooser.setCurrentDirectory(core.getPropertiesManager().getCannonicalDirectory());
@@ -44,11 +44,13 @@ public class ScrOptions extends PDialog {
     @Override
     public void dispose() {
         core.getOptionsManager().setAnimateWindows(chkResize.isSelected());
+        core.getOptionsManager().setDeepSaveVerify(chkDeepVerify.isSelected());
         super.dispose();
     }
     
     private void setOptions() {
         chkResize.setSelected(core.getOptionsManager().isAnimateWindows());
+        chkDeepVerify.setSelected(core.getOptionsManager().isDeepSaveVerify());
     }
 
     /**
@@ -62,6 +64,7 @@ public class ScrOptions extends PDialog {
 
         jPanel1 = new javax.swing.JPanel();
         chkResize = new PCheckBox(core);
+        chkDeepVerify = new PCheckBox(core);
         btnOk = new PButton();
 
         setBackground(new java.awt.Color(255, 255, 255));
@@ -75,21 +78,28 @@ public class ScrOptions extends PDialog {
         chkResize.setText("Auto Resize Window");
         chkResize.setToolTipText("Resize window to last size of given module automatically");
 
+        chkDeepVerify.setText("Verify Saves by Reloading");
+        chkDeepVerify.setToolTipText("Fully reload each saved file to verify it (slower on large dictionaries)");
+
         javax.swing.GroupLayout jPanel1Layout = new javax.swing.GroupLayout(jPanel1);
         jPanel1.setLayout(jPanel1Layout);
         jPanel1Layout.setHorizontalGroup(
             jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
             .addGroup(jPanel1Layout.createSequentialGroup()
                 .addContainerGap()
-                .addComponent(chkResize)
-                .addContainerGap(188, Short.MAX_VALUE))
+                .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                    .addComponent(chkResize)
+                    .addComponent(chkDeepVerify))
+                .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
         );
         jPanel1Layout.setVerticalGroup(
             jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
             .addGroup(jPanel1Layout.createSequentialGroup()
                 .addContainerGap()
                 .addComponent(chkResize)
-                .addContainerGap(217, Short.MAX_VALUE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(chkDeepVerify)
+                .addContainerGap(188, Short.MAX_VALUE))
         );
 
         btnOk.setText("OK");
@@ -134,6 +144,7 @@ public class ScrOptions extends PDialog {
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JButton btnOk;
+    private javax.swing.JCheckBox chkDeepVerify;
     private javax.swing.JCheckBox chkResize;
     private javax.swing.JPanel jPanel1;
     // End of variables declaration//GEN-END:variables
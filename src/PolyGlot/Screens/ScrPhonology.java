@@ -25,6 +25,8 @@ import PolyGlot.CustomControls.PCellEditor;
 import PolyGlot.CustomControls.PCellRenderer;
 import PolyGlot.CustomControls.PFrame;
 import PolyGlot.DictCore;
+import PolyGlot.ManagersCollections.ConWordCollection;
+import PolyGlot.ManagersCollections.ConWordCollection.ProcRecalc;
 import PolyGlot.ManagersCollections.PropertiesManager;
 import PolyGlot.Nodes.PronunciationNode;
 import java.awt.Color;
@@ -33,14 +35,20 @@ import java.awt.Font;
 import java.awt.Rectangle;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
 import javax.swing.InputMap;
 import javax.swing.JComponent;
+import javax.swing.JOptionPane;
 import javax.swing.JRootPane;
 import javax.swing.KeyStroke;
+import javax.swing.ProgressMonitor;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.event.TableModelEvent;
@@ -55,6 +63,7 @@ import javax.swing.table.TableColumn;
 public class ScrPhonology extends PFrame {
 
     private boolean curPopulating = false;
+    private boolean procsChanged = false;
 
     /**
      * Creates new form scrPhonology
@@ -80,6 +89,17 @@ public class ScrPhonology extends PFrame {
         if (tblRep.getCellEditor() != null) {
             tblRep.getCellEditor().stopCellEditing();
         }
+
+        if (procsChanged) {
+            procsChanged = false;
+
+            if (InfoBox.yesNoCancel("Update Pronunciations?", "Pronunciation rules have changed. "
+                    + "Store newly generated pronunciations\nfor all words without overridden "
+                    + "pronunciations?", this) == JOptionPane.YES_OPTION) {
+                new ProcRecalcWorker().execute();
+            }
+        }
+
         super.dispose();
     }
 
@@ -526,6 +546,7 @@ public class ScrPhonology extends PFrame {
         }
 
         core.getPronunciationMgr().setPronunciations(newPro);
+        procsChanged = true;
         curPopulating = localPopulating;
     }
 
@@ -1101,6 +1122,63 @@ public class ScrPhonology extends PFrame {
         deleteRep();
     }//GEN-LAST:event_btnDelCharRepActionPerformed
 
+    /**
+     * Regenerates pronunciations of all words against the edited guide in the
+     * background, showing progress with the option to cancel. Words are only
+     * updated if generation runs to completion.
+     */
+    private class ProcRecalcWorker extends SwingWorker<Boolean, Void>
+            implements ConWordCollection.RecalcListener {
+
+        private final ConWordCollection words = core.getWordCollection();
+        private final ProcRecalc recalc = words.prepareProcRecalc();
+        private final ProgressMonitor monitor = new ProgressMonitor(null,
+                "Updating pronunciations...", null, 0, 100);
+
+        ProcRecalcWorker() {
+            addPropertyChangeListener(new PropertyChangeListener() {
+                @Override
+                public void propertyChange(PropertyChangeEvent evt) {
+                    if (evt.getPropertyName().equals("progress")) {
+                        monitor.setProgress((Integer) evt.getNewValue());
+
+                        if (monitor.isCanceled()) {
+                            cancel(false);
+                        }
+                    }
+                }
+            });
+        }
+
+        @Override
+        protected Boolean doInBackground() {
+            return recalc.generate(this);
+        }
+
+        @Override
+        public void progress(int done, int total) {
+            setProgress(total == 0 ? 100 : done * 100 / total);
+        }
+
+        @Override
+        protected void done() {
+            monitor.close();
+
+            if (isCancelled()) {
+                return;
+            }
+
+            try {
+                if (get()) {
+                    words.commitProcs(recalc);
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                InfoBox.error("Pronunciation Error", "Unable to update pronunciations: "
+                        + e.getLocalizedMessage(), null);
+            }
+        }
+    }
+
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JButton btnAddCharRep;
     private javax.swing.JButton btnAddProc;
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot.ManagersCollections;
+
+import PolyGlot.DictCore;
+import PolyGlot.Nodes.ConWord;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Checks the lexicon report against output of the original, full scan
+ * implementation, saved alongside this test.
+ *
+ * @author draque
+ */
+public class ConWordCollectionTest {
+
+    /**
+     * Characters missing from the alphabet must be listed in the order the
+     * lexicon first uses them, both before and after the word they were
+     * first seen in is deleted.
+     *
+     * @throws Exception on test failure
+     */
+    @Test
+    public void testBuildWordReportExtraCharOrder() throws Exception {
+        DictCore core = new DictCore();
+        ConWordCollection words = core.getWordCollection();
+        int firstId = -1;
+
+        core.getPropertiesManager().setAlphaOrder("abc");
+
+        for (String value : new String[]{"zab", "cx", "bay", "xz", "ay"}) {
+            ConWord word = new ConWord();
+            word.setValue(value);
+            word.setLocalWord(value);
+            int id = words.addWord(word);
+
+            if (firstId == -1) {
+                firstId = id;
+            }
+        }
+
+        assertEquals(readExpected("wordReportExtraChars.html"), words.buildWordReport());
+
+        words.deleteNodeById(firstId);
+
+        assertEquals(readExpected("wordReportExtraCharsDeleted.html"), words.buildWordReport());
+    }
+
+    private String readExpected(String name) throws Exception {
+        ByteArrayOutputStream ret = new ByteArrayOutputStream();
+
+        try (InputStream in = getClass().getResourceAsStream(name)) {
+            byte[] buffer = new byte[4096];
+            int read;
+
+            while ((read = in.read(buffer)) != -1) {
+                ret.write(buffer, 0, read);
+            }
+        }
+
+        return ret.toString("UTF-8");
+    }
+}
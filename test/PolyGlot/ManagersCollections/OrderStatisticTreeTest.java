@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017, draque.thompson
+ * All rights reserved.
+ *
+ * Licensed under: Creative Commons Attribution-NonCommercial 4.0 International Public License
+ *  See LICENSE.TXT included with this code to read the full license agreement.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package PolyGlot.ManagersCollections;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Checks OrderStatisticTree against a sorted list through random edits
+ *
+ * @author draque
+ */
+public class OrderStatisticTreeTest {
+
+    private final Comparator<Integer> comparator = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer a, Integer b) {
+            return Integer.compare(a, b);
+        }
+    };
+
+    @Test
+    public void testRandomEdits() {
+        Random random = new Random(17);
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(comparator);
+        List<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < 20000; i++) {
+            Integer value = random.nextInt(5000);
+            int pos = Collections.binarySearch(expected, value);
+
+            if (random.nextInt(3) == 0) {
+                tree.remove(value);
+                if (pos >= 0) {
+                    expected.remove(pos);
+                }
+            } else {
+                tree.add(value);
+                if (pos < 0) {
+                    expected.add(-pos - 1, value);
+                }
+            }
+
+            if (i % 1000 == 0) {
+                assertEquals(expected, tree.getRange(0, tree.size()));
+            }
+        }
+
+        assertEquals(expected.size(), tree.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), tree.get(i));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(expected.size());
+            int to = Math.min(expected.size(), from + random.nextInt(100));
+            assertEquals(expected.subList(from, to), tree.getRange(from, to));
+        }
+    }
+
+    @Test
+    public void testSetAllThenEdit() {
+        List<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i += 2) {
+            expected.add(i);
+        }
+
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(comparator);
+        tree.setAll(new ArrayList<>(expected));
+
+        // sequential edits are the worst case for an unbalanced tree
+        for (int i = 1; i < 1000; i += 2) {
+            tree.add(i);
+            expected.add(i);
+        }
+        for (int i = 0; i < 500; i++) {
+            tree.remove(i);
+            expected.remove(Integer.valueOf(i));
+        }
+
+        Collections.sort(expected);
+        assertEquals(expected, tree.getRange(0, tree.size()));
+        assertEquals(Integer.valueOf(500), tree.get(0));
+    }
+}